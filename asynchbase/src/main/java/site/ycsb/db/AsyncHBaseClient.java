@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
 
 import org.hbase.async.Bytes;
 import org.hbase.async.Config;
@@ -35,6 +36,10 @@ import org.hbase.async.KeyValue;
 import org.hbase.async.PutRequest;
 import org.hbase.async.Scanner;
 
+import com.stumbleupon.async.Callback;
+import com.stumbleupon.async.Deferred;
+
+import site.ycsb.AsyncDB;
 import site.ycsb.ByteArrayByteIterator;
 import site.ycsb.ByteIterator;
 import site.ycsb.DBException;
@@ -49,8 +54,11 @@ import static site.ycsb.workloads.CoreWorkload.TABLENAME_PROPERTY_DEFAULT;
  * This client provides a subset of the main HBase client and uses a completely
  * asynchronous pipeline for all calls. It is particularly useful for write heavy
  * workloads. It is also compatible with all production versions of HBase. 
+ * 
+ * Run with <code>inflight.max</code> greater than one to keep several requests
+ * outstanding per client thread through the asynchronous API.
  */
-public class AsyncHBaseClient extends site.ycsb.DB {
+public class AsyncHBaseClient extends AsyncDB {
   public static final Charset UTF8_CHARSET = Charset.forName("UTF8");
   private static final String CLIENT_SIDE_BUFFERING_PROPERTY = "clientbuffering";
   private static final String DURABILITY_PROPERTY = "durability";
@@ -385,6 +393,178 @@ public class AsyncHBaseClient extends site.ycsb.DB {
     return Status.OK;
   }
 
+  @Override
+  public CompletableFuture<Status> readAsync(String table, String key,
+      Set<String> fields, final Map<String, ByteIterator> result) {
+    setTable(table);
+    
+    final GetRequest get = new GetRequest(
+        lastTableBytes, key.getBytes(), columnFamilyBytes);
+    if (fields != null) {
+      get.qualifiers(getQualifierList(fields));
+    }
+    
+    return toFuture(client.get(get)).handle((row, error) -> {
+        if (error != null) {
+          System.err.println("Failure reading from row with key " + key + 
+              ": " + error.getMessage());
+          return Status.ERROR;
+        }
+        if (row == null || row.isEmpty()) {
+          return Status.NOT_FOUND;
+        }
+        for (final KeyValue column : row) {
+          result.put(new String(column.qualifier()), 
+              new ByteArrayByteIterator(column.value()));
+        }
+        return Status.OK;
+      });
+  }
+  
+  @Override
+  public CompletableFuture<Status> scanAsync(String table, String startkey,
+      int recordcount, Set<String> fields,
+      Vector<HashMap<String, ByteIterator>> result) {
+    setTable(table);
+    
+    final Scanner scanner = client.newScanner(lastTableBytes);
+    scanner.setFamily(columnFamilyBytes);
+    scanner.setStartKey(startkey.getBytes(UTF8_CHARSET));
+    if (fields != null) {
+      scanner.setQualifiers(getQualifierList(fields));
+    }
+    
+    final CompletableFuture<Status> future = new CompletableFuture<Status>();
+    scanNextRows(scanner, startkey, recordcount, result, future);
+    return future;
+  }
+  
+  @Override
+  public CompletableFuture<Status> updateAsync(String table, String key,
+      Map<String, ByteIterator> values) {
+    setTable(table);
+    
+    final byte[][] qualifiers = new byte[values.size()][];
+    final byte[][] byteValues = new byte[values.size()][];
+    
+    int idx = 0;
+    for (final Entry<String, ByteIterator> entry : values.entrySet()) {
+      qualifiers[idx] = entry.getKey().getBytes();
+      byteValues[idx++] = entry.getValue().toArray();
+    }
+    
+    final PutRequest put = new PutRequest(lastTableBytes, key.getBytes(), 
+        columnFamilyBytes, qualifiers, byteValues);
+    if (!durability) {
+      put.setDurable(false);
+    }
+    if (!clientSideBuffering) {
+      put.setBufferable(false);
+    }
+    // with client side buffering the future completes once the buffer is flushed
+    return toStatus(client.put(put), key);
+  }
+  
+  @Override
+  public CompletableFuture<Status> insertAsync(String table, String key,
+      Map<String, ByteIterator> values) {
+    return updateAsync(table, key, values);
+  }
+  
+  @Override
+  public CompletableFuture<Status> deleteAsync(String table, String key) {
+    setTable(table);
+    
+    final DeleteRequest delete = new DeleteRequest(
+        lastTableBytes, key.getBytes(), columnFamilyBytes);
+    if (!durability) {
+      delete.setDurable(false);
+    }
+    if (!clientSideBuffering) {
+      delete.setBufferable(false);
+    }
+    return toStatus(client.delete(delete), key);
+  }
+  
+  /**
+   * Fetch the next batch of rows for an asynchronous scan, chaining further
+   * fetches until enough rows were read or the scanner is exhausted.
+   */
+  private void scanNextRows(final Scanner scanner, final String startkey,
+      final int recordcount, final Vector<HashMap<String, ByteIterator>> result,
+      final CompletableFuture<Status> future) {
+    toFuture(scanner.nextRows()).whenComplete((rows, error) -> {
+        if (error != null) {
+          System.err.println("Failure reading from row with key " + startkey + 
+              ": " + error.getMessage());
+          scanner.close();
+          future.complete(Status.ERROR);
+          return;
+        }
+        if (rows != null) {
+          for (final ArrayList<KeyValue> row : rows) {
+            if (result.size() >= recordcount) {
+              break;
+            }
+            final HashMap<String, ByteIterator> rowResult =
+                new HashMap<String, ByteIterator>(row.size());
+            for (final KeyValue column : row) {
+              rowResult.put(new String(column.qualifier()), 
+                  new ByteArrayByteIterator(column.value()));
+            }
+            result.add(rowResult);
+          }
+        }
+        if (rows == null || result.size() >= recordcount) {
+          scanner.close();
+          future.complete(Status.OK);
+        } else {
+          scanNextRows(scanner, startkey, recordcount, result, future);
+        }
+      });
+  }
+  
+  /**
+   * Little helper to map the outcome of a mutation to a status.
+   * @param deferred The pending mutation.
+   * @param key The key being mutated, for error reporting.
+   * @return A future completed with the status of the mutation.
+   */
+  private static CompletableFuture<Status> toStatus(final Deferred<Object> deferred,
+      final String key) {
+    return toFuture(deferred).handle((ignored, error) -> {
+        if (error != null) {
+          System.err.println("Failure writing to row with key " + key + 
+              ": " + error.getMessage());
+          return Status.ERROR;
+        }
+        return Status.OK;
+      });
+  }
+  
+  /**
+   * Little helper to bridge an AsyncHBase deferred to a future.
+   * @param deferred The deferred to bridge.
+   * @return A future completed with the deferred's result or error.
+   */
+  private static <T> CompletableFuture<T> toFuture(final Deferred<T> deferred) {
+    final CompletableFuture<T> future = new CompletableFuture<T>();
+    deferred.addCallbacks(new Callback<Object, T>() {
+      @Override
+      public Object call(final T arg) {
+        future.complete(arg);
+        return null;
+      }
+    }, new Callback<Object, Exception>() {
+      @Override
+      public Object call(final Exception e) {
+        future.completeExceptionally(e);
+        return null;
+      }
+    });
+    return future;
+  }
+
   /**
    * Little helper to set the table byte array. If it's different than the last
    * table we reset the byte array. Otherwise we just use the existing array.
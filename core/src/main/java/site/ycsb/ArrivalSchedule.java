@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An open-loop arrival process shared by all client threads.
+ *
+ * Operations are handed out in the order of a single global schedule of intended start times
+ * that does not depend on how fast the database answers. A client thread asks for the next
+ * arrival, waits until it is due and then issues the operation, so time spent waiting for a
+ * busy thread is accounted for when measurement.interval=intended or both.
+ *
+ * Properties:
+ * <UL>
+ * <LI><b>arrival</b>: "uniform" for evenly spaced arrivals at the target rate, "poisson" for
+ * exponentially distributed inter-arrival times with the target rate as mean, or "trace" to
+ * replay the arrival times in arrival.tracefile. When unset every client thread throttles
+ * itself to its share of the target as before.
+ * <LI><b>arrival.tracefile</b>: a file with one arrival time per line, in milliseconds
+ * (fractions allowed). Times are taken relative to the first line.
+ * </UL>
+ */
+public abstract class ArrivalSchedule {
+  /**
+   * The name of the property for the arrival process.
+   */
+  public static final String ARRIVAL_PROPERTY = "arrival";
+
+  /**
+   * The name of the property for the arrival trace used by arrival=trace.
+   */
+  public static final String ARRIVAL_TRACE_FILE_PROPERTY = "arrival.tracefile";
+
+  /**
+   * Returned by {@link #nextArrivalNanos()} once the schedule is exhausted. {@link System#nanoTime()} may
+   * be negative, so no other negative value can stand for it.
+   */
+  public static final long EXHAUSTED = Long.MIN_VALUE;
+
+  /**
+   * The value of {@link #startTimeNanos} until the first arrival is requested.
+   */
+  private static final long NOT_STARTED = Long.MIN_VALUE;
+
+  /**
+   * The nanoTime at which the schedule started, or {@link #NOT_STARTED}.
+   */
+  private final AtomicLong startTimeNanos = new AtomicLong(NOT_STARTED);
+
+  /**
+   * Create the arrival schedule described by the properties.
+   *
+   * @param props The properties of the run.
+   * @param target The target number of operations per second for all threads together.
+   * @return The schedule, or null if no arrival process was requested.
+   */
+  public static ArrivalSchedule create(Properties props, double target) throws WorkloadException {
+    String arrival = props.getProperty(ARRIVAL_PROPERTY);
+    if (arrival == null) {
+      return null;
+    }
+    switch (arrival) {
+    case "uniform":
+      return new Uniform(intervalNanos(target));
+    case "poisson":
+      return new Poisson(intervalNanos(target));
+    case "trace":
+      String tracefile = props.getProperty(ARRIVAL_TRACE_FILE_PROPERTY);
+      if (tracefile == null) {
+        throw new WorkloadException(ARRIVAL_PROPERTY + "=trace requires " + ARRIVAL_TRACE_FILE_PROPERTY);
+      }
+      try {
+        return new Trace(readTrace(tracefile));
+      } catch (IOException | NumberFormatException e) {
+        throw new WorkloadException("Couldn't read arrival trace " + tracefile, e);
+      }
+    default:
+      throw new WorkloadException("Unknown " + ARRIVAL_PROPERTY + " \"" + arrival + "\"");
+    }
+  }
+
+  private static double intervalNanos(double target) throws WorkloadException {
+    if (target <= 0) {
+      throw new WorkloadException("A " + Client.TARGET_PROPERTY + " rate is required for open-loop arrivals");
+    }
+    return 1e9 / target;
+  }
+
+  private static long[] readTrace(String tracefile) throws IOException {
+    long[] offsets = new long[1024];
+    int count = 0;
+    try (BufferedReader reader = new BufferedReader(new FileReader(tracefile))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        if (count == offsets.length) {
+          offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        offsets[count++] = (long) (Double.parseDouble(line) * 1e6);
+      }
+    }
+    offsets = Arrays.copyOf(offsets, count);
+    Arrays.sort(offsets);
+    for (int i = count - 1; i >= 0; i--) {
+      offsets[i] -= offsets[0];
+    }
+    return offsets;
+  }
+
+  /**
+   * Claim the next arrival.
+   *
+   * @return The intended start time of the next operation in {@link System#nanoTime()} terms,
+   *         or {@link #EXHAUSTED} if the schedule is exhausted.
+   */
+  public final long nextArrivalNanos() {
+    long start = startTimeNanos.get();
+    if (start == NOT_STARTED) {
+      startTimeNanos.compareAndSet(NOT_STARTED, System.nanoTime());
+      start = startTimeNanos.get();
+    }
+    long offset = nextOffsetNanos();
+    if (offset < 0) {
+      return EXHAUSTED;
+    }
+    return start + offset;
+  }
+
+  /**
+   * Claim the next arrival, relative to the start of the schedule.
+   *
+   * @return The offset in nanoseconds, or a negative value if the schedule is exhausted.
+   */
+  protected abstract long nextOffsetNanos();
+
+  /**
+   * Evenly spaced arrivals.
+   */
+  private static final class Uniform extends ArrivalSchedule {
+    private final double intervalNanos;
+    private final AtomicLong arrivals = new AtomicLong();
+
+    private Uniform(double intervalNanos) {
+      this.intervalNanos = intervalNanos;
+    }
+
+    @Override
+    protected long nextOffsetNanos() {
+      return (long) (arrivals.getAndIncrement() * intervalNanos);
+    }
+  }
+
+  /**
+   * Arrivals of a Poisson process: exponentially distributed gaps with the given mean.
+   */
+  private static final class Poisson extends ArrivalSchedule {
+    private final double meanIntervalNanos;
+    private final AtomicLong next = new AtomicLong();
+
+    private Poisson(double meanIntervalNanos) {
+      this.meanIntervalNanos = meanIntervalNanos;
+    }
+
+    @Override
+    protected long nextOffsetNanos() {
+      long gap = (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos);
+      return next.getAndAdd(gap);
+    }
+  }
+
+  /**
+   * Arrivals replayed from a trace.
+   */
+  private static final class Trace extends ArrivalSchedule {
+    private final long[] offsetsNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private Trace(long[] offsetsNanos) {
+      this.offsetsNanos = offsetsNanos;
+    }
+
+    @Override
+    protected long nextOffsetNanos() {
+      int index = next.getAndIncrement();
+      if (index < 0 || index >= offsetsNanos.length) {
+        next.set(offsetsNanos.length);
+        return -1;
+      }
+      return offsetsNanos[index];
+    }
+  }
+}
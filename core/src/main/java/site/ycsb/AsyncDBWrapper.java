@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import site.ycsb.measurements.Measurements;
+import org.apache.htrace.core.TraceScope;
+import org.apache.htrace.core.Tracer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Wrapper around an {@link AsyncDB} that keeps up to <code>inflight.max</code> operations
+ * outstanding for the client thread that owns it.
+ *
+ * Every call issues the asynchronous operation and returns {@link Status#BATCHED_OK} as soon as
+ * the operation has been handed to the binding, blocking only while the in-flight limit is reached.
+ * Latencies and return codes are recorded when the operation completes, so the measured time
+ * spans from issue (or the intended start time) to completion. Results of reads and scans are only
+ * filled in by then, which is why {@link DBFactory} refuses workloads that look at them; workloads
+ * that depend on an operation having completed use {@link #whenComplete(Runnable)}.
+ */
+public class AsyncDBWrapper extends DBWrapper {
+  private final AsyncDB db;
+  private final Measurements measurements;
+  private final Tracer tracer;
+
+  private final int inflightMax;
+  private final Semaphore inflight;
+
+  /**
+   * The operation issued last, completed once it has been measured, or null if it was never issued.
+   */
+  private CompletableFuture<Void> lastIssued;
+
+  private final String scopeStringDelete;
+  private final String scopeStringInsert;
+  private final String scopeStringRead;
+  private final String scopeStringScan;
+  private final String scopeStringUpdate;
+
+  public AsyncDBWrapper(final AsyncDB db, final Tracer tracer, final int inflightMax) {
+    super(db, tracer);
+    this.db = db;
+    measurements = Measurements.getMeasurements();
+    this.tracer = tracer;
+    this.inflightMax = inflightMax;
+    inflight = new Semaphore(inflightMax);
+    final String simple = db.getClass().getSimpleName();
+    scopeStringDelete = simple + "#deleteAsync";
+    scopeStringInsert = simple + "#insertAsync";
+    scopeStringRead = simple + "#readAsync";
+    scopeStringScan = simple + "#scanAsync";
+    scopeStringUpdate = simple + "#updateAsync";
+  }
+
+  /**
+   * Wait for every outstanding operation to complete, then cleanup the wrapped DB.
+   * Called once per DB instance; there is one DB instance per client thread.
+   */
+  @Override
+  public void cleanup() throws DBException {
+    awaitInFlight();
+    super.cleanup();
+  }
+
+  /**
+   * Operations overlap and complete on the threads of the binding, so their latencies can't be broken down.
+   */
+  @Override
+  boolean canBreakDown() {
+    return false;
+  }
+
+  /**
+   * Block until all operations issued through this wrapper have completed.
+   */
+  public void awaitInFlight() {
+    inflight.acquireUninterruptibly(inflightMax);
+    inflight.release(inflightMax);
+  }
+
+  /**
+   * Run the action once the operation issued last has completed and been measured. If that operation
+   * failed to issue, or none was issued yet, the action runs right away.
+   */
+  @Override
+  public void whenComplete(Runnable action) {
+    CompletableFuture<Void> last = lastIssued;
+    if (last == null) {
+      action.run();
+    } else {
+      last.whenComplete((ignored, error) -> action.run());
+    }
+  }
+
+  /**
+   * Issue an asynchronous read. The result map is populated once the operation completes.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to read.
+   * @param fields The list of fields to read, or null for all of them
+   * @param result A HashMap of field/value pairs for the result
+   * @return {@link Status#BATCHED_OK} once the read has been issued.
+   */
+  @Override
+  public Status read(String table, String key, Set<String> fields,
+                     Map<String, ByteIterator> result) {
+    try (final TraceScope span = tracer.newScope(scopeStringRead)) {
+      return issue(Workload.Operation.READ, table, key, () -> db.readAsync(table, key, fields, result));
+    }
+  }
+
+  /**
+   * Issue an asynchronous range scan. The result vector is populated once the operation completes.
+   *
+   * @param table The name of the table
+   * @param startkey The record key of the first record to read.
+   * @param recordcount The number of records to read
+   * @param fields The list of fields to read, or null for all of them
+   * @param result A Vector of HashMaps, where each HashMap is a set field/value pairs for one record
+   * @return {@link Status#BATCHED_OK} once the scan has been issued.
+   */
+  @Override
+  public Status scan(String table, String startkey, int recordcount,
+                     Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
+    try (final TraceScope span = tracer.newScope(scopeStringScan)) {
+      return issue(Workload.Operation.SCAN, table, startkey,
+          () -> db.scanAsync(table, startkey, recordcount, fields, result));
+    }
+  }
+
+  /**
+   * Issue an asynchronous update.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to write.
+   * @param values A HashMap of field/value pairs to update in the record
+   * @return {@link Status#BATCHED_OK} once the update has been issued.
+   */
+  @Override
+  public Status update(String table, String key,
+                       Map<String, ByteIterator> values) {
+    try (final TraceScope span = tracer.newScope(scopeStringUpdate)) {
+      return issue(Workload.Operation.UPDATE, table, key, () -> db.updateAsync(table, key, values));
+    }
+  }
+
+  /**
+   * Issue an asynchronous insert.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to insert.
+   * @param values A HashMap of field/value pairs to insert in the record
+   * @return {@link Status#BATCHED_OK} once the insert has been issued.
+   */
+  @Override
+  public Status insert(String table, String key,
+                       Map<String, ByteIterator> values) {
+    try (final TraceScope span = tracer.newScope(scopeStringInsert)) {
+      return issue(Workload.Operation.INSERT, table, key, () -> db.insertAsync(table, key, values));
+    }
+  }
+
+  /**
+   * Issue an asynchronous delete.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to delete.
+   * @return {@link Status#BATCHED_OK} once the delete has been issued.
+   */
+  @Override
+  public Status delete(String table, String key) {
+    try (final TraceScope span = tracer.newScope(scopeStringDelete)) {
+      return issue(Workload.Operation.DELETE, table, key, () -> db.deleteAsync(table, key));
+    }
+  }
+
+  /**
+   * Wait for a free in-flight slot, then issue the operation and arrange for it to be measured
+   * on completion. The slot is given back immediately if the binding fails to issue the call.
+   */
+  private Status issue(final Workload.Operation op, final String table, final String key,
+                       final Supplier<CompletableFuture<Status>> call) {
+    lastIssued = null;
+    inflight.acquireUninterruptibly();
+    long ist = measurements.getIntendedStartTimeNs();
+    long st = System.nanoTime();
+    final CompletableFuture<Status> future;
+    try {
+      future = call.get();
+    } catch (RuntimeException e) {
+      inflight.release();
+      throw e;
+    }
+    lastIssued = future.handle(onComplete(op, table, key, ist, st));
+    return Status.BATCHED_OK;
+  }
+
+  /**
+   * Build the completion callback that measures an operation and frees its in-flight slot.
+   * An operation that completes exceptionally is counted as {@link Status#ERROR}.
+   */
+  private BiFunction<Status, Throwable, Void> onComplete(final Workload.Operation op, final String table,
+                                                         final String key, final long ist, final long st) {
+    return (status, error) -> {
+      try {
+        long en = System.nanoTime();
+        Status res = status;
+        if (error != null || res == null) {
+          res = Status.ERROR;
+        }
+        measure(op, table, key, res, ist, st, en);
+      } finally {
+        inflight.release();
+      }
+      return null;
+    };
+  }
+}
@@ -57,23 +57,27 @@ public class BasicDB extends DB {
     todelay = 0;
   }
 
+  /**
+   * Wait as long as configured, which stands in for the call into a store.
+   */
   protected void delay() {
+    beginStoreCall();
     if (todelay > 0) {
       long delayNs;
       if (randomizedelay) {
         delayNs = TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextInt(todelay));
-        if (delayNs == 0) {
-          return;
-        }
       } else {
         delayNs = TimeUnit.MILLISECONDS.toNanos(todelay);
       }
 
-      final long deadline = System.nanoTime() + delayNs;
-      do {
-        LockSupport.parkNanos(deadline - System.nanoTime());
-      } while (System.nanoTime() < deadline && !Thread.interrupted());
+      if (delayNs > 0) {
+        final long deadline = System.nanoTime() + delayNs;
+        do {
+          LockSupport.parkNanos(deadline - System.nanoTime());
+        } while (System.nanoTime() < deadline && !Thread.interrupted());
+      }
     }
+    endStoreCall();
   }
 
   /**
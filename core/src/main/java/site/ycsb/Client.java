@@ -17,17 +17,19 @@
 
 package site.ycsb;
 
+import site.ycsb.jfr.FlightRecorderEvents;
 import site.ycsb.measurements.Measurements;
+import site.ycsb.measurements.SlowOperations;
 import site.ycsb.measurements.exporter.MeasurementsExporter;
 import site.ycsb.measurements.exporter.TextMeasurementsExporter;
 import org.apache.htrace.core.HTraceConfiguration;
-import org.apache.htrace.core.TraceScope;
 import org.apache.htrace.core.Tracer;
 
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.lang.reflect.Method;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.CountDownLatch;
@@ -112,11 +114,46 @@ public final class Client {
    */
   public static final String EXPORT_FILE_PROPERTY = "exportfile";
 
+  /**
+   * If set to the path of a file, the throughput and latencies of every status interval are written
+   * to this file as the run goes on. Implies showing status.
+   */
+  public static final String INTERVAL_EXPORT_FILE_PROPERTY = "interval.exportfile";
+
+  /**
+   * The exporter class to write the intervals with. The default is
+   * site.ycsb.measurements.exporter.CSVMeasurementsExporter.
+   */
+  public static final String INTERVAL_EXPORTER_PROPERTY = "interval.exporter";
+
+  /**
+   * If set, the throughput and latencies of the latest status interval, the return codes and the JVM
+   * statistics are served in the Prometheus text format at http://host:port/metrics. Implies showing status.
+   */
+  public static final String METRICS_PORT_PROPERTY = "metrics.port";
+
+  /**
+   * The address the metrics are served on. Only local clients can reach the default.
+   */
+  public static final String METRICS_HOST_PROPERTY = "metrics.host";
+  public static final String METRICS_HOST_PROPERTY_DEFAULT = "localhost";
+
   /**
    * The number of YCSB client threads to run.
    */
   public static final String THREAD_COUNT_PROPERTY = "threadcount";
 
+  /**
+   * The kind of thread each YCSB client runs on: "platform" (default) for one OS thread per
+   * client, or "virtual" to run every client on a virtual thread (requires Java 21 or later).
+   */
+  public static final String THREAD_MODEL_PROPERTY = "threadmodel";
+
+  /**
+   * The default value for the threadmodel property.
+   */
+  public static final String THREAD_MODEL_PROPERTY_DEFAULT = "platform";
+
   /**
    * Indicates how many inserts to do if less than recordcount.
    * Useful for partitioning the load among multiple servers if the client is the bottleneck.
@@ -124,6 +161,17 @@ public final class Client {
    */
   public static final String INSERT_COUNT_PROPERTY = "insertcount";
 
+  /**
+   * The maximum number of operations each client thread keeps outstanding against an
+   * {@link AsyncDB} binding. The default of 1 runs every operation synchronously.
+   */
+  public static final String INFLIGHT_MAX_PROPERTY = "inflight.max";
+
+  /**
+   * The default value for the inflight.max property.
+   */
+  public static final String INFLIGHT_MAX_PROPERTY_DEFAULT = "1";
+
   /**
    * Target number of operations per second.
    */
@@ -154,6 +202,11 @@ public final class Client {
    */
   private static StatusThread statusthread = null;
 
+  /**
+   * The SLO search of the run, if any.
+   */
+  private static SloSearch slosearch = null;
+
   // HTrace integration related constants.
 
   /**
@@ -211,31 +264,11 @@ public final class Client {
    *
    * @throws IOException Either failed to write to output stream or failed to close it.
    */
-  private static void exportMeasurements(Properties props, int opcount, long runtime)
+  private static void exportMeasurements(Properties props, long opcount, long runtime)
       throws IOException {
     MeasurementsExporter exporter = null;
     try {
-      // if no destination file is provided the results will be written to stdout
-      OutputStream out;
-      String exportFile = props.getProperty(EXPORT_FILE_PROPERTY);
-      if (exportFile == null) {
-        out = System.out;
-      } else {
-        out = new FileOutputStream(exportFile);
-      }
-
-      // if no exporter is provided the default text one will be used
-      String exporterStr = props.getProperty(EXPORTER_PROPERTY,
-          "site.ycsb.measurements.exporter.TextMeasurementsExporter");
-      try {
-        exporter = (MeasurementsExporter) Class.forName(exporterStr).getConstructor(OutputStream.class)
-            .newInstance(out);
-      } catch (Exception e) {
-        System.err.println("Could not find exporter " + exporterStr
-            + ", will use default text reporter.");
-        e.printStackTrace();
-        exporter = new TextMeasurementsExporter(out);
-      }
+      exporter = newExporter(props);
 
       exporter.write("OVERALL", "RunTime(ms)", runtime);
       double throughput = 1000.0 * (opcount) / (runtime);
@@ -265,6 +298,13 @@ public final class Client {
         exporter.write("MIN_SYS_LOAD_AVG", "Load", statusthread.getMinLoadAvg());
       }
 
+      if (slosearch != null) {
+        exporter.write("SLO", "MaxThroughput(ops/sec)", slosearch.getBestTarget());
+        exporter.write("SLO", "Trials", slosearch.getTrials());
+      }
+
+      ThreadUsage.exportTotals(exporter);
+
       Measurements.getMeasurements().exportMeasurements(exporter);
     } finally {
       if (exporter != null) {
@@ -277,6 +317,11 @@ public final class Client {
   public static void main(String[] args) {
     Properties props = parseArguments(args);
 
+    final WorkerLink worker = connectToCoordinator(props);
+    if (worker == null && props.getProperty(Coordinator.WORKERS_PROPERTY) != null) {
+      runCoordinator(props, args);
+    }
+
     boolean status = Boolean.valueOf(props.getProperty(STATUS_PROPERTY, String.valueOf(false)));
     String label = props.getProperty(LABEL_PROPERTY, "");
 
@@ -285,19 +330,22 @@ public final class Client {
     //get number of threads, target and db
     int threadcount = Integer.parseInt(props.getProperty(THREAD_COUNT_PROPERTY, "1"));
     String dbname = props.getProperty(DB_PROPERTY, "site.ycsb.BasicDB");
+    boolean virtualThreads = useVirtualThreads(props);
     int target = Integer.parseInt(props.getProperty(TARGET_PROPERTY, "0"));
+    TargetSchedule targetSchedule = getTargetSchedule(props);
+    slosearch = getSloSearch(props);
+
+    ArrivalSchedule arrivalSchedule = getArrivalSchedule(props, target);
 
     //compute the target throughput
-    double targetperthreadperms = -1;
-    if (target > 0) {
-      double targetperthread = ((double) target) / ((double) threadcount);
-      targetperthreadperms = targetperthread / 1000.0;
-    }
+    double targetperthreadperms = getTargetPerThreadPerMs(getInitialTarget(target, arrivalSchedule, targetSchedule),
+        threadcount);
 
     Thread warningthread = setupWarningThread();
     warningthread.start();
 
     Measurements.setProperties(props);
+    FlightRecorderEvents.configure(props);
 
     Workload workload = getWorkload(props);
 
@@ -305,35 +353,45 @@ public final class Client {
 
     initWorkload(props, warningthread, workload, tracer);
 
+    PhaseSchedule phaseSchedule = getPhaseSchedule(props);
+
     System.err.println("Starting test.");
     final CountDownLatch completeLatch = new CountDownLatch(threadcount);
 
     final List<ClientThread> clients = initDb(dbname, props, threadcount, targetperthreadperms,
         workload, tracer, completeLatch);
+    for (ClientThread client : clients) {
+      client.setArrivalSchedule(arrivalSchedule);
+    }
 
+    if (targetSchedule != null) {
+      targetSchedule.attach(clients);
+      // the steps are reported by the status thread
+      status = true;
+    }
+    // and so are the intervals and their slow operation outliers
+    status |= props.getProperty(INTERVAL_EXPORT_FILE_PROPERTY) != null
+        || props.getProperty(METRICS_PORT_PROPERTY) != null
+        || Long.parseLong(props.getProperty(SlowOperations.THRESHOLD_PROPERTY,
+            SlowOperations.THRESHOLD_PROPERTY_DEFAULT)) > 0;
     if (status) {
-      boolean standardstatus = false;
-      if (props.getProperty(Measurements.MEASUREMENT_TYPE_PROPERTY, "").compareTo("timeseries") == 0) {
-        standardstatus = true;
-      }
-      int statusIntervalSeconds = Integer.parseInt(props.getProperty("status.interval", "10"));
-      boolean trackJVMStats = props.getProperty(Measurements.MEASUREMENT_TRACK_JVM_PROPERTY,
-          Measurements.MEASUREMENT_TRACK_JVM_PROPERTY_DEFAULT).equals("true");
-      statusthread = new StatusThread(completeLatch, clients, label, standardstatus, statusIntervalSeconds,
-          trackJVMStats);
-      statusthread.start();
+      startStatusThread(props, completeLatch, clients, label, targetSchedule);
     }
 
     Thread terminator = null;
     long st;
     long en;
-    int opsDone;
+    long opsDone;
 
-    try (final TraceScope span = tracer.newScope(CLIENT_WORKLOAD_SPAN)) {
+    try (final ClientPhase phase = ClientPhase.begin(tracer, CLIENT_WORKLOAD_SPAN, workloadPhase(props))) {
 
       final Map<Thread, ClientThread> threads = new HashMap<>(threadcount);
       for (ClientThread client : clients) {
-        threads.put(new Thread(tracer.wrap(client, "ClientThread")), client);
+        threads.put(newClientThread(tracer.wrap(client, "ClientThread"), virtualThreads), client);
+      }
+
+      if (worker != null) {
+        awaitStart(worker);
       }
 
       st = System.currentTimeMillis();
@@ -347,6 +405,13 @@ public final class Client {
         terminator.start();
       }
 
+      if (phaseSchedule != null) {
+        phaseSchedule.run(completeLatch, clients, workload);
+      }
+      if (slosearch != null) {
+        slosearch.run(completeLatch, clients, workload);
+      }
+
       opsDone = 0;
 
       for (Map.Entry<Thread, ClientThread> entry : threads.entrySet()) {
@@ -359,10 +424,43 @@ public final class Client {
       }
 
       en = System.currentTimeMillis();
+
+      if (phaseSchedule != null) {
+        // only report on the measured phases
+        opsDone = phaseSchedule.getMeasuredOps();
+        st = 0;
+        en = phaseSchedule.getMeasuredRuntimeMs();
+      } else if (slosearch != null) {
+        // only report on the last trial
+        opsDone = slosearch.getMeasuredOps();
+        st = 0;
+        en = slosearch.getMeasuredRuntimeMs();
+      }
     }
 
+    cleanup(tracer, terminator, status, workload);
+
     try {
-      try (final TraceScope span = tracer.newScope(CLIENT_CLEANUP_SPAN)) {
+      try (final ClientPhase phase = ClientPhase.begin(tracer, CLIENT_EXPORT_MEASUREMENTS_SPAN, "export")) {
+        if (worker != null) {
+          // the coordinator exports the results of all workers together
+          worker.sendResults(opsDone, en - st);
+        } else {
+          exportMeasurements(props, opsDone, en - st);
+        }
+      }
+    } catch (IOException e) {
+      System.err.println("Could not export measurements, error: " + e.getMessage());
+      e.printStackTrace();
+      System.exit(-1);
+    }
+
+    System.exit(0);
+  }
+
+  private static void cleanup(Tracer tracer, Thread terminator, boolean status, Workload workload) {
+    try {
+      try (final ClientPhase phase = ClientPhase.begin(tracer, CLIENT_CLEANUP_SPAN, "cleanup")) {
 
         if (terminator != null && !terminator.isInterrupted()) {
           terminator.interrupt();
@@ -386,20 +484,135 @@ public final class Client {
       e.printStackTrace(System.out);
       System.exit(0);
     }
+  }
 
+  private static WorkerLink connectToCoordinator(Properties props) {
     try {
-      try (final TraceScope span = tracer.newScope(CLIENT_EXPORT_MEASUREMENTS_SPAN)) {
-        exportMeasurements(props, opsDone, en - st);
-      }
+      return WorkerLink.connect(props);
     } catch (IOException e) {
-      System.err.println("Could not export measurements, error: " + e.getMessage());
-      e.printStackTrace();
+      System.err.println("Could not reach coordinator " + props.getProperty(Coordinator.COORDINATOR_PROPERTY) +
+          ", error: " + e.getMessage());
+      System.exit(-1);
+      return null;
+    }
+  }
+
+  private static void awaitStart(WorkerLink worker) {
+    try {
+      worker.awaitStart();
+    } catch (IOException e) {
+      System.err.println("Lost the coordinator before the start, error: " + e.getMessage());
       System.exit(-1);
     }
+  }
 
+  private static void runCoordinator(Properties props, String[] args) {
+    try {
+      Coordinator.run(props, args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.exit(0);
+    } catch (IOException | InterruptedException e) {
+      System.err.println("Coordinated run failed, error: " + e.getMessage());
+      e.printStackTrace();
+      System.exit(-1);
+    }
     System.exit(0);
   }
 
+  private static double getInitialTarget(int target, ArrivalSchedule arrivalSchedule,
+                                         TargetSchedule targetSchedule) {
+    if (arrivalSchedule != null) {
+      // the shared schedule paces all threads, so they must not throttle themselves as well
+      return 0;
+    }
+    if (targetSchedule != null) {
+      return targetSchedule.getTargetAt(0);
+    }
+    if (slosearch != null) {
+      return slosearch.getInitialTarget();
+    }
+    return target;
+  }
+
+  private static double getTargetPerThreadPerMs(double target, int threadcount) {
+    if (target <= 0) {
+      return -1;
+    }
+    double targetperthread = target / ((double) threadcount);
+    return targetperthread / 1000.0;
+  }
+
+  /**
+   * Creates the exporter given in conf, writing to either sysout or a file.
+   *
+   * @throws IOException Failed to open the export file.
+   */
+  static MeasurementsExporter newExporter(Properties props) throws IOException {
+    // if no destination file is provided the results will be written to stdout
+    OutputStream out;
+    String exportFile = props.getProperty(EXPORT_FILE_PROPERTY);
+    if (exportFile == null) {
+      out = System.out;
+    } else {
+      out = new FileOutputStream(exportFile);
+    }
+
+    // if no exporter is provided the default text one will be used
+    String exporterStr = props.getProperty(EXPORTER_PROPERTY,
+        "site.ycsb.measurements.exporter.TextMeasurementsExporter");
+    return newExporter(exporterStr, out);
+  }
+
+  private static MeasurementsExporter newExporter(String exporterStr, OutputStream out) {
+    try {
+      return (MeasurementsExporter) Class.forName(exporterStr).getConstructor(OutputStream.class)
+          .newInstance(out);
+    } catch (Exception e) {
+      System.err.println("Could not find exporter " + exporterStr
+          + ", will use default text reporter.");
+      e.printStackTrace();
+      return new TextMeasurementsExporter(out);
+    }
+  }
+
+  private static void startStatusThread(Properties props, CountDownLatch completeLatch, List<ClientThread> clients,
+                                        String label, TargetSchedule targetSchedule) {
+    boolean standardstatus = false;
+    if (props.getProperty(Measurements.MEASUREMENT_TYPE_PROPERTY, "").compareTo("timeseries") == 0) {
+      standardstatus = true;
+    }
+    int statusIntervalSeconds = Integer.parseInt(props.getProperty("status.interval", "10"));
+    boolean trackJVMStats = props.getProperty(Measurements.MEASUREMENT_TRACK_JVM_PROPERTY,
+        Measurements.MEASUREMENT_TRACK_JVM_PROPERTY_DEFAULT).equals("true");
+    statusthread = new StatusThread(completeLatch, clients, label, standardstatus, statusIntervalSeconds,
+        trackJVMStats);
+    statusthread.setTargetSchedule(targetSchedule);
+    String intervalExportFile = props.getProperty(INTERVAL_EXPORT_FILE_PROPERTY);
+    if (intervalExportFile != null) {
+      try {
+        statusthread.setIntervalExporter(newExporter(props.getProperty(INTERVAL_EXPORTER_PROPERTY,
+            "site.ycsb.measurements.exporter.CSVMeasurementsExporter"), new FileOutputStream(intervalExportFile)));
+      } catch (IOException e) {
+        System.err.println("Could not open interval export file " + intervalExportFile + ": " + e);
+        System.exit(-1);
+      }
+    }
+    String metricsPort = props.getProperty(METRICS_PORT_PROPERTY);
+    if (metricsPort != null) {
+      String host = props.getProperty(METRICS_HOST_PROPERTY, METRICS_HOST_PROPERTY_DEFAULT);
+      try {
+        MetricsServer server = new MetricsServer(host, Integer.parseInt(metricsPort));
+        System.err.println("Serving metrics at http://" + host + ":" + server.getPort() + "/metrics");
+        statusthread.setMetricsServer(server);
+      } catch (IOException e) {
+        System.err.println("Could not serve metrics on " + host + ":" + metricsPort + ": " + e);
+        System.exit(-1);
+      }
+    }
+    statusthread.start();
+  }
+
   private static List<ClientThread> initDb(String dbname, Properties props, int threadcount,
                                            double targetperthreadperms, Workload workload, Tracer tracer,
                                            CountDownLatch completeLatch) {
@@ -407,19 +620,19 @@ public final class Client {
     boolean dotransactions = Boolean.valueOf(props.getProperty(DO_TRANSACTIONS_PROPERTY, String.valueOf(true)));
 
     final List<ClientThread> clients = new ArrayList<>(threadcount);
-    try (final TraceScope span = tracer.newScope(CLIENT_INIT_SPAN)) {
-      int opcount;
+    try (final ClientPhase phase = ClientPhase.begin(tracer, CLIENT_INIT_SPAN, "init")) {
+      long opcount;
       if (dotransactions) {
-        opcount = Integer.parseInt(props.getProperty(OPERATION_COUNT_PROPERTY, "0"));
+        opcount = Long.parseLong(props.getProperty(OPERATION_COUNT_PROPERTY, "0"));
       } else {
         if (props.containsKey(INSERT_COUNT_PROPERTY)) {
-          opcount = Integer.parseInt(props.getProperty(INSERT_COUNT_PROPERTY, "0"));
+          opcount = Long.parseLong(props.getProperty(INSERT_COUNT_PROPERTY, "0"));
         } else {
-          opcount = Integer.parseInt(props.getProperty(RECORD_COUNT_PROPERTY, DEFAULT_RECORD_COUNT));
+          opcount = Long.parseLong(props.getProperty(RECORD_COUNT_PROPERTY, DEFAULT_RECORD_COUNT));
         }
       }
       if (threadcount > opcount && opcount > 0){
-        threadcount = opcount;
+        threadcount = (int) opcount;
         System.out.println("Warning: the threadcount is bigger than recordcount, the threadcount will be recordcount!");
       }
       for (int threadid = 0; threadid < threadcount; threadid++) {
@@ -427,12 +640,12 @@ public final class Client {
         try {
           db = DBFactory.newDB(dbname, props, tracer);
         } catch (UnknownDBException e) {
-          System.out.println("Unknown DB " + dbname);
+          System.out.println(e.getMessage() != null ? e.getMessage() : "Unknown DB " + dbname);
           initFailed = true;
           break;
         }
 
-        int threadopcount = opcount / threadcount;
+        long threadopcount = opcount / threadcount;
 
         // ensure correct number of operations, in case opcount is not a multiple of threadcount
         if (threadid < opcount % threadcount) {
@@ -454,6 +667,126 @@ public final class Client {
     return clients;
   }
 
+  private static ArrivalSchedule getArrivalSchedule(Properties props, int target) {
+    try {
+      return ArrivalSchedule.create(props, target);
+    } catch (WorkloadException e) {
+      e.printStackTrace();
+      e.printStackTrace(System.out);
+      System.exit(0);
+      return null;
+    }
+  }
+
+  private static TargetSchedule getTargetSchedule(Properties props) {
+    String schedule = props.getProperty(TargetSchedule.TARGET_SCHEDULE_PROPERTY);
+    if (schedule == null) {
+      return null;
+    }
+    if (props.getProperty(ArrivalSchedule.ARRIVAL_PROPERTY) != null) {
+      System.err.println(TargetSchedule.TARGET_SCHEDULE_PROPERTY + " cannot be combined with " +
+          ArrivalSchedule.ARRIVAL_PROPERTY + ", which paces the run at the constant " + TARGET_PROPERTY);
+      System.exit(0);
+    }
+    try {
+      return new TargetSchedule(schedule);
+    } catch (IOException | IllegalArgumentException e) {
+      System.err.println("Invalid " + TargetSchedule.TARGET_SCHEDULE_PROPERTY + ": " + e.getMessage());
+      System.exit(0);
+      return null;
+    }
+  }
+
+  private static SloSearch getSloSearch(Properties props) {
+    SloSearch search;
+    try {
+      search = SloSearch.create(props);
+    } catch (IllegalArgumentException e) {
+      System.err.println("Invalid SLO search: " + e.getMessage());
+      System.exit(0);
+      return null;
+    }
+    if (search == null) {
+      return null;
+    }
+    for (String conflicting : new String[]{PhaseSchedule.PHASES_PROPERTY, TargetSchedule.TARGET_SCHEDULE_PROPERTY,
+        ArrivalSchedule.ARRIVAL_PROPERTY}) {
+      if (props.getProperty(conflicting) != null) {
+        System.err.println("An SLO search sets the target itself and cannot be combined with " + conflicting);
+        System.exit(0);
+      }
+    }
+    if (!props.getProperty(Measurements.MEASUREMENT_TYPE_PROPERTY, "hdrhistogram").startsWith("hdrhistogram")) {
+      System.err.println("An SLO search needs " + Measurements.MEASUREMENT_TYPE_PROPERTY + "=hdrhistogram");
+      System.exit(0);
+    }
+    return search;
+  }
+
+  private static PhaseSchedule getPhaseSchedule(Properties props) {
+    String phases = props.getProperty(PhaseSchedule.PHASES_PROPERTY);
+    if (phases == null) {
+      return null;
+    }
+    try {
+      return new PhaseSchedule(phases);
+    } catch (IllegalArgumentException e) {
+      System.err.println("Invalid " + PhaseSchedule.PHASES_PROPERTY + ": " + e.getMessage());
+      System.exit(0);
+      return null;
+    }
+  }
+
+  private static boolean useVirtualThreads(Properties props) {
+    String threadModel = props.getProperty(THREAD_MODEL_PROPERTY, THREAD_MODEL_PROPERTY_DEFAULT);
+    switch (threadModel) {
+    case "platform":
+      return false;
+    case "virtual":
+      if (Boolean.parseBoolean(props.getProperty("spin.sleep", "false"))) {
+        System.err.println("WARNING: spin.sleep keeps virtual threads mounted on their carrier threads; " +
+            "throttling will be inaccurate with many clients.");
+      }
+      if (Boolean.parseBoolean(props.getProperty(Measurements.MEASUREMENT_TRACK_THREADS_PROPERTY,
+          Measurements.MEASUREMENT_TRACK_THREADS_PROPERTY_DEFAULT))) {
+        System.err.println("WARNING: the JVM can't measure the CPU time of virtual threads; " +
+            Measurements.MEASUREMENT_TRACK_THREADS_PROPERTY + " has no effect.");
+      }
+      return true;
+    default:
+      System.err.println("Unknown " + THREAD_MODEL_PROPERTY + " \"" + threadModel +
+          "\", expected platform or virtual.");
+      System.exit(0);
+      return false;
+    }
+  }
+
+  /**
+   * Create an unstarted thread for a client. Virtual threads are looked up reflectively so that
+   * the client still runs on JVMs that predate them when they are not requested.
+   */
+  private static Thread newClientThread(Runnable client, boolean virtualThreads) {
+    if (!virtualThreads) {
+      return new Thread(client);
+    }
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Method unstarted = Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+      return (Thread) unstarted.invoke(builder, client);
+    } catch (Exception e) {
+      System.err.println(THREAD_MODEL_PROPERTY + "=virtual requires Java 21 or later: " + e);
+      System.exit(0);
+      return null;
+    }
+  }
+
+  /**
+   * @return The name of the phase running the workload: load, or run for transactions.
+   */
+  private static String workloadPhase(Properties props) {
+    return Boolean.valueOf(props.getProperty(DO_TRANSACTIONS_PROPERTY, String.valueOf(true))) ? "run" : "load";
+  }
+
   private static Tracer getTracer(Properties props, Workload workload) {
     return new Tracer.Builder("YCSB " + workload.getClass().getSimpleName())
         .conf(getHTraceConfiguration(props))
@@ -462,7 +795,7 @@ public final class Client {
 
   private static void initWorkload(Properties props, Thread warningthread, Workload workload, Tracer tracer) {
     try {
-      try (final TraceScope span = tracer.newScope(CLIENT_WORKLOAD_INIT_SPAN)) {
+      try (final ClientPhase phase = ClientPhase.begin(tracer, CLIENT_WORKLOAD_INIT_SPAN, "workload init")) {
         workload.init(props);
         warningthread.interrupt();
       }
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import org.apache.htrace.core.TraceScope;
+import org.apache.htrace.core.Tracer;
+import site.ycsb.jfr.FlightRecorderEvents;
+import site.ycsb.jfr.PhaseEvent;
+
+/**
+ * A phase of the client, traced as an HTrace span and recorded as a Flight Recorder event when
+ * emitting them, see {@link FlightRecorderEvents}.
+ */
+final class ClientPhase implements AutoCloseable {
+  private final TraceScope span;
+  private final PhaseEvent event;
+
+  private ClientPhase(TraceScope span, PhaseEvent event) {
+    this.span = span;
+    this.event = event;
+  }
+
+  /**
+   * Start a phase.
+   *
+   * @param tracer The tracer.
+   * @param spanName The name of the span.
+   * @param phase The name of the phase in the event.
+   * @return The phase, to close once it is over.
+   */
+  static ClientPhase begin(Tracer tracer, String spanName, String phase) {
+    return new ClientPhase(tracer.newScope(spanName), FlightRecorderEvents.beginPhase(phase));
+  }
+
+  @Override
+  public void close() {
+    FlightRecorderEvents.endPhase(event);
+    span.close();
+  }
+}
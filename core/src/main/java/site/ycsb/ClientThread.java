@@ -34,17 +34,37 @@ public class ClientThread implements Runnable {
   private DB db;
   private boolean dotransactions;
   private Workload workload;
-  private int opcount;
+  private long opcount;
   private double targetOpsPerMs;
+  private volatile double liveTargetOpsPerMs;
 
-  private int opsdone;
+  private long opsdone;
   private int threadid;
   private int threadcount;
   private Object workloadstate;
   private Properties props;
   private long targetOpsTickNs;
+  private long throttleStartNanos;
+  private long throttleStartOps;
+  private ArrivalSchedule arrivalSchedule;
+  private TargetSchedule targetSchedule;
   private final Measurements measurements;
 
+  // The wrapper to take the time spent in operations from, when breaking latencies down.
+  private DBWrapper breakdown;
+
+  // The CPU time and bytes allocated by the thread running this client, when tracking them. The thread
+  // id is set once the start values are taken; the done values once the operations are over. The
+  // values last seen stand in for the thread once it has ended, so the usage never goes back.
+  private final boolean trackUsage;
+  private volatile long usageThreadId = -1;
+  private long startCpuNanos;
+  private long startAllocatedBytes;
+  private volatile long doneCpuNanos = -1;
+  private volatile long doneAllocatedBytes = -1;
+  private volatile long seenCpuNanos;
+  private volatile long seenAllocatedBytes;
+
   /**
    * Constructor.
    *
@@ -56,7 +76,7 @@ public class ClientThread implements Runnable {
    * @param targetperthreadperms target number of operations per thread per ms
    * @param completeLatch        The latch tracking the completion of all clients.
    */
-  public ClientThread(DB db, boolean dotransactions, Workload workload, Properties props, int opcount,
+  public ClientThread(DB db, boolean dotransactions, Workload workload, Properties props, long opcount,
                       double targetperthreadperms, CountDownLatch completeLatch) {
     this.db = db;
     this.dotransactions = dotransactions;
@@ -67,8 +87,15 @@ public class ClientThread implements Runnable {
       targetOpsPerMs = targetperthreadperms;
       targetOpsTickNs = (long) (1000000 / targetOpsPerMs);
     }
+    liveTargetOpsPerMs = targetOpsPerMs;
     this.props = props;
     measurements = Measurements.getMeasurements();
+    if (db instanceof DBWrapper && ((DBWrapper) db).canBreakDown() && Boolean.parseBoolean(props.getProperty(
+        Measurements.MEASUREMENT_BREAKDOWN_PROPERTY, Measurements.MEASUREMENT_BREAKDOWN_PROPERTY_DEFAULT))) {
+      breakdown = (DBWrapper) db;
+    }
+    trackUsage = Boolean.parseBoolean(props.getProperty(Measurements.MEASUREMENT_TRACK_THREADS_PROPERTY,
+        Measurements.MEASUREMENT_TRACK_THREADS_PROPERTY_DEFAULT)) && ThreadUsage.enable();
     spinSleep = Boolean.valueOf(this.props.getProperty("spin.sleep", "false"));
     this.completeLatch = completeLatch;
   }
@@ -81,7 +108,33 @@ public class ClientThread implements Runnable {
     threadcount = threadCount;
   }
 
-  public int getOpsDone() {
+  /**
+   * Take intended start times from a schedule shared with the other client threads
+   * instead of throttling this thread on its own.
+   */
+  public void setArrivalSchedule(final ArrivalSchedule schedule) {
+    arrivalSchedule = schedule;
+  }
+
+  /**
+   * Start the given target schedule, if it hasn't started yet, when this thread starts its operations.
+   * The schedule changes the target of this thread with {@link #setTargetOpsPerMs(double)}.
+   */
+  public void setTargetSchedule(final TargetSchedule schedule) {
+    targetSchedule = schedule;
+  }
+
+  /**
+   * Change the target of this thread while it runs. The throttle picks up the new rate after the
+   * current operation, counting from that moment on.
+   *
+   * @param opsPerMs The new target number of operations per ms, or 0 or less for unthrottled.
+   */
+  public void setTargetOpsPerMs(final double opsPerMs) {
+    liveTargetOpsPerMs = opsPerMs > 0 ? opsPerMs : 0;
+  }
+
+  public long getOpsDone() {
     return opsdone;
   }
 
@@ -113,39 +166,37 @@ public class ClientThread implements Runnable {
       long randomMinorDelay = ThreadLocalRandom.current().nextInt((int) targetOpsTickNs);
       sleepUntil(System.nanoTime() + randomMinorDelay);
     }
+    if (trackUsage) {
+      startUsage(Thread.currentThread().getId());
+    }
+    if (targetSchedule != null) {
+      targetSchedule.begin();
+    }
     try {
-      if (dotransactions) {
-        long startTimeNanos = System.nanoTime();
-
-        while (((opcount == 0) || (opsdone < opcount)) && !workload.isStopRequested()) {
+      throttleStartNanos = System.nanoTime();
 
-          if (!workload.doTransaction(db, workloadstate)) {
-            break;
-          }
+      while (((opcount == 0) || (opsdone < opcount)) && !workload.isStopRequested()) {
 
-          opsdone++;
-
-          throttleNanos(startTimeNanos);
+        if (!awaitArrival()) {
+          break;
         }
-      } else {
-        long startTimeNanos = System.nanoTime();
-
-        while (((opcount == 0) || (opsdone < opcount)) && !workload.isStopRequested()) {
 
-          if (!workload.doInsert(db, workloadstate)) {
-            break;
-          }
+        if (!doOperation()) {
+          break;
+        }
 
-          opsdone++;
+        opsdone++;
 
-          throttleNanos(startTimeNanos);
-        }
+        throttleNanos();
       }
     } catch (Exception e) {
       e.printStackTrace();
       e.printStackTrace(System.out);
       System.exit(0);
     }
+    if (trackUsage) {
+      endUsage();
+    }
 
     try {
       measurements.setIntendedStartTimeNs(0);
@@ -158,6 +209,79 @@ public class ClientThread implements Runnable {
     }
   }
 
+  /**
+   * Take the start values of the thread running this client. Threads the JVM can't measure, e.g. virtual
+   * threads, are left untracked.
+   */
+  void startUsage(long id) {
+    startCpuNanos = ThreadUsage.getCpuNanos(id);
+    startAllocatedBytes = ThreadUsage.getAllocatedBytes(id);
+    if (startCpuNanos >= 0) {
+      usageThreadId = id;
+    }
+  }
+
+  private void endUsage() {
+    long cpuNanos = getCpuNanos();
+    long allocatedBytes = getAllocatedBytes();
+    doneAllocatedBytes = allocatedBytes;
+    doneCpuNanos = cpuNanos;
+    if (usageThreadId >= 0) {
+      ThreadUsage.addTotals(opsdone, cpuNanos, Math.max(0, allocatedBytes));
+    }
+  }
+
+  /**
+   * @return The CPU time this thread has spent on its operations so far in nanoseconds, or 0 if it isn't
+   * tracked, e.g. for virtual threads.
+   */
+  long getCpuNanos() {
+    long done = doneCpuNanos;
+    long id = usageThreadId;
+    if (done >= 0 || id < 0) {
+      return Math.max(0, done);
+    }
+    long now = ThreadUsage.getCpuNanos(id);
+    if (now >= 0) {
+      seenCpuNanos = now - startCpuNanos;
+      return seenCpuNanos;
+    }
+    // the thread has ended, maybe without getting to its done values
+    return Math.max(doneCpuNanos, seenCpuNanos);
+  }
+
+  /**
+   * @return The bytes this thread has allocated on its operations so far, or 0 if they aren't tracked.
+   */
+  long getAllocatedBytes() {
+    long done = doneAllocatedBytes;
+    long id = usageThreadId;
+    if (done >= 0 || id < 0) {
+      return Math.max(0, done);
+    }
+    long now = ThreadUsage.getAllocatedBytes(id);
+    if (now >= 0 && startAllocatedBytes >= 0) {
+      seenAllocatedBytes = now - startAllocatedBytes;
+      return seenAllocatedBytes;
+    }
+    return Math.max(doneAllocatedBytes, seenAllocatedBytes);
+  }
+
+  /**
+   * Do a transaction or an insert. When breaking latencies down, the time the workload spent outside
+   * the operations, generating them and measuring them, is measured as GENERATE.
+   */
+  private boolean doOperation() {
+    if (breakdown == null) {
+      return dotransactions ? workload.doTransaction(db, workloadstate) : workload.doInsert(db, workloadstate);
+    }
+    long st = System.nanoTime();
+    boolean more = dotransactions ? workload.doTransaction(db, workloadstate) : workload.doInsert(db, workloadstate);
+    long en = System.nanoTime();
+    measurements.measureNanos("GENERATE", Math.max(0, en - st - breakdown.takeCallNanos()));
+    return more;
+  }
+
   private static void sleepUntil(long deadline) {
     while (System.nanoTime() < deadline) {
       if (!spinSleep) {
@@ -166,21 +290,52 @@ public class ClientThread implements Runnable {
     }
   }
 
-  private void throttleNanos(long startTimeNanos) {
+  private void throttleNanos() {
+    double target = liveTargetOpsPerMs;
+    if (target != targetOpsPerMs) {
+      // the target changed, count ticks at the new rate from the deadline of the next operation, so that
+      // a backlog carries over and intended start times stay continuous; from now if it was unthrottled
+      throttleStartNanos = targetOpsPerMs > 0 ?
+          throttleStartNanos + (opsdone - throttleStartOps) * targetOpsTickNs : System.nanoTime();
+      throttleStartOps = opsdone;
+      targetOpsPerMs = target;
+      if (target > 0) {
+        targetOpsTickNs = (long) (1000000 / target);
+      }
+    }
     //throttle the operations
     if (targetOpsPerMs > 0) {
       // delay until next tick
-      long deadline = startTimeNanos + opsdone * targetOpsTickNs;
+      long deadline = throttleStartNanos + (opsdone - throttleStartOps) * targetOpsTickNs;
       sleepUntil(deadline);
       measurements.setIntendedStartTimeNs(deadline);
     }
   }
 
+  /**
+   * Wait for the next arrival of the shared schedule, if there is one, and record it as the
+   * intended start time of the coming operation.
+   *
+   * @return false if the schedule is exhausted.
+   */
+  private boolean awaitArrival() {
+    if (arrivalSchedule == null) {
+      return true;
+    }
+    long arrival = arrivalSchedule.nextArrivalNanos();
+    if (arrival == ArrivalSchedule.EXHAUSTED) {
+      return false;
+    }
+    sleepUntil(arrival);
+    measurements.setIntendedStartTimeNs(arrival);
+    return true;
+  }
+
   /**
    * The total amount of work this thread is still expected to do.
    */
-  int getOpsTodo() {
-    int todo = opcount - opsdone;
+  long getOpsTodo() {
+    long todo = opcount - opsdone;
     return todo < 0 ? 0 : todo;
   }
 }
@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import site.ycsb.measurements.Measurements;
+import site.ycsb.measurements.MergedMeasurements;
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+import site.ycsb.workloads.CoreWorkload;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a run spread over several worker processes, on one machine or across hosts, and merges
+ * their results.
+ *
+ * The coordinator does no work itself. It waits for <code>coordinator.workers</code> workers to
+ * connect to <code>coordinator.port</code>, sends each its share of the run, starts them all at the
+ * same moment and exports the merged HdrHistograms of all workers through the configured exporter.
+ * A worker is a regular client started with its usual command line plus
+ * <code>-p coordinator=host:port</code>; the properties of the coordinator override its own. With
+ * <code>coordinator.spawn=true</code> the coordinator starts its workers itself on the local machine.
+ *
+ * A load is split by giving every worker its own slice of insertstart and insertcount. A run is
+ * split by dividing operationcount and target among the workers, which all choose keys from the
+ * whole loaded keyspace so the request distribution stays the same. Records a run inserts beyond
+ * recordcount are striped: with n workers, worker i inserts keys recordcount + i, recordcount + i + n
+ * and so on, and only chooses those among the new keys.
+ *
+ * The results are merged from HdrHistograms, so the measurement type must keep them. Only the totals
+ * of the run are merged; the status lines, interval exports and metrics endpoints stay per worker.
+ */
+public final class Coordinator {
+  /**
+   * The name of the property for the number of workers. Setting it makes a client the coordinator.
+   */
+  public static final String WORKERS_PROPERTY = "coordinator.workers";
+
+  /**
+   * The name of the property for the port the coordinator listens on.
+   */
+  public static final String PORT_PROPERTY = "coordinator.port";
+  public static final String PORT_PROPERTY_DEFAULT = "7470";
+
+  /**
+   * The name of the property for starting the workers as local processes.
+   */
+  public static final String SPAWN_PROPERTY = "coordinator.spawn";
+
+  /**
+   * The name of the property for how long after all workers are ready they start. Every worker is sent
+   * what is left of the delay and counts it down from receipt, so they start together without relying
+   * on the clocks of their hosts agreeing.
+   */
+  public static final String START_DELAY_PROPERTY = "coordinator.startdelay";
+  public static final String START_DELAY_PROPERTY_DEFAULT = "2s";
+
+  /**
+   * The name of the property for the address of the coordinator. Setting it makes a client a worker.
+   */
+  public static final String COORDINATOR_PROPERTY = "coordinator";
+
+  private Coordinator() {
+    // not used
+  }
+
+  /**
+   * Run the coordinator until all workers have reported back, then export the merged results.
+   *
+   * @param props The properties of the run, handed on to the workers.
+   * @param args The command line, used for workers spawned locally.
+   * @throws IOException if a worker could not be reached or the results could not be exported.
+   * @throws IllegalArgumentException if the measurement type can't be merged.
+   */
+  static void run(Properties props, String[] args) throws IOException, InterruptedException {
+    checkMeasurementType(props);
+    int workers = Integer.parseInt(props.getProperty(WORKERS_PROPERTY));
+    int port = Integer.parseInt(props.getProperty(PORT_PROPERTY, PORT_PROPERTY_DEFAULT));
+    long startDelayMs = PhaseSchedule.parseDurationMs(
+        props.getProperty(START_DELAY_PROPERTY, START_DELAY_PROPERTY_DEFAULT));
+
+    List<Process> spawned = new ArrayList<>();
+    List<Socket> sockets = new ArrayList<>(workers);
+    try (ServerSocket server = new ServerSocket(port)) {
+      if (Boolean.parseBoolean(props.getProperty(SPAWN_PROPERTY, "false"))) {
+        for (int i = 0; i < workers; i++) {
+          spawned.add(spawn(args, server.getLocalPort()));
+        }
+      }
+      System.err.println("Waiting for " + workers + " workers on port " + server.getLocalPort());
+      for (int i = 0; i < workers; i++) {
+        Socket socket = server.accept();
+        System.err.println("Worker " + i + " connected from " + socket.getRemoteSocketAddress());
+        sockets.add(socket);
+      }
+    }
+
+    List<DataInputStream> ins = new ArrayList<>(workers);
+    List<DataOutputStream> outs = new ArrayList<>(workers);
+    for (int i = 0; i < workers; i++) {
+      ins.add(new DataInputStream(new BufferedInputStream(sockets.get(i).getInputStream())));
+      outs.add(new DataOutputStream(new BufferedOutputStream(sockets.get(i).getOutputStream())));
+      writeProperties(outs.get(i), shard(props, i, workers));
+    }
+
+    for (int i = 0; i < workers; i++) {
+      if (!WorkerLink.READY.equals(ins.get(i).readUTF())) {
+        throw new IOException("Worker " + i + " did not get ready");
+      }
+    }
+    long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(startDelayMs);
+    for (DataOutputStream out : outs) {
+      out.writeLong(Math.max(0, TimeUnit.NANOSECONDS.toMillis(startNanos - System.nanoTime())));
+      out.flush();
+    }
+    System.err.println("Starting " + workers + " workers.");
+
+    MergedMeasurements merged = new MergedMeasurements(props);
+    long opsDone = 0;
+    long runtime = 0;
+    for (int i = 0; i < workers; i++) {
+      DataInputStream in = ins.get(i);
+      opsDone += in.readLong();
+      runtime = Math.max(runtime, in.readLong());
+      merged.merge(in);
+      sockets.get(i).close();
+    }
+    for (Process process : spawned) {
+      process.waitFor();
+    }
+
+    try (MeasurementsExporter exporter = Client.newExporter(props)) {
+      exporter.write("OVERALL", "RunTime(ms)", runtime);
+      exporter.write("OVERALL", "Throughput(ops/sec)", 1000.0 * opsDone / runtime);
+      exporter.write("OVERALL", "Workers", workers);
+      merged.exportMeasurements(exporter);
+    }
+  }
+
+  /**
+   * Work out the properties of one worker.
+   *
+   * @param props The properties of the whole run.
+   * @param worker The index of the worker.
+   * @param workers The number of workers.
+   * @return The properties of the worker.
+   */
+  static Properties shard(Properties props, int worker, int workers) {
+    Properties shard = new Properties();
+    for (String name : props.stringPropertyNames()) {
+      if (!name.startsWith(COORDINATOR_PROPERTY + ".")) {
+        shard.setProperty(name, props.getProperty(name));
+      }
+    }
+
+    if (Boolean.parseBoolean(props.getProperty(Client.DO_TRANSACTIONS_PROPERTY, String.valueOf(true)))) {
+      long operations = Long.parseLong(props.getProperty(Client.OPERATION_COUNT_PROPERTY, "0"));
+      // every worker needs at least one operation, as 0 would mean no limit
+      long operationshare = operations > 0 ? Math.max(1, share(operations, worker, workers)) : 0;
+      shard.setProperty(Client.OPERATION_COUNT_PROPERTY, String.valueOf(operationshare));
+
+      // stripe new records over the workers, within any stripe given to the whole run
+      long stride = Long.parseLong(props.getProperty(CoreWorkload.TRANSACTION_INSERT_STRIDE_PROPERTY,
+          CoreWorkload.TRANSACTION_INSERT_STRIDE_PROPERTY_DEFAULT));
+      long strideoffset = Long.parseLong(props.getProperty(CoreWorkload.TRANSACTION_INSERT_STRIDE_OFFSET_PROPERTY,
+          CoreWorkload.TRANSACTION_INSERT_STRIDE_OFFSET_PROPERTY_DEFAULT));
+      shard.setProperty(CoreWorkload.TRANSACTION_INSERT_STRIDE_PROPERTY, String.valueOf(stride * workers));
+      shard.setProperty(CoreWorkload.TRANSACTION_INSERT_STRIDE_OFFSET_PROPERTY,
+          String.valueOf(strideoffset + worker * stride));
+    } else {
+      long insertstart = Long.parseLong(props.getProperty(Workload.INSERT_START_PROPERTY,
+          Workload.INSERT_START_PROPERTY_DEFAULT));
+      long inserts = Long.parseLong(props.getProperty(Client.INSERT_COUNT_PROPERTY,
+          props.getProperty(Client.RECORD_COUNT_PROPERTY, Client.DEFAULT_RECORD_COUNT)));
+      shard.setProperty(Workload.INSERT_START_PROPERTY, String.valueOf(insertstart + offset(inserts, worker, workers)));
+      shard.setProperty(Client.INSERT_COUNT_PROPERTY, String.valueOf(share(inserts, worker, workers)));
+    }
+
+    long target = Long.parseLong(props.getProperty(Client.TARGET_PROPERTY, "0"));
+    if (target > 0) {
+      shard.setProperty(Client.TARGET_PROPERTY, String.valueOf(Math.max(1, share(target, worker, workers))));
+    }
+    shard.setProperty(Client.LABEL_PROPERTY, props.getProperty(Client.LABEL_PROPERTY, "") + "[worker " + worker + "] ");
+    return shard;
+  }
+
+  private static long share(long total, int worker, int workers) {
+    return total / workers + (worker < total % workers ? 1 : 0);
+  }
+
+  private static long offset(long total, int worker, int workers) {
+    return worker * (total / workers) + Math.min(worker, total % workers);
+  }
+
+  /**
+   * Check that the measurements of the workers can be merged.
+   *
+   * @param props The properties of the run.
+   * @throws IllegalArgumentException if the measurement type doesn't keep HdrHistograms.
+   */
+  static void checkMeasurementType(Properties props) {
+    String type = props.getProperty(Measurements.MEASUREMENT_TYPE_PROPERTY, "hdrhistogram");
+    if (!type.startsWith("hdrhistogram")) {
+      throw new IllegalArgumentException("A coordinated run merges HdrHistograms and needs " +
+          Measurements.MEASUREMENT_TYPE_PROPERTY + "=hdrhistogram, not " + type);
+    }
+  }
+
+  private static void writeProperties(DataOutputStream out, Properties props) throws IOException {
+    out.writeInt(props.size());
+    for (String name : props.stringPropertyNames()) {
+      out.writeUTF(name);
+      out.writeUTF(props.getProperty(name));
+    }
+    out.flush();
+  }
+
+  private static Process spawn(String[] args, int port) throws IOException {
+    List<String> command = new ArrayList<>();
+    command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(Client.class.getName());
+    command.addAll(Arrays.asList(args));
+    command.add("-p");
+    command.add(COORDINATOR_PROPERTY + "=127.0.0.1:" + port);
+    return new ProcessBuilder(command).inheritIO().start();
+  }
+}
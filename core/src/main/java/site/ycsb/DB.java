@@ -48,6 +48,17 @@ public abstract class DB {
    */
   private Properties properties = new Properties();
 
+  /**
+   * Whether the calls into the store marked by the binding are timed, see {@link #beginStoreCall()}.
+   */
+  private boolean timeStoreCalls;
+  private long storeCallStartNanos;
+
+  /**
+   * The time spent in marked calls into the store since it was last taken, or -1 if none was marked.
+   */
+  private long storeCallNanos = -1;
+
   /**
    * Set the properties for this DB.
    */
@@ -132,4 +143,50 @@ public abstract class DB {
    * @return The result of the operation.
    */
   public abstract Status delete(String table, String key);
+
+  /**
+   * Run an action once the operation last issued through this instance has completed, e.g. to make an
+   * inserted key available to other threads only once the record is stored. Operations of a plain DB
+   * have completed when they return, so the action runs right away; a wrapper that returns before its
+   * operations complete runs it later, on whichever thread completes the operation.
+   *
+   * @param action The action to run.
+   */
+  public void whenComplete(Runnable action) {
+    action.run();
+  }
+
+  /**
+   * Mark the start of a call into the store. Bindings call this right before handing an operation
+   * to the store, e.g. a native library, and {@link #endStoreCall()} right after it returns, so that
+   * with measurement.breakdown the time spent marshalling records can be told apart from the time
+   * spent in the store. An operation may make several calls. Does nothing unless asked to.
+   */
+  protected final void beginStoreCall() {
+    if (timeStoreCalls) {
+      storeCallStartNanos = System.nanoTime();
+    }
+  }
+
+  /**
+   * Mark the end of a call into the store started with {@link #beginStoreCall()}.
+   */
+  protected final void endStoreCall() {
+    if (timeStoreCalls) {
+      storeCallNanos = Math.max(storeCallNanos, 0) + System.nanoTime() - storeCallStartNanos;
+    }
+  }
+
+  final void setTimeStoreCalls(boolean time) {
+    timeStoreCalls = time;
+  }
+
+  /**
+   * @return The time spent in marked calls into the store since the last call, or -1 if none was marked.
+   */
+  final long takeStoreCallNanos() {
+    long nanos = storeCallNanos;
+    storeCallNanos = -1;
+    return nanos;
+  }
 }
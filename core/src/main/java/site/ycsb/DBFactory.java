@@ -18,13 +18,19 @@
 package site.ycsb;
 
 import org.apache.htrace.core.Tracer;
+import site.ycsb.measurements.Measurements;
+import site.ycsb.workloads.CoreWorkload;
 
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Creates a DB layer by dynamically classloading the specified DB class.
  */
 public final class DBFactory {
+  private static final AtomicBoolean WARNED_NOT_ASYNC = new AtomicBoolean(false);
+  private static final AtomicBoolean WARNED_NO_BREAKDOWN = new AtomicBoolean(false);
+
   private DBFactory() {
     // not used
   }
@@ -45,7 +51,42 @@ public final class DBFactory {
 
     ret.setProperties(properties);
 
+    int inflightMax = Integer.parseInt(properties.getProperty(Client.INFLIGHT_MAX_PROPERTY,
+        Client.INFLIGHT_MAX_PROPERTY_DEFAULT));
+    if (inflightMax > 1) {
+      if (ret instanceof AsyncDB) {
+        checkAsyncWorkload(properties);
+        if (Boolean.parseBoolean(properties.getProperty(Measurements.MEASUREMENT_BREAKDOWN_PROPERTY,
+            Measurements.MEASUREMENT_BREAKDOWN_PROPERTY_DEFAULT)) && WARNED_NO_BREAKDOWN.compareAndSet(false, true)) {
+          System.err.println("WARNING: operations overlap with " + Client.INFLIGHT_MAX_PROPERTY + " > 1; " +
+              Measurements.MEASUREMENT_BREAKDOWN_PROPERTY + " has no effect.");
+        }
+        return new AsyncDBWrapper((AsyncDB) ret, tracer, inflightMax);
+      }
+      if (WARNED_NOT_ASYNC.compareAndSet(false, true)) {
+        System.err.println("WARNING: " + dbname + " is not an AsyncDB, ignoring " +
+            Client.INFLIGHT_MAX_PROPERTY + "=" + inflightMax);
+      }
+    }
+
     return new DBWrapper(ret, tracer);
   }
 
+  /**
+   * Refuse workloads that look at the results of reads before they complete, which they do when
+   * operations are kept in flight: the results are only filled in once the operation completes.
+   */
+  private static void checkAsyncWorkload(Properties properties) throws UnknownDBException {
+    if (Boolean.parseBoolean(properties.getProperty(CoreWorkload.DATA_INTEGRITY_PROPERTY,
+        CoreWorkload.DATA_INTEGRITY_PROPERTY_DEFAULT))) {
+      throw new UnknownDBException(CoreWorkload.DATA_INTEGRITY_PROPERTY + "=true can't verify reads with " +
+          Client.INFLIGHT_MAX_PROPERTY + " > 1");
+    }
+    if (Double.parseDouble(properties.getProperty(CoreWorkload.READMODIFYWRITE_PROPORTION_PROPERTY,
+        CoreWorkload.READMODIFYWRITE_PROPORTION_PROPERTY_DEFAULT)) > 0) {
+      throw new UnknownDBException(CoreWorkload.READMODIFYWRITE_PROPORTION_PROPERTY +
+          " > 0 can't write after the read has completed with " + Client.INFLIGHT_MAX_PROPERTY + " > 1");
+    }
+  }
+
 }
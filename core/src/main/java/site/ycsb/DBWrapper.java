@@ -19,7 +19,9 @@ package site.ycsb;
 
 import java.util.Map;
 
+import site.ycsb.jfr.FlightRecorderEvents;
 import site.ycsb.measurements.Measurements;
+import site.ycsb.measurements.SlowOperations;
 import org.apache.htrace.core.TraceScope;
 import org.apache.htrace.core.Tracer;
 
@@ -45,6 +47,35 @@ public class DBWrapper extends DB {
 
   private static final AtomicBoolean LOG_REPORT_CONFIG = new AtomicBoolean(false);
 
+  /**
+   * The names latencies are measured under, by operation and then status ordinal, worked out in
+   * {@link #init()} so that measuring an operation builds no strings.
+   */
+  private String[][] measurementNames;
+
+  /**
+   * Whether the latency of operations is broken down into marshalling and store time, and the names
+   * of those measurements by operation. See {@link Measurements#MEASUREMENT_BREAKDOWN_PROPERTY}.
+   */
+  private boolean breakdown;
+  private String[] marshalNames;
+  private String[] storeNames;
+
+  /**
+   * The time spent in operations since it was last taken, for working out the time spent outside them.
+   */
+  private long callNanos;
+
+  /**
+   * The Flight Recorder events of operations, if emitted.
+   */
+  private FlightRecorderEvents events;
+
+  /**
+   * The recorder of slow operations of the client thread, if they are kept.
+   */
+  private SlowOperations.Recorder slowOperations;
+
   private final String scopeStringCleanup;
   private final String scopeStringDelete;
   private final String scopeStringInit;
@@ -101,6 +132,31 @@ public class DBWrapper extends DB {
         }
       }
 
+      measurementNames = new String[Workload.Operation.values().length][Status.getPredefinedCount()];
+      for (Workload.Operation op : Workload.Operation.values()) {
+        for (Status status : Status.getPredefined()) {
+          measurementNames[op.ordinal()][status.getOrdinal()] = measurementName(op.name(), status);
+        }
+      }
+
+      breakdown = canBreakDown() && Boolean.parseBoolean(getProperties().getProperty(
+          Measurements.MEASUREMENT_BREAKDOWN_PROPERTY, Measurements.MEASUREMENT_BREAKDOWN_PROPERTY_DEFAULT));
+      db.setTimeStoreCalls(breakdown);
+      marshalNames = new String[Workload.Operation.values().length];
+      storeNames = new String[Workload.Operation.values().length];
+      for (Workload.Operation op : Workload.Operation.values()) {
+        marshalNames[op.ordinal()] = "MARSHAL-" + op.name();
+        storeNames[op.ordinal()] = "STORE-" + op.name();
+      }
+
+      try {
+        events = FlightRecorderEvents.forOperations(getProperties());
+      } catch (IllegalArgumentException e) {
+        throw new DBException(e.getMessage(), e);
+      }
+
+      slowOperations = measurements.getSlowOperationsRecorder();
+
       if (LOG_REPORT_CONFIG.compareAndSet(false, true)) {
         System.err.println("DBWrapper: report latency for each error is " +
             this.reportLatencyForEachError + " and specific error codes to track" +
@@ -137,11 +193,11 @@ public class DBWrapper extends DB {
                      Map<String, ByteIterator> result) {
     try (final TraceScope span = tracer.newScope(scopeStringRead)) {
       long ist = measurements.getIntendedStartTimeNs();
+      beginEvent();
       long st = System.nanoTime();
       Status res = db.read(table, key, fields, result);
       long en = System.nanoTime();
-      measure("READ", res, ist, st, en);
-      measurements.reportStatus("READ", res);
+      measure(Workload.Operation.READ, table, key, res, ist, st, en);
       return res;
     }
   }
@@ -161,30 +217,91 @@ public class DBWrapper extends DB {
                      Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
     try (final TraceScope span = tracer.newScope(scopeStringScan)) {
       long ist = measurements.getIntendedStartTimeNs();
+      beginEvent();
       long st = System.nanoTime();
       Status res = db.scan(table, startkey, recordcount, fields, result);
       long en = System.nanoTime();
-      measure("SCAN", res, ist, st, en);
-      measurements.reportStatus("SCAN", res);
+      measure(Workload.Operation.SCAN, table, startkey, res, ist, st, en);
       return res;
     }
   }
 
-  private void measure(String op, Status result, long intendedStartTimeNanos,
-                       long startTimeNanos, long endTimeNanos) {
-    String measurementName = op;
+  void measure(String op, Status result, long intendedStartTimeNanos,
+               long startTimeNanos, long endTimeNanos) {
+    String measurementName = measurementName(op, result);
+    measurements.measureNanos(measurementName, endTimeNanos - startTimeNanos);
+    measurements.measureIntendedNanos(measurementName, endTimeNanos - intendedStartTimeNanos);
+  }
+
+  /**
+   * Measure a database operation and report its return code.
+   */
+  void measure(Workload.Operation op, String table, String key, Status result, long intendedStartTimeNanos,
+               long startTimeNanos, long endTimeNanos) {
+    String measurementName = result.getOrdinal() >= 0 ?
+        measurementNames[op.ordinal()][result.getOrdinal()] :
+        measurementName(op.name(), result);
+    measurements.measureNanos(op, result, measurementName,
+        endTimeNanos - startTimeNanos, endTimeNanos - intendedStartTimeNanos);
+    if (slowOperations != null) {
+      slowOperations.record(op, result, table, key,
+          intendedStartTimeNanos == 0 ? startTimeNanos : intendedStartTimeNanos, startTimeNanos, endTimeNanos);
+    }
+    if (breakdown) {
+      measureBreakdown(op, endTimeNanos - startTimeNanos);
+    }
+    if (events != null) {
+      events.commit(op, table, key, result, endTimeNanos - startTimeNanos);
+    }
+  }
+
+  private void beginEvent() {
+    if (events != null) {
+      events.begin();
+    }
+  }
+
+  /**
+   * Split the latency of an operation into the time spent in the calls into the store the binding
+   * marked and the rest, which goes to marshalling. Operations of bindings that mark no calls are
+   * left out.
+   */
+  private void measureBreakdown(Workload.Operation op, long latencyNanos) {
+    callNanos += latencyNanos;
+    long storeNanos = db.takeStoreCallNanos();
+    if (storeNanos >= 0) {
+      measurements.measureNanos(storeNames[op.ordinal()], storeNanos);
+      measurements.measureNanos(marshalNames[op.ordinal()], Math.max(0, latencyNanos - storeNanos));
+    }
+  }
+
+  /**
+   * @return Whether the latencies of operations can be broken down, which takes the operations of a
+   * client thread to run one at a time on that thread.
+   */
+  boolean canBreakDown() {
+    return true;
+  }
+
+  /**
+   * @return The time spent in operations since the last call, when breaking latencies down.
+   */
+  long takeCallNanos() {
+    long nanos = callNanos;
+    callNanos = 0;
+    return nanos;
+  }
+
+  private String measurementName(String op, Status result) {
     if (result == null || !result.isOk()) {
       if (this.reportLatencyForEachError ||
           this.latencyTrackedErrors.contains(result.getName())) {
-        measurementName = op + "-" + result.getName();
+        return op + "-" + result.getName();
       } else {
-        measurementName = op + "-FAILED";
+        return op + "-FAILED";
       }
     }
-    measurements.measure(measurementName,
-        (int) ((endTimeNanos - startTimeNanos) / 1000));
-    measurements.measureIntended(measurementName,
-        (int) ((endTimeNanos - intendedStartTimeNanos) / 1000));
+    return op;
   }
 
   /**
@@ -200,11 +317,11 @@ public class DBWrapper extends DB {
                        Map<String, ByteIterator> values) {
     try (final TraceScope span = tracer.newScope(scopeStringUpdate)) {
       long ist = measurements.getIntendedStartTimeNs();
+      beginEvent();
       long st = System.nanoTime();
       Status res = db.update(table, key, values);
       long en = System.nanoTime();
-      measure("UPDATE", res, ist, st, en);
-      measurements.reportStatus("UPDATE", res);
+      measure(Workload.Operation.UPDATE, table, key, res, ist, st, en);
       return res;
     }
   }
@@ -223,11 +340,11 @@ public class DBWrapper extends DB {
                        Map<String, ByteIterator> values) {
     try (final TraceScope span = tracer.newScope(scopeStringInsert)) {
       long ist = measurements.getIntendedStartTimeNs();
+      beginEvent();
       long st = System.nanoTime();
       Status res = db.insert(table, key, values);
       long en = System.nanoTime();
-      measure("INSERT", res, ist, st, en);
-      measurements.reportStatus("INSERT", res);
+      measure(Workload.Operation.INSERT, table, key, res, ist, st, en);
       return res;
     }
   }
@@ -242,11 +359,11 @@ public class DBWrapper extends DB {
   public Status delete(String table, String key) {
     try (final TraceScope span = tracer.newScope(scopeStringDelete)) {
       long ist = measurements.getIntendedStartTimeNs();
+      beginEvent();
       long st = System.nanoTime();
       Status res = db.delete(table, key);
       long en = System.nanoTime();
-      measure("DELETE", res, ist, st, en);
-      measurements.reportStatus("DELETE", res);
+      measure(Workload.Operation.DELETE, table, key, res, ist, st, en);
       return res;
     }
   }
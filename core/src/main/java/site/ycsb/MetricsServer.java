@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import site.ycsb.measurements.exporter.PrometheusMeasurementsExporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+
+/**
+ * Serves the latest status interval in the Prometheus text format at /metrics, on the HTTP server
+ * built into the JDK, so long runs can be scraped like the databases they load.
+ *
+ * The status thread publishes a new page at the end of every interval; requests are answered from
+ * the latest one and never touch the measurements.
+ */
+public final class MetricsServer {
+  private final HttpServer server;
+  private volatile byte[] page = new byte[0];
+
+  /**
+   * Start serving.
+   *
+   * @param host The address to listen on.
+   * @param port The port to listen on, or 0 for any free port.
+   * @throws IOException if the server can't be started.
+   */
+  public MetricsServer(String host, int port) throws IOException {
+    server = HttpServer.create(new InetSocketAddress(host, port), 0);
+    server.createContext("/metrics", this::handle);
+    server.start();
+  }
+
+  /**
+   * @return The port the server listens on.
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Replace the page served.
+   *
+   * @param metrics The metrics in the Prometheus text format.
+   */
+  public void publish(byte[] metrics) {
+    page = metrics;
+  }
+
+  /**
+   * Stop serving.
+   */
+  public void stop() {
+    server.stop(0);
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      if (!"GET".equals(exchange.getRequestMethod())) {
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      byte[] body = page;
+      exchange.getResponseHeaders().set("Content-Type", PrometheusMeasurementsExporter.CONTENT_TYPE);
+      exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+      if (body.length > 0) {
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(body);
+        }
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import site.ycsb.measurements.Measurements;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A sequence of timed phases run back to back by the same client threads, workload and DB instances.
+ *
+ * The schedule is given as a comma separated list of name:duration pairs, e.g.
+ * <code>phases=warmup:60s,measure:600s,cooldown:30s</code>. Durations take an ms, s, m or h suffix
+ * (seconds if none). Phases named "warmup" or "cooldown" are not measured: measurements are reset
+ * when the first measured phase starts and paused during unmeasured phases that follow it, so the
+ * exported results, run time and throughput only cover the measured phases.
+ */
+public class PhaseSchedule {
+  /**
+   * The name of the property for the phase schedule.
+   */
+  public static final String PHASES_PROPERTY = "phases";
+
+  /**
+   * One named phase of the schedule.
+   */
+  public static final class Phase {
+    private final String name;
+    private final long durationMs;
+    private final boolean measured;
+
+    Phase(String name, long durationMs) {
+      this.name = name;
+      this.durationMs = durationMs;
+      measured = !name.equals("warmup") && !name.equals("cooldown");
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getDurationMs() {
+      return durationMs;
+    }
+
+    public boolean isMeasured() {
+      return measured;
+    }
+  }
+
+  private final List<Phase> phases;
+
+  private long measuredOps;
+  private long measuredRuntimeMs;
+
+  /**
+   * Parse a phase schedule.
+   *
+   * @param schedule The schedule, e.g. "warmup:60s,measure:600s".
+   * @throws IllegalArgumentException if the schedule cannot be parsed or measures nothing.
+   */
+  public PhaseSchedule(String schedule) {
+    List<Phase> parsed = new ArrayList<>();
+    boolean anyMeasured = false;
+    for (String entry : schedule.split(",")) {
+      String[] parts = entry.trim().split(":");
+      if (parts.length != 2 || parts[0].isEmpty()) {
+        throw new IllegalArgumentException("Phase \"" + entry + "\" is not of the form name:duration");
+      }
+      Phase phase = new Phase(parts[0], parseDurationMs(parts[1].trim()));
+      anyMeasured |= phase.isMeasured();
+      parsed.add(phase);
+    }
+    if (!anyMeasured) {
+      throw new IllegalArgumentException("Phase schedule \"" + schedule + "\" has no measured phase");
+    }
+    phases = Collections.unmodifiableList(parsed);
+  }
+
+  static long parseDurationMs(String duration) {
+    TimeUnit unit = TimeUnit.SECONDS;
+    String value = duration;
+    if (duration.endsWith("ms")) {
+      unit = TimeUnit.MILLISECONDS;
+      value = duration.substring(0, duration.length() - 2);
+    } else if (duration.endsWith("s")) {
+      value = duration.substring(0, duration.length() - 1);
+    } else if (duration.endsWith("m")) {
+      unit = TimeUnit.MINUTES;
+      value = duration.substring(0, duration.length() - 1);
+    } else if (duration.endsWith("h")) {
+      unit = TimeUnit.HOURS;
+      value = duration.substring(0, duration.length() - 1);
+    }
+    return unit.toMillis(Long.parseLong(value));
+  }
+
+  public List<Phase> getPhases() {
+    return phases;
+  }
+
+  /**
+   * Walk through the phases while the client threads run, then ask the workload to stop.
+   * Returns early if all clients finish before the schedule does.
+   *
+   * @param completeLatch The latch counted down by each client as it completes.
+   * @param clients The running clients.
+   * @param workload The workload to stop at the end of the schedule.
+   */
+  public void run(CountDownLatch completeLatch, List<ClientThread> clients, Workload workload) {
+    Measurements measurements = Measurements.getMeasurements();
+    boolean measuredBefore = false;
+    long phaseStartMs = System.currentTimeMillis();
+    long phaseStartOps = 0;
+    boolean alldone = false;
+
+    for (Phase phase : phases) {
+      System.err.println("Starting phase " + phase.getName() + " (" + phase.getDurationMs() + " ms, " +
+          (phase.isMeasured() ? "measured" : "not measured") + ")");
+      if (phase.isMeasured() && !measuredBefore) {
+        measurements.reset();
+        measuredBefore = true;
+      } else if (measuredBefore) {
+        measurements.setPaused(!phase.isMeasured());
+      }
+
+      alldone = await(completeLatch, phaseStartMs + phase.getDurationMs());
+      long nowMs = System.currentTimeMillis();
+      long ops = opsDone(clients);
+      if (phase.isMeasured()) {
+        measuredOps += ops - phaseStartOps;
+        measuredRuntimeMs += nowMs - phaseStartMs;
+      }
+      phaseStartMs = nowMs;
+      phaseStartOps = ops;
+      if (alldone) {
+        System.err.println("All clients completed during phase " + phase.getName() + ".");
+        break;
+      }
+    }
+
+    workload.requestStop();
+  }
+
+  /**
+   * @return The number of operations done during the measured phases.
+   */
+  public long getMeasuredOps() {
+    return measuredOps;
+  }
+
+  /**
+   * @return The time spent in the measured phases.
+   */
+  public long getMeasuredRuntimeMs() {
+    return measuredRuntimeMs;
+  }
+
+  static boolean await(CountDownLatch completeLatch, long deadlineMs) {
+    long remaining = deadlineMs - System.currentTimeMillis();
+    while (remaining > 0) {
+      try {
+        return completeLatch.await(remaining, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        remaining = deadlineMs - System.currentTimeMillis();
+      }
+    }
+    return completeLatch.getCount() == 0;
+  }
+
+  static long opsDone(List<ClientThread> clients) {
+    long ops = 0;
+    for (ClientThread client : clients) {
+      ops += client.getOpsDone();
+    }
+    return ops;
+  }
+}
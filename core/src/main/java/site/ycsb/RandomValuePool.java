@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A block of random printable bytes filled once and shared by all threads, handing out values as
+ * slices at random offsets rather than generating new random bytes for every value.
+ *
+ * Values overlap and repeat, so they compress better than those of {@link RandomByteIterator} once
+ * the pool is small compared to the data written; the pool should be well above the size of the
+ * values and of any compression block of the database.
+ */
+public class RandomValuePool {
+  private final byte[] pool;
+
+  /**
+   * Fill a pool of the given size.
+   *
+   * @param size The size of the pool in bytes.
+   */
+  public RandomValuePool(int size) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("The size of the value pool must be positive");
+    }
+    pool = new byte[size];
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    for (int i = 0; i < size; i++) {
+      pool[i] = (byte) (' ' + random.nextInt(95));
+    }
+  }
+
+  /**
+   * Get a value of the given length from a random offset of the pool, without copying it.
+   * Values longer than the pool are generated as a {@link RandomByteIterator}.
+   *
+   * @param len The length of the value.
+   * @return The value.
+   */
+  public ByteIterator next(long len) {
+    if (len > pool.length) {
+      return new RandomByteIterator(len);
+    }
+    int offset = ThreadLocalRandom.current().nextInt(pool.length - (int) len + 1);
+    return new ByteArrayByteIterator(pool, offset, (int) len);
+  }
+
+  public int size() {
+    return pool.length;
+  }
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import site.ycsb.measurements.Measurements;
+
+import java.text.DecimalFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Searches for the highest target throughput that still meets a latency SLO, by bisection over
+ * short trials run back to back on the same client threads, DB instances and workload.
+ *
+ * Properties:
+ * <UL>
+ * <LI><b>slo.pNN</b>: the SLO as the latency that the NNth percentile of every operation must not
+ * exceed, e.g. <code>slo.p99=5ms</code> or <code>slo.p99.9=800us</code>. Latencies without a unit are in ms.
+ * Intended latencies count when measurement.interval is intended or both.
+ * <LI><b>slo.trial</b>: the measured length of one trial (default 30s).
+ * <LI><b>slo.settle</b>: how long to run at a new target before measuring (default 5s).
+ * <LI><b>slo.target.min</b> and <b>slo.target.max</b>: the range of total targets to search, in
+ * operations per second. Without a maximum the first trial runs unthrottled and its throughput is used.
+ * <LI><b>slo.tolerance</b>: the relative precision of the result, and how far the achieved throughput
+ * may fall short of the target for a trial to pass (default 0.05).
+ * <LI><b>slo.trials</b>: the maximum number of trials (default 10).
+ * </UL>
+ * The exported measurements are those of the last trial; the result is exported as [SLO] lines.
+ */
+public final class SloSearch {
+  /**
+   * The prefix of the property for the SLO.
+   */
+  public static final String SLO_PROPERTY_PREFIX = "slo.p";
+
+  public static final String TRIAL_PROPERTY = "slo.trial";
+  public static final String TRIAL_PROPERTY_DEFAULT = "30s";
+
+  public static final String SETTLE_PROPERTY = "slo.settle";
+  public static final String SETTLE_PROPERTY_DEFAULT = "5s";
+
+  public static final String TARGET_MIN_PROPERTY = "slo.target.min";
+  public static final String TARGET_MIN_PROPERTY_DEFAULT = "0";
+
+  public static final String TARGET_MAX_PROPERTY = "slo.target.max";
+
+  public static final String TOLERANCE_PROPERTY = "slo.tolerance";
+  public static final String TOLERANCE_PROPERTY_DEFAULT = "0.05";
+
+  public static final String TRIALS_PROPERTY = "slo.trials";
+  public static final String TRIALS_PROPERTY_DEFAULT = "10";
+
+  private final double percentile;
+  private final long sloUs;
+  private final long trialMs;
+  private final long settleMs;
+  private final double tolerance;
+  private final int maxTrials;
+
+  private double low;
+  private double high;
+
+  private int trials;
+  private double bestTarget;
+  private long trialOps;
+  private long trialRuntimeMs;
+
+  /**
+   * Read the search from the properties.
+   *
+   * @param props The properties of the run.
+   * @return The search, or null if no SLO was given.
+   * @throws IllegalArgumentException if the properties cannot be parsed.
+   */
+  public static SloSearch create(Properties props) {
+    String slo = null;
+    for (String name : props.stringPropertyNames()) {
+      if (name.startsWith(SLO_PROPERTY_PREFIX)) {
+        if (slo != null) {
+          throw new IllegalArgumentException("Only one SLO can be searched for, got " + slo + " and " + name);
+        }
+        slo = name;
+      }
+    }
+    if (slo == null) {
+      return null;
+    }
+    return new SloSearch(Double.parseDouble(slo.substring(SLO_PROPERTY_PREFIX.length())),
+        parseLatencyUs(props.getProperty(slo)), props);
+  }
+
+  private SloSearch(double percentile, long sloUs, Properties props) {
+    this.percentile = percentile;
+    this.sloUs = sloUs;
+    trialMs = PhaseSchedule.parseDurationMs(props.getProperty(TRIAL_PROPERTY, TRIAL_PROPERTY_DEFAULT));
+    settleMs = PhaseSchedule.parseDurationMs(props.getProperty(SETTLE_PROPERTY, SETTLE_PROPERTY_DEFAULT));
+    low = Double.parseDouble(props.getProperty(TARGET_MIN_PROPERTY, TARGET_MIN_PROPERTY_DEFAULT));
+    high = Double.parseDouble(props.getProperty(TARGET_MAX_PROPERTY, "0"));
+    tolerance = Double.parseDouble(props.getProperty(TOLERANCE_PROPERTY, TOLERANCE_PROPERTY_DEFAULT));
+    maxTrials = Integer.parseInt(props.getProperty(TRIALS_PROPERTY, TRIALS_PROPERTY_DEFAULT));
+    if (percentile <= 0 || percentile > 100 || trialMs <= 0 || low < 0 || (high > 0 && high <= low)
+        || tolerance <= 0 || maxTrials <= 0) {
+      throw new IllegalArgumentException("Invalid SLO search settings");
+    }
+  }
+
+  static long parseLatencyUs(String latency) {
+    if (latency.endsWith("us")) {
+      return Long.parseLong(latency.substring(0, latency.length() - 2));
+    } else if (latency.endsWith("ms")) {
+      return TimeUnit.MILLISECONDS.toMicros(Long.parseLong(latency.substring(0, latency.length() - 2)));
+    } else if (latency.endsWith("s")) {
+      return TimeUnit.SECONDS.toMicros(Long.parseLong(latency.substring(0, latency.length() - 1)));
+    }
+    return TimeUnit.MILLISECONDS.toMicros(Long.parseLong(latency));
+  }
+
+  /**
+   * @return The total target of the first trial, in operations per second, or 0 for unthrottled.
+   */
+  public double getInitialTarget() {
+    return high > 0 ? high : 0;
+  }
+
+  /**
+   * Run trials while the client threads run until the range is narrowed down, then ask the workload to stop.
+   * Returns early if all clients finish before the search does.
+   *
+   * @param completeLatch The latch counted down by each client as it completes.
+   * @param clients The running clients.
+   * @param workload The workload to stop at the end of the search.
+   */
+  public void run(CountDownLatch completeLatch, List<ClientThread> clients, Workload workload) {
+    double target = getInitialTarget();
+    while (trials < maxTrials) {
+      if (!trial(completeLatch, clients, target)) {
+        System.err.println("All clients completed during SLO trial " + trials + ".");
+        break;
+      }
+      double throughput = 1000.0 * trialOps / Math.max(1, trialRuntimeMs);
+      long latency = Measurements.getMeasurements().getWorstPercentileLatency(percentile);
+      boolean met = latency >= 0 && latency <= sloUs && (target <= 0 || throughput >= (1 - tolerance) * target);
+      report(target, throughput, latency, met);
+
+      if (target <= 0) {
+        // the unthrottled trial found the upper end of the range
+        if (met) {
+          bestTarget = throughput;
+          break;
+        }
+        high = throughput;
+      } else if (met) {
+        bestTarget = target;
+        low = target;
+      } else {
+        high = target;
+      }
+      if (high - low <= tolerance * high) {
+        break;
+      }
+      target = (low + high) / 2;
+    }
+
+    workload.requestStop();
+  }
+
+  /**
+   * Run one trial at the given total target.
+   *
+   * @return false if all clients completed before the end of the trial.
+   */
+  private boolean trial(CountDownLatch completeLatch, List<ClientThread> clients, double target) {
+    trials++;
+    for (ClientThread client : clients) {
+      client.setTargetOpsPerMs(target / clients.size() / 1000.0);
+    }
+    if (PhaseSchedule.await(completeLatch, System.currentTimeMillis() + settleMs)) {
+      return false;
+    }
+
+    Measurements.getMeasurements().reset();
+    long startMs = System.currentTimeMillis();
+    long startOps = PhaseSchedule.opsDone(clients);
+    boolean alldone = PhaseSchedule.await(completeLatch, startMs + trialMs);
+    trialRuntimeMs = System.currentTimeMillis() - startMs;
+    trialOps = PhaseSchedule.opsDone(clients) - startOps;
+    return !alldone;
+  }
+
+  private void report(double target, double throughput, long latency, boolean met) {
+    DecimalFormat d = new DecimalFormat("#.##");
+    System.err.println("SLO trial " + trials + ": target " + (target > 0 ? d.format(target) : "unthrottled") +
+        " ops/sec; " + d.format(throughput) + " ops/sec; p" + d.format(percentile) + "=" +
+        (latency >= 0 ? latency + " us; " : "unknown; ") + (met ? "met" : "missed") + " the SLO of " + sloUs + " us");
+  }
+
+  /**
+   * @return The highest total target that met the SLO, in operations per second, or 0 if none did.
+   */
+  public double getBestTarget() {
+    return bestTarget;
+  }
+
+  /**
+   * @return The number of trials run.
+   */
+  public int getTrials() {
+    return trials;
+  }
+
+  /**
+   * @return The number of operations done during the measured part of the last trial.
+   */
+  public long getMeasuredOps() {
+    return trialOps;
+  }
+
+  /**
+   * @return The length of the measured part of the last trial.
+   */
+  public long getMeasuredRuntimeMs() {
+    return trialRuntimeMs;
+  }
+}
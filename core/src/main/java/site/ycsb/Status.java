@@ -17,21 +17,57 @@
 
 package site.ycsb;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * The result of an operation.
  */
 public class Status {
+  /**
+   * The statuses defined by this class, in the order of their ordinals. Declared before them, as
+   * each adds itself when the class is initialized.
+   */
+  private static final List<Status> PREDEFINED = new ArrayList<>();
+
   private final String name;
   private final String description;
+  private final int ordinal;
 
   /**
    * @param name A short name for the status.
    * @param description A description of the status.
    */
   public Status(String name, String description) {
+    this(name, description, -1);
+  }
+
+  private Status(String name, String description, int ordinal) {
     super();
     this.name = name;
     this.description = description;
+    this.ordinal = ordinal;
+  }
+
+  private static Status predefined(String name, String description) {
+    Status status = new Status(name, description, PREDEFINED.size());
+    PREDEFINED.add(status);
+    return status;
+  }
+
+  /**
+   * @return The statuses defined by this class, in the order of their ordinals.
+   */
+  public static List<Status> getPredefined() {
+    return Collections.unmodifiableList(PREDEFINED);
+  }
+
+  /**
+   * @return The number of statuses defined by this class.
+   */
+  public static int getPredefinedCount() {
+    return PREDEFINED.size();
   }
 
   public String getName() {
@@ -42,6 +78,14 @@ public class Status {
     return description;
   }
 
+  /**
+   * @return The position of this status among those defined by this class, from 0 up to
+   *         {@link #getPredefinedCount()}, or -1 for statuses created elsewhere.
+   */
+  public int getOrdinal() {
+    return ordinal;
+  }
+
   @Override
   public String toString() {
     return "Status [name=" + name + ", description=" + description + "]";
@@ -93,18 +137,18 @@ public class Status {
     return this == OK || this == BATCHED_OK;
   }
 
-  public static final Status OK = new Status("OK", "The operation completed successfully.");
-  public static final Status ERROR = new Status("ERROR", "The operation failed.");
-  public static final Status NOT_FOUND = new Status("NOT_FOUND", "The requested record was not found.");
-  public static final Status NOT_IMPLEMENTED = new Status("NOT_IMPLEMENTED", "The operation is not " +
+  public static final Status OK = predefined("OK", "The operation completed successfully.");
+  public static final Status ERROR = predefined("ERROR", "The operation failed.");
+  public static final Status NOT_FOUND = predefined("NOT_FOUND", "The requested record was not found.");
+  public static final Status NOT_IMPLEMENTED = predefined("NOT_IMPLEMENTED", "The operation is not " +
       "implemented for the current binding.");
-  public static final Status UNEXPECTED_STATE = new Status("UNEXPECTED_STATE", "The operation reported" +
+  public static final Status UNEXPECTED_STATE = predefined("UNEXPECTED_STATE", "The operation reported" +
       " success, but the result was not as expected.");
-  public static final Status BAD_REQUEST = new Status("BAD_REQUEST", "The request was not valid.");
-  public static final Status FORBIDDEN = new Status("FORBIDDEN", "The operation is forbidden.");
-  public static final Status SERVICE_UNAVAILABLE = new Status("SERVICE_UNAVAILABLE", "Dependant " +
+  public static final Status BAD_REQUEST = predefined("BAD_REQUEST", "The request was not valid.");
+  public static final Status FORBIDDEN = predefined("FORBIDDEN", "The operation is forbidden.");
+  public static final Status SERVICE_UNAVAILABLE = predefined("SERVICE_UNAVAILABLE", "Dependant " +
       "service for the current binding is not available.");
-  public static final Status BATCHED_OK = new Status("BATCHED_OK", "The operation has been batched by " +
+  public static final Status BATCHED_OK = predefined("BATCHED_OK", "The operation has been batched by " +
       "the binding to be executed later.");
 }
 
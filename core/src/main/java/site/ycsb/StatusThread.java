@@ -18,6 +18,11 @@
 package site.ycsb;
 
 import site.ycsb.measurements.Measurements;
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+import site.ycsb.measurements.exporter.PrometheusMeasurementsExporter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -57,6 +62,24 @@ public class StatusThread extends Thread {
   private long lastGCCount = 0;
   private long lastGCTime = 0;
 
+  // The target schedule to report steps of, if any.
+  private TargetSchedule targetSchedule;
+  private int currentStep;
+  private long stepStartOps;
+  private long stepStartMs;
+
+  // Where the measurements of every interval are written, if anywhere.
+  private MeasurementsExporter intervalExporter;
+
+  // Where the measurements of the latest interval are served, if anywhere.
+  private MetricsServer metricsServer;
+
+  // The CPU time and bytes allocated by the clients so far, and in the latest interval, if tracked.
+  private long lastCpuNanos;
+  private long lastAllocatedBytes;
+  private long intervalCpuNanos;
+  private long intervalAllocatedBytes;
+
   /**
    * Creates a new StatusThread without JVM stat tracking.
    *
@@ -95,6 +118,30 @@ public class StatusThread extends Thread {
     this.trackJVMStats = trackJVMStats;
   }
 
+  /**
+   * Also report the throughput and latencies of every step of a target schedule. A status line
+   * is printed at the end of each step as well, so the step statistics line up with its bounds.
+   */
+  public void setTargetSchedule(final TargetSchedule schedule) {
+    targetSchedule = schedule;
+  }
+
+  /**
+   * Also write the throughput and latencies of every status interval to an exporter as they are
+   * collected. The exporter is closed when the run is over.
+   */
+  public void setIntervalExporter(final MeasurementsExporter exporter) {
+    intervalExporter = exporter;
+  }
+
+  /**
+   * Also publish the throughput and latencies of every status interval, the return codes and the JVM
+   * statistics on a metrics server. The server is stopped when the run is over.
+   */
+  public void setMetricsServer(final MetricsServer server) {
+    metricsServer = server;
+  }
+
   /**
    * Run and periodically report status.
    */
@@ -105,6 +152,7 @@ public class StatusThread extends Thread {
     long deadline = startTimeNanos + sleeptimeNs;
     long startIntervalMs = startTimeMs;
     long lastTotalOps = 0;
+    stepStartMs = startTimeMs;
 
     boolean alldone;
 
@@ -117,10 +165,18 @@ public class StatusThread extends Thread {
         measureJVM();
       }
 
-      alldone = waitForClientsUntil(deadline);
+      reportStep(nowMs, lastTotalOps, false);
+
+      long wakeup = deadline;
+      if (targetSchedule != null) {
+        wakeup = Math.min(deadline, targetSchedule.getStepEndNanos(currentStep));
+      }
+      alldone = waitForClientsUntil(wakeup);
 
       startIntervalMs = nowMs;
-      deadline += sleeptimeNs;
+      if (wakeup == deadline) {
+        deadline += sleeptimeNs;
+      }
     }
     while (!alldone);
 
@@ -128,7 +184,113 @@ public class StatusThread extends Thread {
       measureJVM();
     }
     // Print the final stats.
-    computeStats(startTimeMs, startIntervalMs, System.currentTimeMillis(), lastTotalOps);
+    long nowMs = System.currentTimeMillis();
+    lastTotalOps = computeStats(startTimeMs, startIntervalMs, nowMs, lastTotalOps);
+    reportStep(nowMs, lastTotalOps, true);
+
+    if (intervalExporter != null) {
+      try {
+        intervalExporter.close();
+      } catch (IOException e) {
+        System.err.println("Could not close the interval export: " + e);
+      }
+    }
+    if (metricsServer != null) {
+      metricsServer.stop();
+    }
+  }
+
+  /**
+   * Writes the interval collected by the latest status summary to the interval exporter and the
+   * metrics server. The interval export is given up on the first error, rather than failing the run.
+   *
+   * @param startMs    The start of the interval.
+   * @param nowMs      The end of the interval.
+   * @param operations The number of operations completed in the interval.
+   */
+  private void exportInterval(long startMs, long nowMs, long operations) {
+    if (intervalExporter != null) {
+      try {
+        writeInterval(intervalExporter, startMs, nowMs, operations);
+        intervalExporter.flush();
+      } catch (IOException e) {
+        System.err.println("Could not write the interval export, giving up on it: " + e);
+        intervalExporter = null;
+      }
+    }
+    if (metricsServer != null) {
+      ByteArrayOutputStream page = new ByteArrayOutputStream();
+      try (MeasurementsExporter exporter = new PrometheusMeasurementsExporter(page)) {
+        writeInterval(exporter, startMs, nowMs, operations);
+      } catch (IOException e) {
+        System.err.println("Could not export the metrics: " + e);
+        return;
+      }
+      metricsServer.publish(page.toByteArray());
+    }
+  }
+
+  /**
+   * Writes the throughput, the latencies collected by the latest status summary, the return codes so
+   * far and the current JVM statistics.
+   */
+  private void writeInterval(MeasurementsExporter exporter, long startMs, long nowMs, long operations)
+      throws IOException {
+    exporter.beginInterval(nowMs);
+    exporter.write("INTERVAL", "Operations", operations);
+    if (nowMs > startMs) {
+      exporter.write("INTERVAL", "Throughput(ops/sec)", 1000.0 * operations / (nowMs - startMs));
+    }
+    measurements.exportIntervalMeasurements(exporter);
+    measurements.exportStatusCounts(exporter);
+
+    if (ThreadUsage.isEnabled() && operations > 0) {
+      exporter.write("CLIENT", "CpuTimePerOp(us)", intervalCpuNanos / 1000.0 / operations);
+      if (ThreadUsage.isAllocationSupported()) {
+        exporter.write("CLIENT", "AllocatedBytesPerOp", (double) intervalAllocatedBytes / operations);
+      }
+    }
+
+    exporter.write("JVM", "Threads", Utils.getActiveThreadCount());
+    exporter.write("JVM", "UsedMemory(MB)", Utils.getUsedMemoryMegaBytes());
+    double systemLoad = Utils.getSystemLoadAverage();
+    if (systemLoad >= 0) {
+      exporter.write("JVM", "SystemLoadAverage", systemLoad);
+    }
+    exporter.write("JVM", "GarbageCollections", Utils.getGCTotalCollectionCount());
+    exporter.write("JVM", "GarbageCollectionTime(ms)", Utils.getGCTotalTime());
+  }
+
+  /**
+   * Prints the throughput and latencies of the current step of the target schedule once it is over.
+   *
+   * @param nowMs    The current time.
+   * @param totalops The current operation count.
+   * @param last     Whether the run is over, which ends the current step too.
+   */
+  private void reportStep(long nowMs, long totalops, boolean last) {
+    if (targetSchedule == null) {
+      return;
+    }
+    int step = targetSchedule.getStepAt(targetSchedule.getElapsedMs());
+    if (step == currentStep && !last) {
+      return;
+    }
+
+    DecimalFormat d = new DecimalFormat("#.##");
+    double throughput = 1000.0 * (totalops - stepStartOps) / Math.max(1, nowMs - stepStartMs);
+    String msg = label + "[STEP " + currentStep + "] target " + targetSchedule.describeStep(currentStep) +
+        " ops/sec; " + (nowMs - stepStartMs) / 1000 + " sec: " + (totalops - stepStartOps) + " operations; " +
+        d.format(throughput) + " ops/sec; " + measurements.getStepSummary();
+
+    System.err.println(msg);
+    if (standardstatus) {
+      System.out.println(msg);
+    }
+
+    currentStep = step;
+    stepStartOps = totalops;
+    stepStartMs = nowMs;
   }
 
   /**
@@ -146,12 +308,23 @@ public class StatusThread extends Thread {
 
     long totalops = 0;
     long todoops = 0;
+    long cpuNanos = 0;
+    long allocatedBytes = 0;
+    final boolean trackUsage = ThreadUsage.isEnabled();
 
     // Calculate the total number of operations completed.
     for (ClientThread t : clients) {
       totalops += t.getOpsDone();
       todoops += t.getOpsTodo();
+      if (trackUsage) {
+        cpuNanos += t.getCpuNanos();
+        allocatedBytes += t.getAllocatedBytes();
+      }
     }
+    intervalCpuNanos = cpuNanos - lastCpuNanos;
+    intervalAllocatedBytes = allocatedBytes - lastAllocatedBytes;
+    lastCpuNanos = cpuNanos;
+    lastAllocatedBytes = allocatedBytes;
 
 
     long interval = endIntervalMs - startTimeMs;
@@ -170,11 +343,19 @@ public class StatusThread extends Thread {
     if (totalops != 0) {
       msg.append(d.format(curthroughput)).append(" current ops/sec; ");
     }
+    if (trackUsage && totalops > lastTotalOps) {
+      long ops = totalops - lastTotalOps;
+      msg.append(d.format(intervalCpuNanos / 1000.0 / ops)).append(" client cpu us/op; ");
+      if (ThreadUsage.isAllocationSupported()) {
+        msg.append(d.format((double) intervalAllocatedBytes / ops)).append(" client bytes/op; ");
+      }
+    }
     if (todoops != 0) {
       msg.append("est completion in ").append(RemainingFormatter.format(estremaining));
     }
 
     msg.append(Measurements.getMeasurements().getSummary());
+    exportInterval(startIntervalMs, endIntervalMs, totalops - lastTotalOps);
 
     System.err.println(msg);
 
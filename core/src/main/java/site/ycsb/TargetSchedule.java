@@ -0,0 +1,310 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A target throughput that changes over the course of a run, applied live to the throttle of
+ * every client thread.
+ *
+ * The schedule is given by the <code>target.schedule</code> property as one of
+ * <UL>
+ * <LI><b>ramp:from:to:duration[:steps]</b>: a linear ramp from one total target (in operations per
+ * second) to another, reported in the given number of equal steps (10 by default).
+ * <LI><b>steps:from:increment:duration:count</b>: a staircase of count steps of the given duration,
+ * starting at from and going up by increment each step.
+ * <LI><b>csv:file</b>: a file with one <code>second,ops</code> row per step, the first at second 0.
+ * Each row sets the target from that second on. Lines starting with # are ignored.
+ * </UL>
+ * Durations take the same suffixes as the phases property. A target of 0 means unthrottled.
+ * The schedule starts when the first client starts its operations, so the time clients spend
+ * initializing or waiting for the coordinator doesn't eat into the first steps.
+ * After the schedule the last target is held until the run ends through operationcount or
+ * maxexecutiontime. The status thread reports throughput and latency for every step.
+ */
+public class TargetSchedule {
+  /**
+   * The name of the property for the target schedule.
+   */
+  public static final String TARGET_SCHEDULE_PROPERTY = "target.schedule";
+
+  /**
+   * How often the target is adjusted during a ramp.
+   */
+  private static final long RAMP_UPDATE_INTERVAL_MS = 100;
+
+  /**
+   * One step of the schedule, during which the target goes linearly from one value to another.
+   */
+  static final class Step {
+    private final long startMs;
+    private final long endMs;
+    private final double fromOps;
+    private final double toOps;
+
+    Step(long startMs, long endMs, double fromOps, double toOps) {
+      this.startMs = startMs;
+      this.endMs = endMs;
+      this.fromOps = fromOps;
+      this.toOps = toOps;
+    }
+
+    double targetAt(long elapsedMs) {
+      if (fromOps == toOps || endMs == Long.MAX_VALUE) {
+        return fromOps;
+      }
+      double fraction = Math.min(1.0, (double) (elapsedMs - startMs) / (endMs - startMs));
+      return fromOps + (toOps - fromOps) * fraction;
+    }
+
+    long getEndMs() {
+      return endMs;
+    }
+
+    boolean isRamp() {
+      return fromOps != toOps;
+    }
+  }
+
+  private final List<Step> steps;
+
+  /**
+   * The value of {@link #startNanos} until the first client begins.
+   */
+  private static final long NOT_STARTED = Long.MIN_VALUE;
+
+  /**
+   * The nanoTime at which the schedule started, or {@link #NOT_STARTED}.
+   */
+  private final AtomicLong startNanos = new AtomicLong(NOT_STARTED);
+
+  /**
+   * The clients to throttle, set by {@link #attach(List)}.
+   */
+  private List<ClientThread> clients;
+
+  /**
+   * Parse a target schedule.
+   *
+   * @param schedule The schedule, e.g. "ramp:1000:50000:10m".
+   * @throws IllegalArgumentException if the schedule cannot be parsed.
+   * @throws IOException if the csv file cannot be read.
+   */
+  public TargetSchedule(String schedule) throws IOException {
+    String[] parts = schedule.trim().split(":", 2);
+    if (parts.length != 2) {
+      throw new IllegalArgumentException("Target schedule \"" + schedule + "\" has no arguments");
+    }
+    switch (parts[0]) {
+    case "ramp":
+      steps = ramp(parts[1].split(":"));
+      break;
+    case "steps":
+      steps = staircase(parts[1].split(":"));
+      break;
+    case "csv":
+      steps = readCsv(parts[1]);
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown target schedule \"" + parts[0] + "\"");
+    }
+  }
+
+  private static List<Step> ramp(String[] args) {
+    if (args.length != 3 && args.length != 4) {
+      throw new IllegalArgumentException("A ramp is given as ramp:from:to:duration[:steps]");
+    }
+    double from = Double.parseDouble(args[0]);
+    double to = Double.parseDouble(args[1]);
+    long durationMs = PhaseSchedule.parseDurationMs(args[2]);
+    int count = args.length == 4 ? Integer.parseInt(args[3]) : 10;
+    if (count <= 0 || durationMs < count) {
+      throw new IllegalArgumentException("A ramp needs at least one step of at least 1 ms");
+    }
+    List<Step> ramp = new ArrayList<>(count + 1);
+    for (int i = 0; i < count; i++) {
+      ramp.add(new Step(durationMs * i / count, durationMs * (i + 1) / count,
+          from + (to - from) * i / count, from + (to - from) * (i + 1) / count));
+    }
+    ramp.add(new Step(durationMs, Long.MAX_VALUE, to, to));
+    return Collections.unmodifiableList(ramp);
+  }
+
+  private static List<Step> staircase(String[] args) {
+    if (args.length != 4) {
+      throw new IllegalArgumentException("A staircase is given as steps:from:increment:duration:count");
+    }
+    double from = Double.parseDouble(args[0]);
+    double increment = Double.parseDouble(args[1]);
+    long durationMs = PhaseSchedule.parseDurationMs(args[2]);
+    int count = Integer.parseInt(args[3]);
+    if (count <= 0 || durationMs <= 0) {
+      throw new IllegalArgumentException("A staircase needs at least one step of at least 1 ms");
+    }
+    List<Step> staircase = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      long endMs = i == count - 1 ? Long.MAX_VALUE : durationMs * (i + 1);
+      double target = from + increment * i;
+      staircase.add(new Step(durationMs * i, endMs, target, target));
+    }
+    return Collections.unmodifiableList(staircase);
+  }
+
+  private static List<Step> readCsv(String file) throws IOException {
+    List<Long> starts = new ArrayList<>();
+    List<Double> targets = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+        String[] row = line.split(",");
+        if (row.length != 2) {
+          throw new IllegalArgumentException("Row \"" + line + "\" of " + file + " is not of the form second,ops");
+        }
+        long startMs = TimeUnit.SECONDS.toMillis(Long.parseLong(row[0].trim()));
+        if (starts.isEmpty() ? startMs != 0 : startMs <= starts.get(starts.size() - 1)) {
+          throw new IllegalArgumentException("The rows of " + file + " must start at second 0 and be ascending");
+        }
+        starts.add(startMs);
+        targets.add(Double.parseDouble(row[1].trim()));
+      }
+    }
+    if (starts.isEmpty()) {
+      throw new IllegalArgumentException(file + " has no rows");
+    }
+    List<Step> csv = new ArrayList<>(starts.size());
+    for (int i = 0; i < starts.size(); i++) {
+      long endMs = i == starts.size() - 1 ? Long.MAX_VALUE : starts.get(i + 1);
+      csv.add(new Step(starts.get(i), endMs, targets.get(i), targets.get(i)));
+    }
+    return Collections.unmodifiableList(csv);
+  }
+
+  /**
+   * @return The total target of the given step, in operations per second, as a human readable string.
+   */
+  public String describeStep(int step) {
+    DecimalFormat d = new DecimalFormat("#.##");
+    Step s = steps.get(step);
+    return s.isRamp() ? d.format(s.fromOps) + "-" + d.format(s.toOps) : d.format(s.fromOps);
+  }
+
+  /**
+   * @return The total target at the given time after the start of the schedule, in operations per second.
+   */
+  public double getTargetAt(long elapsedMs) {
+    return steps.get(getStepAt(elapsedMs)).targetAt(elapsedMs);
+  }
+
+  /**
+   * @return The index of the step the schedule is in at the given time after its start.
+   */
+  public int getStepAt(long elapsedMs) {
+    int step = 0;
+    while (step < steps.size() - 1 && elapsedMs >= steps.get(step).getEndMs()) {
+      step++;
+    }
+    return step;
+  }
+
+  /**
+   * @return The time since the schedule started, or 0 if it has not started yet.
+   */
+  public long getElapsedMs() {
+    long start = startNanos.get();
+    return start == NOT_STARTED ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+  }
+
+  /**
+   * @return The nanoTime at which the given step ends, or Long.MAX_VALUE if it does not end or the
+   *         schedule has not started yet.
+   */
+  public long getStepEndNanos(int step) {
+    long start = startNanos.get();
+    long endMs = steps.get(step).getEndMs();
+    if (start == NOT_STARTED || endMs == Long.MAX_VALUE) {
+      return Long.MAX_VALUE;
+    }
+    return start + TimeUnit.MILLISECONDS.toNanos(endMs);
+  }
+
+  /**
+   * Throttle the given clients by the schedule, dividing the target evenly among them. Must be called
+   * before the clients are started; the schedule starts with the first of them, see {@link #begin()}.
+   *
+   * @param throttled The clients to throttle.
+   */
+  public void attach(final List<ClientThread> throttled) {
+    clients = throttled;
+    for (ClientThread client : throttled) {
+      client.setTargetSchedule(this);
+    }
+  }
+
+  /**
+   * Start the schedule and a daemon thread that follows it, unless it already started. Called by every
+   * client right before its first operation.
+   */
+  void begin() {
+    if (startNanos.get() != NOT_STARTED || !startNanos.compareAndSet(NOT_STARTED, System.nanoTime())) {
+      return;
+    }
+    Thread updater = new Thread(this::follow, "TargetSchedule");
+    updater.setDaemon(true);
+    updater.start();
+  }
+
+  private void follow() {
+    double applied = Double.NaN;
+    while (true) {
+      long elapsedMs = getElapsedMs();
+      double target = getTargetAt(elapsedMs);
+      if (target != applied) {
+        for (ClientThread client : clients) {
+          client.setTargetOpsPerMs(target / clients.size() / 1000.0);
+        }
+        applied = target;
+      }
+      int step = getStepAt(elapsedMs);
+      if (step == steps.size() - 1) {
+        return;
+      }
+      long nextMs = steps.get(step).getEndMs();
+      if (steps.get(step).isRamp()) {
+        nextMs = Math.min(nextMs, elapsedMs + RAMP_UPDATE_INTERVAL_MS);
+      }
+      try {
+        Thread.sleep(Math.max(1, nextMs - elapsedMs));
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+}
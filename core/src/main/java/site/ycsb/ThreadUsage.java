@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The CPU time and the bytes allocated by client threads, sampled with {@link ThreadMXBean} to tell
+ * how much of the machine the client itself uses per operation.
+ *
+ * Allocated bytes are only available on JVMs implementing {@link com.sun.management.ThreadMXBean},
+ * and neither is available for virtual threads.
+ */
+final class ThreadUsage {
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+  private static volatile boolean enabled;
+  private static boolean allocationSupported;
+
+  // The totals of the client threads that are done.
+  private static final LongAdder TOTAL_OPERATIONS = new LongAdder();
+  private static final LongAdder TOTAL_CPU_NANOS = new LongAdder();
+  private static final LongAdder TOTAL_ALLOCATED_BYTES = new LongAdder();
+
+  private ThreadUsage() {
+    // utility class
+  }
+
+  /**
+   * Turn on the CPU time and, where supported, allocation measurement of the JVM.
+   *
+   * @return false if the JVM can't measure the CPU time of threads.
+   */
+  static synchronized boolean enable() {
+    if (enabled) {
+      return true;
+    }
+    if (!THREADS.isThreadCpuTimeSupported()) {
+      System.err.println("WARNING: the JVM can't measure the CPU time of threads, not tracking client threads.");
+      return false;
+    }
+    THREADS.setThreadCpuTimeEnabled(true);
+    if (THREADS instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+      if (threads.isThreadAllocatedMemorySupported()) {
+        threads.setThreadAllocatedMemoryEnabled(true);
+        allocationSupported = true;
+      }
+    }
+    enabled = true;
+    return true;
+  }
+
+  /**
+   * @return Whether the client threads are tracked.
+   */
+  static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * @return Whether the bytes allocated by the client threads are tracked.
+   */
+  static boolean isAllocationSupported() {
+    return enabled && allocationSupported;
+  }
+
+  /**
+   * @return The CPU time of a live thread in nanoseconds, or -1 if not available.
+   */
+  static long getCpuNanos(long threadId) {
+    return THREADS.getThreadCpuTime(threadId);
+  }
+
+  /**
+   * @return The bytes allocated by a live thread, or -1 if not available.
+   */
+  static long getAllocatedBytes(long threadId) {
+    if (!allocationSupported) {
+      return -1;
+    }
+    return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(threadId);
+  }
+
+  /**
+   * Add the usage of a client thread that is done to the totals.
+   */
+  static void addTotals(long operations, long cpuNanos, long allocatedBytes) {
+    TOTAL_OPERATIONS.add(operations);
+    TOTAL_CPU_NANOS.add(cpuNanos);
+    TOTAL_ALLOCATED_BYTES.add(allocatedBytes);
+  }
+
+  /**
+   * Export the CPU time and the bytes allocated per operation by all client threads that are done.
+   */
+  static void exportTotals(MeasurementsExporter exporter) throws IOException {
+    if (!enabled) {
+      return;
+    }
+    long operations = TOTAL_OPERATIONS.sum();
+    exporter.write("CLIENT", "CpuTime(ms)", TOTAL_CPU_NANOS.sum() / 1000000);
+    if (operations > 0) {
+      exporter.write("CLIENT", "CpuTimePerOp(us)", TOTAL_CPU_NANOS.sum() / 1000.0 / operations);
+    }
+    if (allocationSupported) {
+      exporter.write("CLIENT", "AllocatedBytes(MB)", TOTAL_ALLOCATED_BYTES.sum() / (1024 * 1024));
+      if (operations > 0) {
+        exporter.write("CLIENT", "AllocatedBytesPerOp", (double) TOTAL_ALLOCATED_BYTES.sum() / operations);
+      }
+    }
+  }
+}
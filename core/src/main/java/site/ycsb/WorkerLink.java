@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import site.ycsb.measurements.MergedMeasurements;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.Socket;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The connection of a worker to its {@link Coordinator}.
+ */
+final class WorkerLink {
+  static final String READY = "READY";
+
+  /**
+   * How long a worker keeps trying to reach a coordinator that isn't listening yet.
+   */
+  private static final long CONNECT_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(1);
+
+  private final Socket socket;
+  private final DataInputStream in;
+  private final DataOutputStream out;
+
+  private WorkerLink(Socket socket) throws IOException {
+    this.socket = socket;
+    in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+  }
+
+  /**
+   * Connect to the coordinator, if there is one, and take over the properties it sends.
+   *
+   * @param props The properties of this client, updated with those of the coordinator.
+   * @return The link, or null if this client is not a worker.
+   */
+  static WorkerLink connect(Properties props) throws IOException {
+    String coordinator = props.getProperty(Coordinator.COORDINATOR_PROPERTY);
+    if (coordinator == null) {
+      return null;
+    }
+    int colon = coordinator.lastIndexOf(':');
+    String host = colon < 0 ? coordinator : coordinator.substring(0, colon);
+    int port = Integer.parseInt(colon < 0 ? Coordinator.PORT_PROPERTY_DEFAULT : coordinator.substring(colon + 1));
+
+    long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT_MS;
+    Socket socket;
+    while (true) {
+      try {
+        socket = new Socket(host, port);
+        break;
+      } catch (ConnectException e) {
+        if (System.currentTimeMillis() > deadline) {
+          throw e;
+        }
+        try {
+          Thread.sleep(500);
+        } catch (InterruptedException ie) {
+          throw new IOException("Interrupted while connecting to the coordinator", ie);
+        }
+      }
+    }
+
+    WorkerLink link = new WorkerLink(socket);
+    int count = link.in.readInt();
+    for (int i = 0; i < count; i++) {
+      props.setProperty(link.in.readUTF(), link.in.readUTF());
+    }
+    return link;
+  }
+
+  /**
+   * Tell the coordinator this worker is ready and wait for the start, which it sends as a delay from now.
+   */
+  void awaitStart() throws IOException {
+    out.writeUTF(READY);
+    out.flush();
+    long delayMs = in.readLong();
+    long startNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+    long remaining = startNanos - System.nanoTime();
+    while (remaining > 0) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(remaining);
+      } catch (InterruptedException e) {
+        // keep waiting for the start
+      }
+      remaining = startNanos - System.nanoTime();
+    }
+  }
+
+  /**
+   * Send the results of this worker to the coordinator and close the link.
+   *
+   * @param opsDone The number of operations done.
+   * @param runtime The run time in ms.
+   */
+  void sendResults(long opsDone, long runtime) throws IOException {
+    try {
+      out.writeLong(opsDone);
+      out.writeLong(runtime);
+      MergedMeasurements.writeMeasurements(out);
+      out.flush();
+    } finally {
+      socket.close();
+    }
+  }
+}
@@ -14,23 +14,36 @@
  * permissions and limitations under the License. See accompanying
  * LICENSE file.
  */
+
 package site.ycsb.generator;
 
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * A CounterGenerator that reports generated integers via lastInt()
  * only after they have been acknowledged.
+ *
+ * Acknowledgements are kept as bits in segments of {@link #SEGMENT_SIZE} values, which are created
+ * when the first value in them is acknowledged and dropped once the limit has passed them, so there
+ * is no bound on the number of values that may be unacknowledged at a time. Setting a bit and
+ * advancing the limit take no lock; a value acknowledged before {@link #lastValue()} returned it
+ * happens-before the call that returned it.
  */
 public class AcknowledgedCounterGenerator extends CounterGenerator {
-  /** The size of the window of pending id ack's. 2^20 = {@value} */
-  static final int WINDOW_SIZE = Integer.rotateLeft(1, 20);
+  /** The number of values per segment of acknowledgements. 2^16 = {@value} */
+  static final int SEGMENT_SIZE = 1 << 16;
+
+  private static final int SEGMENT_SHIFT = 16;
+  private static final int WORD_SHIFT = 6;
+  private static final int WORD_MASK = (1 << WORD_SHIFT) - 1;
 
-  /** The mask to use to turn an id into a slot in {@link #window}. */
-  private static final int WINDOW_MASK = WINDOW_SIZE - 1;
+  private final ConcurrentMap<Long, AtomicLongArray> segments;
 
-  private final ReentrantLock lock;
-  private final boolean[] window;
+  /** Set by the thread moving acknowledged values over to {@link #limit}. */
+  private final AtomicBoolean advancing;
   private volatile long limit;
 
   /**
@@ -38,8 +51,8 @@ public class AcknowledgedCounterGenerator extends CounterGenerator {
    */
   public AcknowledgedCounterGenerator(long countstart) {
     super(countstart);
-    lock = new ReentrantLock();
-    window = new boolean[WINDOW_SIZE];
+    segments = new ConcurrentHashMap<>();
+    advancing = new AtomicBoolean();
     limit = countstart - 1;
   }
 
@@ -56,33 +69,56 @@ public class AcknowledgedCounterGenerator extends CounterGenerator {
    * Make a generated counter value available via lastInt().
    */
   public void acknowledge(long value) {
-    final int currentSlot = (int)(value & WINDOW_MASK);
-    if (window[currentSlot]) {
-      throw new RuntimeException("Too many unacknowledged insertion keys.");
+    if (value <= limit) {
+      throw new IllegalArgumentException("Insertion key " + value + " was already acknowledged.");
+    }
+    AtomicLongArray segment = segments.computeIfAbsent(value >> SEGMENT_SHIFT,
+        s -> new AtomicLongArray(SEGMENT_SIZE >> WORD_SHIFT));
+    int word = (int) (value & (SEGMENT_SIZE - 1)) >> WORD_SHIFT;
+    long bit = 1L << (value & WORD_MASK);
+    if ((segment.getAndAccumulate(word, bit, (w, b) -> w | b) & bit) != 0) {
+      throw new IllegalArgumentException("Insertion key " + value + " was already acknowledged.");
     }
 
-    window[currentSlot] = true;
-
-    if (lock.tryLock()) {
-      // move a contiguous sequence from the window
-      // over to the "limit" variable
+    // Whoever fails to become the advancing thread leaves its value to the one that is, which checks
+    // again after it is done so that a value acknowledged in the meantime isn't left behind.
+    while (isAcknowledged(limit + 1) && advancing.compareAndSet(false, true)) {
       try {
-        // Only loop through the entire window at most once.
-        long beforeFirstSlot = (limit & WINDOW_MASK);
-        long index;
-        for (index = limit + 1; index != beforeFirstSlot; ++index) {
-          int slot = (int)(index & WINDOW_MASK);
-          if (!window[slot]) {
-            break;
-          }
+        advance();
+      } finally {
+        advancing.set(false);
+      }
+    }
+  }
 
-          window[slot] = false;
-        }
+  private boolean isAcknowledged(long value) {
+    AtomicLongArray segment = segments.get(value >> SEGMENT_SHIFT);
+    return segment != null &&
+        (segment.get((int) (value & (SEGMENT_SIZE - 1)) >> WORD_SHIFT) & (1L << (value & WORD_MASK))) != 0;
+  }
 
-        limit = index - 1;
-      } finally {
-        lock.unlock();
+  /**
+   * Move a contiguous sequence of acknowledged values over to {@link #limit}, a word at a time, and
+   * drop the segments it passes. Only called by the advancing thread.
+   */
+  private void advance() {
+    long next = limit + 1;
+    while (true) {
+      long segmentIndex = next >> SEGMENT_SHIFT;
+      AtomicLongArray segment = segments.get(segmentIndex);
+      if (segment == null) {
+        break;
+      }
+      int offset = (int) (next & WORD_MASK);
+      long acknowledged = Long.numberOfTrailingZeros(
+          ~(segment.get((int) (next & (SEGMENT_SIZE - 1)) >> WORD_SHIFT) >>> offset));
+      next += acknowledged;
+      if (next >> SEGMENT_SHIFT != segmentIndex) {
+        segments.remove(segmentIndex);
+      } else if (acknowledged < Long.SIZE - offset) {
+        break;
       }
     }
+    limit = next - 1;
   }
 }
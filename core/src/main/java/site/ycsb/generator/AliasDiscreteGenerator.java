@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Generates a distribution by choosing from a discrete set of values, like {@link DiscreteGenerator}, but in
+ * constant time whatever the number of values, using the alias method: each value owns a column of equal
+ * width, split between itself and one alias so that every value gets its weight in total. One random number
+ * picks a column and the side of the split.
+ *
+ * The table is built as values are added, so values should all be added before the generator is shared
+ * between threads.
+ *
+ * The algorithm is Vose's, from "A Linear Algorithm for Generating Random Numbers with a Given Distribution",
+ * Michael D. Vose, IEEE Transactions on Software Engineering 17(9), 1991.
+ *
+ * @param <T> The type of the values.
+ */
+public class AliasDiscreteGenerator<T> extends Generator<T> {
+  private final List<T> values = new ArrayList<>();
+  private final List<Double> weights = new ArrayList<>();
+
+  /**
+   * The probability that a column goes to its own value rather than its alias, and the alias.
+   */
+  private double[] probability = new double[0];
+  private int[] alias = new int[0];
+
+  private T lastvalue;
+
+  /**
+   * Add a value, which is chosen with a probability of its weight over the total weight.
+   *
+   * @param weight The weight of the value, at least 0.
+   * @param value The value.
+   */
+  public void addValue(double weight, T value) {
+    if (!(weight >= 0) || Double.isInfinite(weight)) {
+      throw new IllegalArgumentException("Invalid weight " + weight + " for " + value);
+    }
+    values.add(requireNonNull(value));
+    weights.add(weight);
+    buildTable();
+  }
+
+  private void buildTable() {
+    int n = weights.size();
+    double sum = 0;
+    for (double weight : weights) {
+      sum += weight;
+    }
+    double[] scaled = new double[n];
+    int[] small = new int[n];
+    int[] large = new int[n];
+    int smallCount = 0;
+    int largeCount = 0;
+    for (int i = 0; i < n; i++) {
+      // with no weight at all, every value is as likely
+      scaled[i] = sum > 0 ? weights.get(i) * n / sum : 1;
+      if (scaled[i] < 1) {
+        small[smallCount++] = i;
+      } else {
+        large[largeCount++] = i;
+      }
+    }
+
+    double[] newProbability = new double[n];
+    int[] newAlias = new int[n];
+    while (smallCount > 0 && largeCount > 0) {
+      int less = small[--smallCount];
+      int more = large[--largeCount];
+      newProbability[less] = scaled[less];
+      newAlias[less] = more;
+      // the rest of the column of the smaller value goes to the larger one
+      scaled[more] = (scaled[more] + scaled[less]) - 1;
+      if (scaled[more] < 1) {
+        small[smallCount++] = more;
+      } else {
+        large[largeCount++] = more;
+      }
+    }
+    // what is left is 1 but for rounding errors
+    while (largeCount > 0) {
+      newProbability[large[--largeCount]] = 1;
+    }
+    while (smallCount > 0) {
+      newProbability[small[--smallCount]] = 1;
+    }
+    probability = newProbability;
+    alias = newAlias;
+  }
+
+  /**
+   * @return The index of the next value, in the order the values were added, or -1 if there are none.
+   */
+  private int nextIndex() {
+    int n = probability.length;
+    if (n == 0) {
+      return -1;
+    }
+    double u = ThreadLocalRandom.current().nextDouble() * n;
+    int column = Math.min((int) u, n - 1);
+    return u - column < probability[column] ? column : alias[column];
+  }
+
+  /**
+   * Generate the next value in the distribution, or null if there are none.
+   */
+  @Override
+  public T nextValue() {
+    int index = nextIndex();
+    return index < 0 ? null : values.get(index);
+  }
+
+  /**
+   * Return a value of the distribution. The last value generated isn't tracked, so that threads choosing values
+   * don't write to shared state; instead this is the value generated by the first call.
+   */
+  @Override
+  public T lastValue() {
+    if (lastvalue == null) {
+      lastvalue = nextValue();
+    }
+    return lastvalue;
+  }
+}
@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A generator of a skewed distribution whose hot set moves during the run, to see how fast a store that
+ * tracks the hotness of keys adapts and what the transition costs. The popularity of items comes from
+ * a generator of ranks, 0 being the most popular, e.g. a {@link HotspotIntegerGenerator} or a
+ * {@link RejectionInversionZipfianGenerator}. The ranks are mapped to items in a way that changes every
+ * period of a number of operations or of time, depending on the {@link Mode}.
+ *
+ * The start of every period, with the time, the number of items generated so far and the most popular
+ * item, can be recorded as CSV with {@link #recordSchedule(String)} until {@link #close()}.
+ */
+public class DriftingHotspotGenerator extends NumberGenerator {
+  // How the hot set moves: slide, replace or rotate.
+  public static final String DRIFT_MODE_PROPERTY = "drift.mode";
+  public static final String DRIFT_MODE_DEFAULT = "slide";
+
+  // The popularity of the items: hotspot, from hotspotdatafraction and hotspotopnfraction, or zipfian.
+  public static final String DRIFT_POPULARITY_PROPERTY = "drift.popularity";
+  public static final String DRIFT_POPULARITY_DEFAULT = "hotspot";
+
+  // The number of operations in a period, or 0 to use drift.period.ms.
+  public static final String DRIFT_PERIOD_OPERATIONS_PROPERTY = "drift.period.operations";
+  public static final String DRIFT_PERIOD_OPERATIONS_DEFAULT = "0";
+
+  // The length of a period in ms.
+  public static final String DRIFT_PERIOD_MS_PROPERTY = "drift.period.ms";
+  public static final String DRIFT_PERIOD_MS_DEFAULT = "10000";
+
+  // How far the hot set slides every period, as a fraction of the items.
+  public static final String DRIFT_STEP_PROPERTY = "drift.step";
+  public static final String DRIFT_STEP_DEFAULT = "0.01";
+
+  // Where the schedule of the periods is written.
+  public static final String DRIFT_OUTPUT_FILE_PROPERTY = "drift.output_file";
+  public static final String DRIFT_OUTPUT_FILE_DEFAULT = "ycsb-drift.csv";
+
+  /**
+   * How the hot set moves from one period to the next.
+   */
+  public enum Mode {
+    /**
+     * The ranks are laid out in order from an offset that moves by a fixed step every period, so the
+     * hot set slides across the item space, overlapping the previous one if the step is small.
+     */
+    SLIDE,
+
+    /**
+     * The ranks are laid out in order from an offset picked at random every period, so the hot set is
+     * abruptly replaced by an unrelated one.
+     */
+    REPLACE,
+
+    /**
+     * The ranks are mapped to items by a pseudo-random permutation that is replaced every period, so the
+     * hot set is scattered over the item space and abruptly replaced.
+     */
+    ROTATE
+  }
+
+  private final long min;
+  private final long itemcount;
+  private final NumberGenerator ranks;
+  private final Mode mode;
+  private final long step;
+  private final long periodOperations;
+  private final long periodNanos;
+  private final long seed;
+  private final long startNanos = System.nanoTime();
+  /**
+   * The items generated so far when the period is a number of operations, which it is worked out from.
+   */
+  private final AtomicLong operations = new AtomicLong();
+
+  /**
+   * The items generated so far when the period is a time, only needed for the schedule, so threads
+   * don't all increment the same counter.
+   */
+  private final LongAdder timedOperations = new LongAdder();
+
+  private volatile Period current;
+  private PrintWriter schedule;
+
+  /**
+   * Create a generator whose hot set moves every period.
+   *
+   * @param min              The smallest integer to generate in the sequence.
+   * @param max              The largest integer to generate in the sequence.
+   * @param ranks            A generator of ranks between 0 and max - min, 0 being the most popular.
+   * @param mode             How the hot set moves.
+   * @param step             How far the hot set slides every period in the SLIDE mode.
+   * @param periodOperations The number of items generated in a period, or 0 to use periodMs.
+   * @param periodMs         The length of a period in ms.
+   */
+  public DriftingHotspotGenerator(long min, long max, NumberGenerator ranks, Mode mode, long step,
+                                  long periodOperations, long periodMs) {
+    if (periodOperations <= 0 && periodMs <= 0) {
+      throw new IllegalArgumentException("The period must be a number of operations or ms greater than 0");
+    }
+    this.min = min;
+    this.itemcount = max - min + 1;
+    this.ranks = ranks;
+    this.mode = mode;
+    this.step = step;
+    this.periodOperations = periodOperations;
+    this.periodNanos = TimeUnit.MILLISECONDS.toNanos(periodMs);
+    this.seed = PermutedZipfianGenerator.DEFAULT_SEED;
+    current = new Period(0);
+  }
+
+  /**
+   * The mapping of ranks to items in one period.
+   */
+  private final class Period {
+    private final long index;
+    private final long offset;
+    private final FeistelPermutation permutation;
+
+    private Period(long index) {
+      this.index = index;
+      switch (mode) {
+      case SLIDE:
+        offset = BigInteger.valueOf(index).multiply(BigInteger.valueOf(step))
+            .mod(BigInteger.valueOf(itemcount)).longValue();
+        permutation = null;
+        break;
+      case REPLACE:
+        offset = index == 0 ? 0 : Long.remainderUnsigned(FeistelPermutation.mix(seed + index), itemcount);
+        permutation = null;
+        break;
+      default:
+        offset = 0;
+        permutation = new FeistelPermutation(itemcount, seed + index);
+        break;
+      }
+    }
+
+    private long map(long rank) {
+      if (permutation != null) {
+        return permutation.permute(rank);
+      }
+      // rank + offset - itemcount wraps around to the right value if rank + offset overflows
+      long item = rank + offset;
+      return item < 0 || item >= itemcount ? item - itemcount : item;
+    }
+  }
+
+  /**
+   * Write the start of every period from now on to a file as CSV: the time in ms since the epoch, the
+   * number of items generated so far, the period and its most popular item.
+   *
+   * @param path The file.
+   * @throws IOException if the file can't be written.
+   */
+  public synchronized void recordSchedule(String path) throws IOException {
+    schedule = new PrintWriter(new FileWriter(path), true);
+    schedule.println("timestamp(ms),operations,period,hottest");
+    record(current, periodOperations > 0 ? operations.get() : timedOperations.sum());
+  }
+
+  /**
+   * Stop recording the schedule and close its file.
+   */
+  public synchronized void close() {
+    if (schedule != null) {
+      schedule.close();
+      schedule = null;
+    }
+  }
+
+  private void record(Period period, long generated) {
+    if (schedule != null) {
+      schedule.println(System.currentTimeMillis() + "," + generated + "," + period.index + "," +
+          (min + period.map(0)));
+    }
+  }
+
+  /**
+   * Move on to a later period, unless another thread already has.
+   */
+  private synchronized Period advance(long index, long generated) {
+    Period period = current;
+    if (period.index < index) {
+      period = new Period(index);
+      current = period;
+      record(period, generated);
+    }
+    return period;
+  }
+
+  @Override
+  public Long nextValue() {
+    Period period = current;
+    if (periodOperations > 0) {
+      long generated = operations.getAndIncrement();
+      long index = generated / periodOperations;
+      if (period.index < index) {
+        period = advance(index, generated);
+      }
+    } else {
+      timedOperations.increment();
+      long index = (System.nanoTime() - startNanos) / periodNanos;
+      if (period.index < index) {
+        period = advance(index, timedOperations.sum() - 1);
+      }
+    }
+    long ret = min + period.map(ranks.nextValue().longValue());
+    setLastValue(ret);
+    return ret;
+  }
+
+  /**
+   * @return The number of the current period, counting from 0.
+   */
+  public long getPeriod() {
+    return current.index;
+  }
+
+  /**
+   * The hot set moves across the whole range, so the mean is roughly the middle of it.
+   */
+  @Override
+  public double mean() {
+    return min + (itemcount - 1) / 2.0;
+  }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+/**
+ * A pseudo-random permutation of [0, n): a balanced Feistel network over the smallest domain of an even
+ * number of bits holding n values, which is a permutation of that domain, and cycle-walking to bring the
+ * values outside [0, n) back in. The domain holds less than 4n values, so a value takes less than 4
+ * passes through the network on average.
+ *
+ * The permutation only depends on n and the seed, so clients given the same ones agree on it.
+ */
+final class FeistelPermutation {
+  private static final int ROUNDS = 4;
+
+  private final long n;
+  private final int halfBits;
+  private final long halfMask;
+  private final long[] keys = new long[ROUNDS];
+
+  /**
+   * @param n The number of values, at least 1.
+   * @param seed The seed the keys of the rounds are derived from.
+   */
+  FeistelPermutation(long n, long seed) {
+    if (n < 1) {
+      throw new IllegalArgumentException("Can't permute " + n + " values");
+    }
+    this.n = n;
+    int bits = Math.max(1, 64 - Long.numberOfLeadingZeros(n - 1));
+    halfBits = (bits + 1) / 2;
+    halfMask = (1L << halfBits) - 1;
+    long state = seed;
+    for (int i = 0; i < ROUNDS; i++) {
+      state += 0x9e3779b97f4a7c15L;
+      keys[i] = mix(state);
+    }
+  }
+
+  /**
+   * @param x A value in [0, n).
+   * @return The value x is mapped to, in [0, n).
+   */
+  long permute(long x) {
+    long y = x;
+    do {
+      y = encrypt(y);
+    } while (Long.compareUnsigned(y, n) >= 0);
+    return y;
+  }
+
+  private long encrypt(long x) {
+    long left = x >>> halfBits;
+    long right = x & halfMask;
+    for (long key : keys) {
+      long next = left ^ (mix(right ^ key) & halfMask);
+      left = right;
+      right = next;
+    }
+    return (left << halfBits) | right;
+  }
+
+  /**
+   * The finalizer of SplitMix64, a bijection of 64 bit values that spreads every bit over all the others.
+   */
+  static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
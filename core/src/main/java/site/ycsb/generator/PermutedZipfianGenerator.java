@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+/**
+ * A generator of a zipfian distribution that scatters the popular items across the item space, like
+ * {@link ScrambledZipfianGenerator}, but keeps the distribution exact. Where ScrambledZipfianGenerator folds
+ * the items of a zipfian distribution over {@link ScrambledZipfianGenerator#ITEM_COUNT} items onto the item
+ * space with a hash, so that the skew differs from the zipfian constant and several ranks can land on the same
+ * item, this generator draws ranks from a zipfian distribution over exactly the items between min and max and
+ * maps them to items with a pseudo-random permutation, see {@link FeistelPermutation}. Every item then has
+ * exactly the popularity of its rank.
+ *
+ * Generating an item takes constant time on average.
+ */
+public class PermutedZipfianGenerator extends NumberGenerator {
+  /**
+   * The seed of the permutation if none is given.
+   */
+  public static final long DEFAULT_SEED = 0x5943534250524d31L;
+
+  private final long min, max;
+  private final NumberGenerator ranks;
+  private final FeistelPermutation permutation;
+
+  /**
+   * Create a zipfian generator for items between min and max (inclusive) for the specified zipfian constant,
+   * using a {@link RejectionInversionZipfianGenerator}.
+   *
+   * @param min             The smallest integer to generate in the sequence.
+   * @param max             The largest integer to generate in the sequence.
+   * @param zipfianconstant The zipfian constant to use, greater than 0.
+   */
+  public PermutedZipfianGenerator(long min, long max, double zipfianconstant) {
+    this(min, max, new RejectionInversionZipfianGenerator(max - min + 1, zipfianconstant), DEFAULT_SEED);
+  }
+
+  /**
+   * Create a zipfian generator for items between min and max (inclusive) from a generator of ranks.
+   *
+   * @param min   The smallest integer to generate in the sequence.
+   * @param max   The largest integer to generate in the sequence.
+   * @param ranks A zipfian generator of the ranks 0 to max - min, 0 being the most popular.
+   * @param seed  The seed of the permutation.
+   */
+  public PermutedZipfianGenerator(long min, long max, NumberGenerator ranks, long seed) {
+    this.min = min;
+    this.max = max;
+    this.ranks = ranks;
+    permutation = new FeistelPermutation(max - min + 1, seed);
+  }
+
+  /**
+   * Return the next long in the sequence.
+   */
+  @Override
+  public Long nextValue() {
+    long ret = min + permutation.permute(ranks.nextValue().longValue());
+    setLastValue(ret);
+    return ret;
+  }
+
+  /**
+   * The permutation spreads the popular items pseudo-randomly, so the mean is roughly the middle of the range.
+   */
+  @Override
+  public double mean() {
+    return ((min) + max) / 2.0;
+  }
+}
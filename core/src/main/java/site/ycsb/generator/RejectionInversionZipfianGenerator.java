@@ -0,0 +1,222 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A generator of a zipfian distribution, like {@link ZipfianGenerator}, that takes constant time both to
+ * set up and to generate an item, for any number of items and any zipfian constant greater than 0.
+ * The number of items can be changed by calling nextLong(itemcount), e.g. as items are inserted,
+ * without recomputing anything up front or taking a lock.
+ *
+ * Item min (or 0) is the most popular, followed by min+1, and so on. Use
+ * {@link ScrambledZipfianGenerator#ScrambledZipfianGenerator(long, long, NumberGenerator)} to scatter the
+ * popular items throughout the item space.
+ *
+ * The algorithm is rejection-inversion, from "Rejection-Inversion to Generate Variates from Monotone Discrete
+ * Distributions", Wolfgang Hörmann and Gerhard Derflinger, ACM TOMACS 6(3), 1996. It samples the
+ * exact distribution, where {@link ZipfianGenerator} approximates it only for constants below 1.
+ */
+public class RejectionInversionZipfianGenerator extends NumberGenerator {
+  /**
+   * Number of items.
+   */
+  private final long items;
+
+  /**
+   * Min item to generate.
+   */
+  private final long base;
+
+  /**
+   * The zipfian constant to use.
+   */
+  private final double exponent;
+
+  /**
+   * Computed parameters for generating the distribution, which don't depend on the number of items.
+   */
+  private final double hIntegralX1;
+  private final double s;
+
+  /**
+   * The number of items and the parameter depending on it, as of the last change of the number of
+   * items. Replaced as a whole so that threads never see one without the other.
+   */
+  private volatile ItemCount itemCount;
+
+  /******************************* Constructors **************************************/
+
+  /**
+   * Create a zipfian generator for the specified number of items.
+   *
+   * @param items The number of items in the distribution.
+   */
+  public RejectionInversionZipfianGenerator(long items) {
+    this(0, items - 1, ZipfianGenerator.ZIPFIAN_CONSTANT);
+  }
+
+  /**
+   * Create a zipfian generator for the specified number of items using the specified zipfian constant.
+   *
+   * @param items The number of items in the distribution.
+   * @param zipfianconstant The zipfian constant to use.
+   */
+  public RejectionInversionZipfianGenerator(long items, double zipfianconstant) {
+    this(0, items - 1, zipfianconstant);
+  }
+
+  /**
+   * Create a zipfian generator for items between min and max (inclusive) for the specified zipfian constant.
+   *
+   * @param min The smallest integer to generate in the sequence.
+   * @param max The largest integer to generate in the sequence.
+   * @param zipfianconstant The zipfian constant to use, greater than 0.
+   */
+  public RejectionInversionZipfianGenerator(long min, long max, double zipfianconstant) {
+    if (!(zipfianconstant > 0)) {
+      throw new IllegalArgumentException("The zipfian constant must be greater than 0: " + zipfianconstant);
+    }
+    items = max - min + 1;
+    base = min;
+    exponent = zipfianconstant;
+
+    hIntegralX1 = hIntegral(1.5) - 1;
+    s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    itemCount = new ItemCount(items);
+
+    nextValue();
+  }
+
+  /**************************************************************************/
+
+  /**
+   * The number of items and H(n + 1/2), the bound of the values inverted for it.
+   */
+  private final class ItemCount {
+    private final long count;
+    private final double hIntegralCount;
+
+    private ItemCount(long count) {
+      this.count = count;
+      this.hIntegralCount = hIntegral(count + 0.5);
+    }
+  }
+
+  /**
+   * Generate the next item as a long.
+   *
+   * @param itemcount The number of items in the distribution.
+   * @return The next item in the sequence.
+   */
+  long nextLong(long itemcount) {
+    ItemCount current = itemCount;
+    if (current.count != itemcount) {
+      current = new ItemCount(itemcount);
+      itemCount = current;
+    }
+
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long k;
+    while (true) {
+      // u is uniform in (H(n + 1/2), H(3/2) - 1], which maps to ranks 1 to n when inverted
+      double u = current.hIntegralCount + random.nextDouble() * (hIntegralX1 - current.hIntegralCount);
+      double x = hIntegralInverse(u);
+      k = (long) (x + 0.5);
+      if (k < 1) {
+        k = 1;
+      } else if (k > itemcount) {
+        k = itemcount;
+      }
+      // accept right away if k is close enough to x, else if u is under the histogram of the distribution
+      if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+        break;
+      }
+    }
+
+    long ret = base + k - 1;
+    setLastValue(ret);
+    return ret;
+  }
+
+  /**
+   * Return the next value, skewed by the Zipfian distribution. The 0th item will be the most popular, followed by
+   * the 1st, followed by the 2nd, etc. (Or, if min != 0, the min-th item is the most popular, the min+1th item the
+   * next most popular, etc.)
+   */
+  @Override
+  public Long nextValue() {
+    return nextLong(items);
+  }
+
+  /**
+   * h(x) = 1 / x^exponent, the density of the distribution extended to real numbers.
+   */
+  private double h(double x) {
+    return Math.exp(-exponent * Math.log(x));
+  }
+
+  /**
+   * H(x), an integral of h(x): (x^(1 - exponent) - 1) / (1 - exponent), or log(x) for an exponent of 1.
+   */
+  private double hIntegral(double x) {
+    double logX = Math.log(x);
+    return helper2((1 - exponent) * logX) * logX;
+  }
+
+  /**
+   * The inverse of H(x).
+   */
+  private double hIntegralInverse(double x) {
+    double t = x * (1 - exponent);
+    if (t < -1) {
+      // limit the value to avoid NaN from rounding errors close to the bound
+      t = -1;
+    }
+    return Math.exp(helper1(t) * x);
+  }
+
+  /**
+   * log(1 + x) / x, accurate for x close to 0 too.
+   */
+  private static double helper1(double x) {
+    if (Math.abs(x) > 1e-8) {
+      return Math.log1p(x) / x;
+    }
+    return 1 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+  }
+
+  /**
+   * (exp(x) - 1) / x, accurate for x close to 0 too.
+   */
+  private static double helper2(double x) {
+    if (Math.abs(x) > 1e-8) {
+      return Math.expm1(x) / x;
+    }
+    return 1 + x * 0.5 * (1 + x * 1.0 / 3.0 * (1 + 0.25 * x));
+  }
+
+  /**
+   * Not supported, as computing the mean takes time linear in the number of items.
+   */
+  @Override
+  public double mean() {
+    throw new UnsupportedOperationException("Can't compute the mean of a rejection-inversion zipfian distribution");
+  }
+}
@@ -34,7 +34,7 @@ public class ScrambledZipfianGenerator extends NumberGenerator {
   public static final double USED_ZIPFIAN_CONSTANT = 0.99;
   public static final long ITEM_COUNT = 10000000000L;
 
-  private ZipfianGenerator gen;
+  private NumberGenerator gen;
   private final long min, max, itemcount;
 
   /******************************* Constructors **************************************/
@@ -92,6 +92,22 @@ zipfian constant
     }
   }
 
+  /**
+   * Create a zipfian generator for items between min and max (inclusive) that scatters the items of another
+   * zipfian generator for {@link #ITEM_COUNT} items, e.g. a {@link RejectionInversionZipfianGenerator} for
+   * a zipfian constant other than 0.99, which takes no time to set up.
+   *
+   * @param min     The smallest integer to generate in the sequence.
+   * @param max     The largest integer to generate in the sequence.
+   * @param zipfian The generator of the items to scatter.
+   */
+  public ScrambledZipfianGenerator(long min, long max, NumberGenerator zipfian) {
+    this.min = min;
+    this.max = max;
+    itemcount = this.max - this.min + 1;
+    gen = zipfian;
+  }
+
   /**************************************************************************************************/
 
   /**
@@ -99,7 +115,7 @@ zipfian constant
    */
   @Override
   public Long nextValue() {
-    long ret = gen.nextValue();
+    long ret = gen.nextValue().longValue();
     ret = min + Utils.fnvhash64(ret) % itemcount;
     setLastValue(ret);
     return ret;
@@ -17,16 +17,38 @@
 
 package site.ycsb.generator;
 
+import java.util.function.LongUnaryOperator;
+
 /**
  * Generate a popularity distribution of items, skewed to favor recent items significantly more than older items.
  */
 public class SkewedLatestGenerator extends NumberGenerator {
   private CounterGenerator basis;
-  private final ZipfianGenerator zipfian;
+  private final LongUnaryOperator zipfian;
 
   public SkewedLatestGenerator(CounterGenerator basis) {
+    this(basis, new ZipfianGenerator(basis.lastValue()));
+  }
+
+  /**
+   * Create a generator skewed by the given zipfian generator, which is asked for items among the items
+   * returned by the basis generator so far.
+   */
+  public SkewedLatestGenerator(CounterGenerator basis, ZipfianGenerator zipfian) {
+    this(basis, (LongUnaryOperator) zipfian::nextLong);
+  }
+
+  /**
+   * Create a generator skewed by the given rejection-inversion zipfian generator, which, unlike
+   * {@link ZipfianGenerator}, doesn't stall as the basis generator returns more items.
+   */
+  public SkewedLatestGenerator(CounterGenerator basis, RejectionInversionZipfianGenerator zipfian) {
+    this(basis, (LongUnaryOperator) zipfian::nextLong);
+  }
+
+  private SkewedLatestGenerator(CounterGenerator basis, LongUnaryOperator zipfian) {
     this.basis = basis;
-    zipfian = new ZipfianGenerator(this.basis.lastValue());
+    this.zipfian = zipfian;
     nextValue();
   }
 
@@ -37,7 +59,7 @@ public class SkewedLatestGenerator extends NumberGenerator {
   @Override
   public Long nextValue() {
     long max = basis.lastValue();
-    long next = max - zipfian.nextLong(max);
+    long next = max - zipfian.applyAsLong(max);
     setLastValue(next);
     return next;
   }
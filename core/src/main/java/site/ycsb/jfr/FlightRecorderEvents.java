@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.jfr;
+
+import site.ycsb.Status;
+import site.ycsb.Workload;
+
+import jdk.jfr.EventType;
+
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Emits JDK Flight Recorder events for database operations (site.ycsb.Operation) and the phases of the
+ * client (site.ycsb.Phase), so that their latencies line up with the GC, safepoint, lock and I/O events
+ * of the same recording. Start a recording with e.g. <code>-XX:StartFlightRecording</code> in JAVA_OPTS.
+ *
+ * The event classes are only loaded once events are enabled and the JVM has Flight Recorder, so
+ * the client still runs on JVMs without it.
+ */
+public final class FlightRecorderEvents {
+  /**
+   * Whether to emit events.
+   */
+  public static final String EVENTS_PROPERTY = "jfr.events";
+  public static final String EVENTS_PROPERTY_DEFAULT = "false";
+
+  /**
+   * Only emit operations that took at least this long, in us.
+   */
+  public static final String THRESHOLD_PROPERTY = "jfr.threshold";
+  public static final String THRESHOLD_PROPERTY_DEFAULT = "0";
+
+  /**
+   * Emit one in this many of the operations above the threshold, picked at random.
+   */
+  public static final String SAMPLE_PROPERTY = "jfr.sample";
+  public static final String SAMPLE_PROPERTY_DEFAULT = "1";
+
+  private static final AtomicBoolean WARNED = new AtomicBoolean(false);
+
+  private static volatile boolean phases;
+
+  private final long thresholdNanos;
+  private final int sample;
+
+  /**
+   * The type of the operation events, enabled while a recording that records them is running.
+   */
+  private final EventType operations;
+
+  /**
+   * Whether the thread issuing operations has begun the operation in progress.
+   */
+  private boolean begun;
+
+  /**
+   * The event of the operation in progress on the thread issuing operations, if begun and it may be emitted.
+   */
+  private OperationEvent pending;
+
+  private FlightRecorderEvents(long thresholdNanos, int sample) {
+    this.thresholdNanos = thresholdNanos;
+    this.sample = sample;
+    operations = EventType.getEventType(OperationEvent.class);
+  }
+
+  /**
+   * @return Whether events are enabled and this JVM has Flight Recorder, warning once if it hasn't.
+   */
+  private static boolean isEnabled(Properties props) {
+    if (!Boolean.parseBoolean(props.getProperty(EVENTS_PROPERTY, EVENTS_PROPERTY_DEFAULT))) {
+      return false;
+    }
+    try {
+      Class.forName("jdk.jfr.Event");
+      return true;
+    } catch (ClassNotFoundException e) {
+      if (WARNED.compareAndSet(false, true)) {
+        System.err.println("WARNING: this JVM has no Flight Recorder, " + EVENTS_PROPERTY + " has no effect.");
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Turn the events of the client phases on or off.
+   */
+  public static void configure(Properties props) {
+    phases = isEnabled(props);
+  }
+
+  /**
+   * Create the operation events of a DB instance.
+   *
+   * @return The events, or null if events are disabled.
+   * @throws IllegalArgumentException if the threshold or sampling is invalid.
+   */
+  public static FlightRecorderEvents forOperations(Properties props) {
+    if (!isEnabled(props)) {
+      return null;
+    }
+    long threshold = Long.parseLong(props.getProperty(THRESHOLD_PROPERTY, THRESHOLD_PROPERTY_DEFAULT));
+    int sample = Integer.parseInt(props.getProperty(SAMPLE_PROPERTY, SAMPLE_PROPERTY_DEFAULT));
+    if (threshold < 0 || sample < 1) {
+      throw new IllegalArgumentException(THRESHOLD_PROPERTY + " must be at least 0 and " + SAMPLE_PROPERTY +
+          " at least 1");
+    }
+    return new FlightRecorderEvents(TimeUnit.MICROSECONDS.toNanos(threshold), sample);
+  }
+
+  /**
+   * Start the event of the next operation of the calling thread, so that it spans the operation in the
+   * recording. Operations completing on other threads are emitted without it, ending when they complete.
+   * Nothing is allocated for operations that are not sampled or while no recording records them.
+   */
+  public void begin() {
+    begun = true;
+    if (isSampled() && operations.isEnabled()) {
+      OperationEvent event = new OperationEvent();
+      event.begin();
+      pending = event;
+    }
+  }
+
+  private boolean isSampled() {
+    return sample == 1 || ThreadLocalRandom.current().nextInt(sample) == 0;
+  }
+
+  /**
+   * Emit the event of an operation that has completed, if it passes the threshold and is sampled.
+   *
+   * @param op The operation.
+   * @param table The table.
+   * @param key The key, or the first key of a scan.
+   * @param status The status of the operation.
+   * @param latencyNanos Its latency.
+   */
+  public void commit(Workload.Operation op, String table, String key, Status status, long latencyNanos) {
+    OperationEvent event = pending;
+    boolean skipped = begun && event == null;
+    pending = null;
+    begun = false;
+    if (skipped || latencyNanos < thresholdNanos) {
+      return;
+    }
+    if (event == null) {
+      if (!isSampled() || !operations.isEnabled()) {
+        return;
+      }
+      event = new OperationEvent();
+    }
+    if (event.shouldCommit()) {
+      event.set(op.name(), table, key, status.getName(), latencyNanos);
+      event.commit();
+    }
+  }
+
+  /**
+   * Start the event of a phase of the client.
+   *
+   * @param name The phase.
+   * @return The event, or null if events are disabled.
+   */
+  public static PhaseEvent beginPhase(String name) {
+    if (!phases) {
+      return null;
+    }
+    PhaseEvent event = new PhaseEvent(name);
+    event.begin();
+    return event;
+  }
+
+  /**
+   * End the event of a phase of the client.
+   *
+   * @param event The event returned by {@link #beginPhase(String)}, or null.
+   */
+  public static void endPhase(PhaseEvent event) {
+    if (event != null) {
+      event.commit();
+    }
+  }
+}
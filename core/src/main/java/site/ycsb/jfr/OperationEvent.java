@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A database operation, from the moment the client issued it until it completed.
+ */
+@Name("site.ycsb.Operation")
+@Label("YCSB Operation")
+@Category("YCSB")
+@Description("A database operation issued by a YCSB client thread")
+@StackTrace(false)
+final class OperationEvent extends Event {
+  @Label("Operation")
+  private String operation;
+
+  @Label("Table")
+  private String table;
+
+  @Label("Status")
+  private String status;
+
+  @Label("Key Hash")
+  @Description("The hash code of the key, or of the first key of a scan")
+  private int keyHash;
+
+  @Label("Latency")
+  @Description("The latency as measured by YCSB")
+  @Timespan(Timespan.NANOSECONDS)
+  private long latency;
+
+  void set(String operationName, String tableName, String key, String statusName, long latencyNanos) {
+    this.operation = operationName;
+    this.table = tableName;
+    this.status = statusName;
+    this.keyHash = key == null ? 0 : key.hashCode();
+    this.latency = latencyNanos;
+  }
+}
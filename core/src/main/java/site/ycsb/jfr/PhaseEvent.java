@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A phase of the client: init, load or run, cleanup and export.
+ */
+@Name("site.ycsb.Phase")
+@Label("YCSB Phase")
+@Category("YCSB")
+@Description("A phase of the YCSB client")
+@StackTrace(false)
+public final class PhaseEvent extends Event {
+  @Label("Phase")
+  private String phase;
+
+  PhaseEvent(String phase) {
+    this.phase = phase;
+  }
+}
@@ -18,11 +18,16 @@
 package site.ycsb.measurements;
 
 import site.ycsb.Status;
+import site.ycsb.Workload;
 import site.ycsb.measurements.exporter.MeasurementsExporter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Collects latency measurements, and reports them when requested.
@@ -36,8 +41,10 @@ public class Measurements {
     HDRHISTOGRAM,
     HDRHISTOGRAM_AND_HISTOGRAM,
     HDRHISTOGRAM_AND_RAW,
+    HDRHISTOGRAM_AND_RAW_BINARY,
     TIMESERIES,
-    RAW
+    RAW,
+    RAW_BINARY
   }
 
   public static final String MEASUREMENT_TYPE_PROPERTY = "measurementtype";
@@ -49,6 +56,29 @@ public class Measurements {
   public static final String MEASUREMENT_TRACK_JVM_PROPERTY = "measurement.trackjvm";
   public static final String MEASUREMENT_TRACK_JVM_PROPERTY_DEFAULT = "false";
 
+  /**
+   * The unit the HdrHistogram measurement types record latencies in: us, or ns for engines whose
+   * operations take only a few microseconds. The other measurement types always use us.
+   */
+  public static final String MEASUREMENT_UNIT_PROPERTY = "measurement.unit";
+  public static final String MEASUREMENT_UNIT_PROPERTY_DEFAULT = "us";
+
+  /**
+   * Whether to break the latency of operations down into the time the workload spends generating them
+   * (GENERATE), the time the binding spends marshalling them (MARSHAL-op) and the time spent in the
+   * store (STORE-op), each measured on its own. Marshalling and store time need the binding to mark its
+   * calls into the store, see {@link site.ycsb.DB}. Not supported with asynchronous operations.
+   */
+  public static final String MEASUREMENT_BREAKDOWN_PROPERTY = "measurement.breakdown";
+  public static final String MEASUREMENT_BREAKDOWN_PROPERTY_DEFAULT = "false";
+
+  /**
+   * Whether to sample the CPU time and the bytes allocated by every client thread, and report them per
+   * operation in the status line and the export (CLIENT).
+   */
+  public static final String MEASUREMENT_TRACK_THREADS_PROPERTY = "measurement.trackthreads";
+  public static final String MEASUREMENT_TRACK_THREADS_PROPERTY_DEFAULT = "false";
+
   private static Measurements singleton = null;
   private static Properties measurementproperties = null;
 
@@ -66,20 +96,37 @@ public class Measurements {
     return singleton;
   }
 
-  private final ConcurrentHashMap<String, OneMeasurement> opToMesurementMap;
-  private final ConcurrentHashMap<String, OneMeasurement> opToIntendedMesurementMap;
+  private volatile ConcurrentHashMap<String, OneMeasurement> opToMesurementMap;
+  private volatile ConcurrentHashMap<String, OneMeasurement> opToIntendedMesurementMap;
+
+  /**
+   * The measurements of database operations by operation and status, as found in the maps above, so
+   * that the hot path does no hashing. See {@link #slot(Workload.Operation, Status)}.
+   */
+  private volatile AtomicReferenceArray<OneMeasurement> opSlots;
+  private volatile AtomicReferenceArray<OneMeasurement> opIntendedSlots;
+
+  private volatile boolean paused;
   private final MeasurementType measurementType;
   private final int measurementInterval;
   private final Properties props;
 
+  /**
+   * The slowest operations and outliers, if asked for, see {@link SlowOperations}.
+   */
+  private final SlowOperations slowOperations;
+
   /**
    * Create a new object with the specified properties.
    */
   public Measurements(Properties props) {
     opToMesurementMap = new ConcurrentHashMap<>();
     opToIntendedMesurementMap = new ConcurrentHashMap<>();
+    opSlots = newSlots();
+    opIntendedSlots = newSlots();
 
     this.props = props;
+    slowOperations = SlowOperations.create(props);
 
     String mTypeString = this.props.getProperty(MEASUREMENT_TYPE_PROPERTY, MEASUREMENT_TYPE_PROPERTY_DEFAULT);
     switch (mTypeString) {
@@ -95,12 +142,18 @@ public class Measurements {
     case "hdrhistogram+raw":
       measurementType = MeasurementType.HDRHISTOGRAM_AND_RAW;
       break;
+    case "hdrhistogram+rawbinary":
+      measurementType = MeasurementType.HDRHISTOGRAM_AND_RAW_BINARY;
+      break;
     case "timeseries":
       measurementType = MeasurementType.TIMESERIES;
       break;
     case "raw":
       measurementType = MeasurementType.RAW;
       break;
+    case "rawbinary":
+      measurementType = MeasurementType.RAW_BINARY;
+      break;
     default:
       throw new IllegalArgumentException("unknown " + MEASUREMENT_TYPE_PROPERTY + "=" + mTypeString);
     }
@@ -119,6 +172,23 @@ public class Measurements {
     default:
       throw new IllegalArgumentException("unknown " + MEASUREMENT_INTERVAL + "=" + mIntervalString);
     }
+
+    isNanos(this.props);
+  }
+
+  /**
+   * @return Whether the properties ask for latencies to be recorded in nanoseconds.
+   */
+  static boolean isNanos(Properties props) {
+    String unit = props.getProperty(MEASUREMENT_UNIT_PROPERTY, MEASUREMENT_UNIT_PROPERTY_DEFAULT);
+    switch (unit) {
+    case "us":
+      return false;
+    case "ns":
+      return true;
+    default:
+      throw new IllegalArgumentException("unknown " + MEASUREMENT_UNIT_PROPERTY + "=" + unit);
+    }
   }
 
   private OneMeasurement constructOneMeasurement(String name) {
@@ -135,10 +205,16 @@ public class Measurements {
       return new TwoInOneMeasurement(name,
           new OneMeasurementHdrHistogram("Hdr" + name, props),
           new OneMeasurementRaw("Raw" + name, props));
+    case HDRHISTOGRAM_AND_RAW_BINARY:
+      return new TwoInOneMeasurement(name,
+          new OneMeasurementHdrHistogram("Hdr" + name, props),
+          new OneMeasurementRawBinary(name, props));
     case TIMESERIES:
       return new OneMeasurementTimeSeries(name, props);
     case RAW:
       return new OneMeasurementRaw(name, props);
+    case RAW_BINARY:
+      return new OneMeasurementRawBinary(name, props);
     default:
       throw new AssertionError("Impossible to be here. Dead code reached. Bugs?");
     }
@@ -181,18 +257,10 @@ public class Measurements {
    * value.
    */
   public void measure(String operation, int latency) {
-    if (measurementInterval == 1) {
+    if (measurementInterval == 1 || paused) {
       return;
     }
-    try {
-      OneMeasurement m = getOpMeasurement(operation);
-      m.measure(latency);
-    } catch (java.lang.ArrayIndexOutOfBoundsException e) {
-      // This seems like a terribly hacky way to cover up for a bug in the measurement code
-      System.out.println("ERROR: java.lang.ArrayIndexOutOfBoundsException - ignoring and continuing");
-      e.printStackTrace();
-      e.printStackTrace(System.out);
-    }
+    record(getOpMeasurement(operation), latency);
   }
 
   /**
@@ -200,11 +268,122 @@ public class Measurements {
    * value.
    */
   public void measureIntended(String operation, int latency) {
-    if (measurementInterval == 0) {
+    if (measurementInterval == 0 || paused) {
+      return;
+    }
+    record(getOpIntendedMeasurement(operation), latency);
+  }
+
+  /**
+   * Report a single latency of a single metric in nanoseconds, which is recorded in the unit set by
+   * {@link #MEASUREMENT_UNIT_PROPERTY}.
+   */
+  public void measureNanos(String operation, long latencyNanos) {
+    if (measurementInterval == 1 || paused) {
+      return;
+    }
+    record(getOpMeasurement(operation), latencyNanos, null);
+  }
+
+  /**
+   * Report a single latency since the intended start time of a single metric in nanoseconds, which is
+   * recorded in the unit set by {@link #MEASUREMENT_UNIT_PROPERTY}.
+   */
+  public void measureIntendedNanos(String operation, long latencyNanos) {
+    if (measurementInterval == 0 || paused) {
+      return;
+    }
+    record(getOpIntendedMeasurement(operation), latencyNanos, null);
+  }
+
+  /**
+   * Measure a database operation and report its return code in one go, looking the measurements up
+   * by operation and status rather than by name. Statuses not defined by {@link Status} are looked
+   * up by name, as with {@link #measureNanos(String, long)} and {@link #reportStatus(String, Status)}.
+   *
+   * @param operation The operation.
+   * @param status The status it ended with.
+   * @param name The name of the measurement for the latency, e.g. READ-FAILED for a failed read.
+   *             Only used the first time the operation ends with the status.
+   * @param latencyNanos The latency in ns.
+   * @param intendedLatencyNanos The latency since the intended start time in ns.
+   */
+  public void measureNanos(Workload.Operation operation, Status status, String name, long latencyNanos,
+                           long intendedLatencyNanos) {
+    if (paused) {
+      return;
+    }
+    if (status.getOrdinal() < 0) {
+      measureNanos(name, latencyNanos);
+      measureIntendedNanos(name, intendedLatencyNanos);
+      reportStatus(operation.name(), status);
       return;
     }
+    int slot = slot(operation, status);
+    if (measurementInterval != 1) {
+      record(getOpMeasurement(opSlots, slot, name, false), latencyNanos, status);
+    }
+    if (measurementInterval != 0) {
+      record(getOpMeasurement(opIntendedSlots, slot, name, true), intendedLatencyNanos, status);
+    }
+    // return codes are counted with the operation rather than with a measurement for failures
+    int statusSlot = slot(operation, Status.OK);
+    OneMeasurement reported = measurementInterval == 1 ?
+        getOpMeasurement(opIntendedSlots, statusSlot, operation.name(), true) :
+        getOpMeasurement(opSlots, statusSlot, operation.name(), false);
+    reported.reportStatus(status);
+  }
+
+  /**
+   * Keep a database operation if it is among the slowest so far or an outlier, when asked to with
+   * {@link SlowOperations#COUNT_PROPERTY} or {@link SlowOperations#THRESHOLD_PROPERTY}.
+   *
+   * @param operation The operation.
+   * @param status The status it ended with.
+   * @param table The table.
+   * @param key The key, or the start key of a scan.
+   * @param intendedStartNanos When it was meant to start, by {@link System#nanoTime()}.
+   * @param startNanos When it started.
+   * @param endNanos When it ended.
+   */
+  public void measureSlowOperation(Workload.Operation operation, Status status, String table, String key,
+                                   long intendedStartNanos, long startNanos, long endNanos) {
+    if (slowOperations == null || paused) {
+      return;
+    }
+    slowOperations.record(operation, status, table, key, intendedStartNanos, startNanos, endNanos);
+  }
+
+  /**
+   * Get the recorder of slow operations of the calling thread, for a database wrapper whose operations
+   * complete on other threads, so they are still recorded with the thread that issued them.
+   *
+   * @return The recorder, or null if no slow operations are kept.
+   */
+  public SlowOperations.Recorder getSlowOperationsRecorder() {
+    return slowOperations == null ? null : slowOperations.recorder();
+  }
+
+  private static AtomicReferenceArray<OneMeasurement> newSlots() {
+    return new AtomicReferenceArray<>(Workload.Operation.values().length * Status.getPredefinedCount());
+  }
+
+  private static int slot(Workload.Operation operation, Status status) {
+    return operation.ordinal() * Status.getPredefinedCount() + status.getOrdinal();
+  }
+
+  private OneMeasurement getOpMeasurement(AtomicReferenceArray<OneMeasurement> slots, int slot, String name,
+                                          boolean intended) {
+    OneMeasurement m = slots.get(slot);
+    if (m == null) {
+      m = intended ? getOpIntendedMeasurement(name) : getOpMeasurement(name);
+      slots.set(slot, m);
+    }
+    return m;
+  }
+
+  private static void record(OneMeasurement m, int latency) {
     try {
-      OneMeasurement m = getOpIntendedMeasurement(operation);
       m.measure(latency);
     } catch (java.lang.ArrayIndexOutOfBoundsException e) {
       // This seems like a terribly hacky way to cover up for a bug in the measurement code
@@ -214,6 +393,17 @@ public class Measurements {
     }
   }
 
+  private static void record(OneMeasurement m, long latencyNanos, Status status) {
+    try {
+      m.measureNanos(latencyNanos, status);
+    } catch (java.lang.ArrayIndexOutOfBoundsException e) {
+      // This seems like a terribly hacky way to cover up for a bug in the measurement code
+      System.out.println("ERROR: java.lang.ArrayIndexOutOfBoundsException - ignoring and continuing");
+      e.printStackTrace();
+      e.printStackTrace(System.out);
+    }
+  }
+
   private OneMeasurement getOpMeasurement(String operation) {
     OneMeasurement m = opToMesurementMap.get(operation);
     if (m == null) {
@@ -243,12 +433,42 @@ public class Measurements {
    * Report a return code for a single DB operation.
    */
   public void reportStatus(final String operation, final Status status) {
+    if (paused) {
+      return;
+    }
     OneMeasurement m = measurementInterval == 1 ?
         getOpIntendedMeasurement(operation) :
         getOpMeasurement(operation);
     m.reportStatus(status);
   }
 
+  /**
+   * Discard everything measured so far, e.g. at the end of a warmup phase, and resume measuring.
+   */
+  public synchronized void reset() {
+    // the maps go first, so a thread that sees the new slots fills them from the new maps
+    opToMesurementMap = new ConcurrentHashMap<>();
+    opToIntendedMesurementMap = new ConcurrentHashMap<>();
+    opSlots = newSlots();
+    opIntendedSlots = newSlots();
+    RawLog.resetAll();
+    if (slowOperations != null) {
+      slowOperations.reset();
+    }
+    paused = false;
+  }
+
+  /**
+   * Stop or resume recording. While paused, measurements and return codes are dropped, so phases
+   * that should not count towards the results (such as a cooldown) leave the totals untouched.
+   */
+  public void setPaused(boolean pause) {
+    paused = pause;
+    if (slowOperations != null) {
+      slowOperations.setPaused(pause);
+    }
+  }
+
   /**
    * Export the current measurements to a suitable format.
    *
@@ -262,12 +482,28 @@ public class Measurements {
     for (OneMeasurement measurement : opToIntendedMesurementMap.values()) {
       measurement.exportMeasurements(exporter);
     }
+    if (slowOperations != null) {
+      exporter.write("SLOWOPS", "Outliers", slowOperations.dump());
+    }
+  }
+
+  /**
+   * @return All measurements, of actual and intended latencies alike.
+   */
+  synchronized List<OneMeasurement> getAllMeasurements() {
+    List<OneMeasurement> all = new ArrayList<>(opToMesurementMap.values());
+    all.addAll(opToIntendedMesurementMap.values());
+    return all;
   }
 
   /**
    * Return a one line summary of the measurements.
    */
   public synchronized String getSummary() {
+    // the status summary ends an interval, for the outliers too
+    if (slowOperations != null) {
+      slowOperations.nextInterval();
+    }
     String ret = "";
     for (OneMeasurement m : opToMesurementMap.values()) {
       ret += m.getSummary() + " ";
@@ -278,4 +514,90 @@ public class Measurements {
     return ret;
   }
 
+  /**
+   * Return the worst latency at the given percentile among the database operations measured since the
+   * last {@link #reset()}, with the intended latencies taken into account when they are measured.
+   *
+   * @param percentile The percentile, e.g. 99.
+   * @return The latency in us, or -1 if no database operation was measured or the measurement type can't tell.
+   */
+  public synchronized long getWorstPercentileLatency(double percentile) {
+    long worst = 0;
+    boolean measured = false;
+    for (Map.Entry<String, OneMeasurement> entry : opToMesurementMap.entrySet()) {
+      measured |= entry.getValue().hasReturnCodes();
+      worst = worstOf(worst, entry.getValue(), opToIntendedMesurementMap.get(entry.getKey()), percentile);
+    }
+    for (OneMeasurement m : opToIntendedMesurementMap.values()) {
+      // only the intended latencies are measured, so they have the return codes
+      measured |= m.hasReturnCodes();
+      worst = worstOf(worst, m, null, percentile);
+    }
+    return measured ? worst : -1;
+  }
+
+  private static long worstOf(long worst, OneMeasurement m, OneMeasurement intended, double percentile) {
+    if (!m.hasReturnCodes()) {
+      // not a database operation, or the intended twin of one, which is looked at with the operation
+      return worst;
+    }
+    long latency = m.getPercentileLatency(percentile);
+    if (intended != null) {
+      long intendedLatency = intended.getPercentileLatency(percentile);
+      latency = latency < 0 || intendedLatency < 0 ? -1 : Math.max(latency, intendedLatency);
+    }
+    return worst < 0 || latency < 0 ? -1 : Math.max(worst, latency);
+  }
+
+  /**
+   * Export the statistics of the interval collected by the latest {@link #getSummary()} call.
+   *
+   * @param exporter Exporter representing the type of format to write to.
+   * @throws IOException Thrown if the export failed.
+   */
+  public synchronized void exportIntervalMeasurements(MeasurementsExporter exporter) throws IOException {
+    for (OneMeasurement measurement : opToMesurementMap.values()) {
+      measurement.exportIntervalMeasurements(exporter);
+    }
+    for (OneMeasurement measurement : opToIntendedMesurementMap.values()) {
+      measurement.exportIntervalMeasurements(exporter);
+    }
+  }
+
+  /**
+   * Export the number of times each return code was reported so far.
+   *
+   * @param exporter Exporter representing the type of format to write to.
+   * @throws IOException Thrown if the export failed.
+   */
+  public synchronized void exportStatusCounts(MeasurementsExporter exporter) throws IOException {
+    for (OneMeasurement measurement : opToMesurementMap.values()) {
+      measurement.exportStatusCounts(exporter);
+    }
+    for (OneMeasurement measurement : opToIntendedMesurementMap.values()) {
+      measurement.exportStatusCounts(exporter);
+    }
+  }
+
+  /**
+   * Return a one line summary of the measurements since the previous step, and start a new step.
+   */
+  public synchronized String getStepSummary() {
+    StringBuilder ret = new StringBuilder();
+    for (OneMeasurement m : opToMesurementMap.values()) {
+      appendStepSummary(ret, m);
+    }
+    for (OneMeasurement m : opToIntendedMesurementMap.values()) {
+      appendStepSummary(ret, m);
+    }
+    return ret.toString();
+  }
+
+  private static void appendStepSummary(StringBuilder ret, OneMeasurement m) {
+    String summary = m.getStepSummary();
+    if (!summary.isEmpty()) {
+      ret.append(summary).append(' ');
+    }
+  }
+
 }
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.measurements;
+
+import site.ycsb.Status;
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+import org.HdrHistogram.Histogram;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The HdrHistogram measurements of several client processes, merged into exact totals.
+ *
+ * Each process writes the total histogram and the return codes of every operation with
+ * {@link #writeMeasurements(DataOutputStream)}; the histograms are added up bucket by bucket, so the
+ * exported percentiles are those of all operations together rather than an average of percentiles.
+ */
+public class MergedMeasurements {
+  private final Map<String, Histogram> histograms = new TreeMap<>();
+  private final Map<String, Map<String, Long>> returncodes = new TreeMap<>();
+  private final List<Double> percentiles;
+  private final boolean verbose;
+  private final String unit;
+
+  public MergedMeasurements(Properties props) {
+    percentiles = OneMeasurementHdrHistogram.getPercentileValues(props.getProperty(
+        OneMeasurementHdrHistogram.PERCENTILES_PROPERTY, OneMeasurementHdrHistogram.PERCENTILES_PROPERTY_DEFAULT));
+    verbose = Boolean.valueOf(props.getProperty(OneMeasurementHdrHistogram.VERBOSE_PROPERTY, String.valueOf(false)));
+    unit = Measurements.isNanos(props) ? "ns" : "us";
+  }
+
+  /**
+   * Write the measurements of this process.
+   *
+   * @param out The stream to write to.
+   * @throws IOException if writing failed, or a measurement doesn't keep a HdrHistogram.
+   */
+  public static void writeMeasurements(DataOutputStream out) throws IOException {
+    List<OneMeasurement> measurements = Measurements.getMeasurements().getAllMeasurements();
+    out.writeInt(measurements.size());
+    for (OneMeasurement measurement : measurements) {
+      Histogram histogram = measurement.getTotalHistogram();
+      if (histogram == null) {
+        throw new IOException("Measurement " + measurement.getName() + " does not keep a HdrHistogram");
+      }
+      ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+      int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+      out.writeUTF(measurement.getName());
+      out.writeInt(length);
+      out.write(buffer.array(), 0, length);
+
+      Map<Status, LongAdder> codes = measurement.getReturnCodes();
+      out.writeInt(codes.size());
+      for (Map.Entry<Status, LongAdder> code : codes.entrySet()) {
+        out.writeUTF(code.getKey().getName());
+        out.writeLong(code.getValue().sum());
+      }
+    }
+  }
+
+  /**
+   * Read the measurements of one process and add them to the totals.
+   *
+   * @param in The stream to read from.
+   * @throws IOException if reading failed.
+   */
+  public synchronized void merge(DataInputStream in) throws IOException {
+    int count = in.readInt();
+    for (int i = 0; i < count; i++) {
+      String name = in.readUTF();
+      byte[] encoded = new byte[in.readInt()];
+      in.readFully(encoded);
+      try {
+        Histogram histogram = Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(encoded), 0);
+        histograms.computeIfAbsent(name, n -> new Histogram(3)).add(histogram);
+      } catch (DataFormatException e) {
+        throw new IOException("Corrupt histogram for " + name, e);
+      }
+
+      Map<String, Long> codes = returncodes.computeIfAbsent(name, n -> new TreeMap<>());
+      int codeCount = in.readInt();
+      for (int j = 0; j < codeCount; j++) {
+        codes.merge(in.readUTF(), in.readLong(), Long::sum);
+      }
+    }
+  }
+
+  /**
+   * Export the merged measurements in the same form as a single {@link OneMeasurementHdrHistogram}.
+   *
+   * @param exporter Exporter representing the type of format to write to.
+   * @throws IOException Thrown if the export failed.
+   */
+  public synchronized void exportMeasurements(MeasurementsExporter exporter) throws IOException {
+    for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+      String name = entry.getKey();
+      OneMeasurementHdrHistogram.exportHistogram(exporter, name, entry.getValue(), percentiles, unit);
+      for (Map.Entry<String, Long> code : returncodes.get(name).entrySet()) {
+        exporter.write(name, "Return=" + code.getKey(), code.getValue());
+      }
+      if (verbose) {
+        OneMeasurementHdrHistogram.exportBuckets(exporter, name, entry.getValue());
+      }
+    }
+  }
+}
@@ -19,11 +19,13 @@ package site.ycsb.measurements;
 
 import site.ycsb.Status;
 import site.ycsb.measurements.exporter.MeasurementsExporter;
+import org.HdrHistogram.Histogram;
 
 import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A single measured metric (such as READ LATENCY).
@@ -31,7 +33,13 @@ import java.util.concurrent.atomic.AtomicInteger;
 public abstract class OneMeasurement {
 
   private final String name;
-  private final ConcurrentHashMap<Status, AtomicInteger> returncodes;
+  private final ConcurrentHashMap<Status, LongAdder> returncodes;
+
+  /**
+   * The counters of {@link #returncodes} for the statuses defined by {@link Status}, indexed by
+   * their ordinal so that reporting them needs no hashing.
+   */
+  private final AtomicReferenceArray<LongAdder> predefinedcodes;
 
   public String getName() {
     return name;
@@ -43,27 +51,108 @@ public abstract class OneMeasurement {
   public OneMeasurement(String name) {
     this.name = name;
     this.returncodes = new ConcurrentHashMap<>();
+    this.predefinedcodes = new AtomicReferenceArray<>(Status.getPredefinedCount());
   }
 
   public abstract void measure(int latency);
 
+  /**
+   * Measure a database operation that ended with the given status. Measurement types that record
+   * every operation individually override this to keep the status with the latency; the status is
+   * reported separately through {@link #reportStatus(Status)} either way.
+   */
+  public void measure(int latency, Status status) {
+    measure(latency);
+  }
+
+  /**
+   * Measure a latency given in nanoseconds. Measurement types that can keep nanosecond precision
+   * override this; the others record it in microseconds, as {@link #measure(int, Status)} would.
+   *
+   * @param latencyNanos The latency in ns.
+   * @param status The status the operation ended with, or null if it isn't a database operation.
+   */
+  public void measureNanos(long latencyNanos, Status status) {
+    int latency = (int) (latencyNanos / 1000);
+    if (status == null) {
+      measure(latency);
+    } else {
+      measure(latency, status);
+    }
+  }
+
   public abstract String getSummary();
 
+  /**
+   * Return a summary of everything measured since the previous call, e.g. over one step of a target
+   * schedule, and start a new step. Only operations already collected by {@link #getSummary()} are
+   * included. Measurement types that don't keep step statistics return an empty string.
+   */
+  public String getStepSummary() {
+    return "";
+  }
+
+  /**
+   * Export the statistics of the interval collected by the latest {@link #getSummary()} call, so the
+   * status thread can write a time series of them. Measurement types that don't keep interval
+   * statistics export nothing.
+   *
+   * @param exporter Exporter representing the type of format to write to.
+   * @throws IOException Thrown if the export failed.
+   */
+  public void exportIntervalMeasurements(MeasurementsExporter exporter) throws IOException {
+  }
+
+  /**
+   * Return the latency at the given percentile over everything measured so far, in us whatever unit
+   * the measurement records in. Measurement types that can't tell return -1.
+   *
+   * @param percentile The percentile, e.g. 99.9.
+   */
+  public long getPercentileLatency(double percentile) {
+    return -1;
+  }
+
+  /**
+   * @return Whether any return code has been reported, i.e. this measures database operations.
+   */
+  boolean hasReturnCodes() {
+    return !returncodes.isEmpty();
+  }
+
+  /**
+   * @return The number of times each return code was reported.
+   */
+  Map<Status, LongAdder> getReturnCodes() {
+    return returncodes;
+  }
+
+  /**
+   * @return Everything measured so far as a HdrHistogram, or null if this measurement type doesn't keep one.
+   */
+  Histogram getTotalHistogram() {
+    return null;
+  }
+
   /**
    * No need for synchronization, using CHM to deal with that.
    */
   public void reportStatus(Status status) {
-    AtomicInteger counter = returncodes.get(status);
+    int ordinal = status.getOrdinal();
+    LongAdder counter = ordinal >= 0 ? predefinedcodes.get(ordinal) : returncodes.get(status);
 
     if (counter == null) {
-      counter = new AtomicInteger();
-      AtomicInteger other = returncodes.putIfAbsent(status, counter);
+      counter = new LongAdder();
+      LongAdder other = returncodes.putIfAbsent(status, counter);
       if (other != null) {
         counter = other;
       }
+      if (ordinal >= 0) {
+        predefinedcodes.set(ordinal, counter);
+      }
     }
 
-    counter.incrementAndGet();
+    counter.increment();
   }
 
   /**
@@ -75,8 +164,8 @@ public abstract class OneMeasurement {
   public abstract void exportMeasurements(MeasurementsExporter exporter) throws IOException;
 
   protected final void exportStatusCounts(MeasurementsExporter exporter) throws IOException {
-    for (Map.Entry<Status, AtomicInteger> entry : returncodes.entrySet()) {
-      exporter.write(getName(), "Return=" + entry.getKey().getName(), entry.getValue().get());
+    for (Map.Entry<Status, LongAdder> entry : getReturnCodes().entrySet()) {
+      exporter.write(getName(), "Return=" + entry.getKey().getName(), entry.getValue().sum());
     }
   }
 }
@@ -17,6 +17,7 @@
 
 package site.ycsb.measurements;
 
+import site.ycsb.Status;
 import site.ycsb.measurements.exporter.MeasurementsExporter;
 import org.HdrHistogram.Histogram;
 import org.HdrHistogram.HistogramIterationValue;
@@ -44,6 +45,18 @@ public class OneMeasurementHdrHistogram extends OneMeasurement {
 
   private final Recorder histogram;
   private Histogram totalHistogram;
+  private Histogram stepHistogram;
+
+  /**
+   * What was collected since the latest {@link #getSummary()} call, which is the next interval, so that
+   * looking at the totals in between doesn't take values away from the interval.
+   */
+  private Histogram pendingHistogram;
+
+  /**
+   * The interval collected by the latest {@link #getSummary()} call, for the interval export.
+   */
+  private Histogram lastIntervalHistogram;
 
   /**
    * The name of the property for deciding what percentile values to output.
@@ -67,10 +80,21 @@ public class OneMeasurementHdrHistogram extends OneMeasurement {
   
   private final List<Double> percentiles;
 
+  /**
+   * The percentiles written for every interval by the interval export.
+   */
+  private static final double[] INTERVAL_PERCENTILES = {50, 90, 99, 99.9};
+
+  /**
+   * Whether latencies are recorded in ns rather than us, see {@link Measurements#MEASUREMENT_UNIT_PROPERTY}.
+   */
+  private final boolean nanos;
+
   public OneMeasurementHdrHistogram(String name, Properties props) {
     super(name);
     percentiles = getPercentileValues(props.getProperty(PERCENTILES_PROPERTY, PERCENTILES_PROPERTY_DEFAULT));
     verbose = Boolean.valueOf(props.getProperty(VERBOSE_PROPERTY, String.valueOf(false)));
+    nanos = Measurements.isNanos(props);
     boolean shouldLog = Boolean.parseBoolean(props.getProperty("hdrhistogram.fileoutput", "false"));
     if (!shouldLog) {
       log = null;
@@ -90,15 +114,23 @@ public class OneMeasurementHdrHistogram extends OneMeasurement {
       histogramLogWriter.setBaseTime(now);
       histogramLogWriter.outputLegend();
     }
+    // auto-resizing, so the range grows to the largest latency seen: with 3 significant digits, latencies
+    // in ns take about twice the memory of latencies in us, and no outlier is out of range
     histogram = new Recorder(3);
   }
 
   /**
-   * It appears latency is reported in micros.
+   * Record a value as it is: a latency in the unit of this histogram, or a value that isn't a latency,
+   * such as the JVM statistics.
    * Using {@link Recorder} to support concurrent updates to histogram.
    */
-  public void measure(int latencyInMicros) {
-    histogram.recordValue(latencyInMicros);
+  public void measure(int value) {
+    histogram.recordValue(value);
+  }
+
+  @Override
+  public void measureNanos(long latencyNanos, Status status) {
+    histogram.recordValue(nanos ? latencyNanos : latencyNanos / 1000);
   }
 
   /**
@@ -107,36 +139,44 @@ public class OneMeasurementHdrHistogram extends OneMeasurement {
   @Override
   public void exportMeasurements(MeasurementsExporter exporter) throws IOException {
     // accumulate the last interval which was not caught by status thread
-    Histogram intervalHistogram = getIntervalHistogramAndAccumulate();
+    Histogram intervalHistogram = takeInterval();
     if (histogramLogWriter != null) {
       histogramLogWriter.outputIntervalHistogram(intervalHistogram);
       // we can close now
       log.close();
     }
-    exporter.write(getName(), "Operations", totalHistogram.getTotalCount());
-    exporter.write(getName(), "AverageLatency(us)", totalHistogram.getMean());
-    exporter.write(getName(), "MinLatency(us)", totalHistogram.getMinValue());
-    exporter.write(getName(), "MaxLatency(us)", totalHistogram.getMaxValue());
-
-    for (Double percentile : percentiles) {
-      exporter.write(getName(), ordinal(percentile) + "PercentileLatency(us)",
-          totalHistogram.getValueAtPercentile(percentile));
-    }
+    exportHistogram(exporter, getName(), totalHistogram, percentiles, nanos ? "ns" : "us");
 
     exportStatusCounts(exporter);
 
     // also export totalHistogram
     if (verbose) {
-      for (HistogramIterationValue v : totalHistogram.recordedValues()) {
-        int value;
-        if (v.getValueIteratedTo() > (long)Integer.MAX_VALUE) {
-          value = Integer.MAX_VALUE;
-        } else {
-          value = (int)v.getValueIteratedTo();
-        }
-  
-        exporter.write(getName(), Integer.toString(value), (double)v.getCountAtValueIteratedTo());
-      }
+      exportBuckets(exporter, getName(), totalHistogram);
+    }
+  }
+
+  /**
+   * Write the summary statistics of a histogram of latencies.
+   */
+  static void exportHistogram(MeasurementsExporter exporter, String name, Histogram histogram,
+                              List<Double> percentiles, String unit) throws IOException {
+    exporter.write(name, "Operations", histogram.getTotalCount());
+    exporter.write(name, "AverageLatency(" + unit + ")", histogram.getMean());
+    exporter.write(name, "MinLatency(" + unit + ")", histogram.getMinValue());
+    exporter.write(name, "MaxLatency(" + unit + ")", histogram.getMaxValue());
+
+    for (Double percentile : percentiles) {
+      exporter.write(name, ordinal(percentile) + "PercentileLatency(" + unit + ")",
+          histogram.getValueAtPercentile(percentile));
+    }
+  }
+
+  /**
+   * Write the count of every recorded value of a histogram.
+   */
+  static void exportBuckets(MeasurementsExporter exporter, String name, Histogram histogram) throws IOException {
+    for (HistogramIterationValue v : histogram.recordedValues()) {
+      exporter.write(name, Long.toString(v.getValueIteratedTo()), (double)v.getCountAtValueIteratedTo());
     }
   }
 
@@ -149,7 +189,8 @@ public class OneMeasurementHdrHistogram extends OneMeasurement {
    */
   @Override
   public String getSummary() {
-    Histogram intervalHistogram = getIntervalHistogramAndAccumulate();
+    Histogram intervalHistogram = takeInterval();
+    lastIntervalHistogram = intervalHistogram;
     // we use the summary interval as the histogram file interval.
     if (histogramLogWriter != null) {
       histogramLogWriter.outputIntervalHistogram(intervalHistogram);
@@ -164,15 +205,110 @@ public class OneMeasurementHdrHistogram extends OneMeasurement {
         + d.format(intervalHistogram.getValueAtPercentile(99.99)) + "]";
   }
 
-  private Histogram getIntervalHistogramAndAccumulate() {
-    Histogram intervalHistogram = histogram.getIntervalHistogram();
+  /**
+   * Export the number of operations, the average and maximum latency and the latency percentiles of the
+   * interval collected by the latest status summary. Intervals without operations only export the count.
+   *
+   * @see site.ycsb.measurements.OneMeasurement#exportIntervalMeasurements(MeasurementsExporter)
+   */
+  @Override
+  public void exportIntervalMeasurements(MeasurementsExporter exporter) throws IOException {
+    Histogram interval = lastIntervalHistogram;
+    if (interval == null) {
+      return;
+    }
+    String unit = nanos ? "ns" : "us";
+    exporter.write(getName(), "Operations", interval.getTotalCount());
+    if (interval.getTotalCount() == 0) {
+      return;
+    }
+    exporter.write(getName(), "AverageLatency(" + unit + ")", interval.getMean());
+    for (double percentile : INTERVAL_PERCENTILES) {
+      exporter.write(getName(), ordinal(percentile) + "PercentileLatency(" + unit + ")",
+          interval.getValueAtPercentile(percentile));
+    }
+    exporter.write(getName(), "MaxLatency(" + unit + ")", interval.getMaxValue());
+  }
+
+  /**
+   * Summarize the intervals collected since the previous step, using the configured percentiles.
+   *
+   * @see site.ycsb.measurements.OneMeasurement#getStepSummary()
+   */
+  @Override
+  public String getStepSummary() {
+    Histogram step = stepHistogram;
+    stepHistogram = null;
+    if (step == null) {
+      return "[" + getName() + ": Count=0]";
+    }
+
+    DecimalFormat d = new DecimalFormat("#.##");
+    StringBuilder summary = new StringBuilder("[").append(getName())
+        .append(": Count=").append(step.getTotalCount())
+        .append(", Max=").append(step.getMaxValue())
+        .append(", Min=").append(step.getMinValue())
+        .append(", Avg=").append(d.format(step.getMean()));
+    for (Double percentile : percentiles) {
+      summary.append(", ").append(d.format(percentile)).append("=")
+          .append(d.format(step.getValueAtPercentile(percentile)));
+    }
+    return summary.append("]").toString();
+  }
+
+  /**
+   * Collects what was recorded so far into the totals, keeping it for the next status summary.
+   *
+   * @see site.ycsb.measurements.OneMeasurement#getPercentileLatency(double)
+   */
+  @Override
+  synchronized Histogram getTotalHistogram() {
+    collect();
+    return totalHistogram;
+  }
+
+  @Override
+  public synchronized long getPercentileLatency(double percentile) {
+    collect();
+    long latency = totalHistogram.getValueAtPercentile(percentile);
+    // rounded up, so a latency objective is never met by rounding
+    return nanos ? (latency + 999) / 1000 : latency;
+  }
+
+  /**
+   * @return The interval since the previous call, which is also added to the totals and the current step.
+   */
+  private synchronized Histogram takeInterval() {
+    collect();
+    Histogram intervalHistogram = pendingHistogram;
+    pendingHistogram = null;
+    return intervalHistogram;
+  }
+
+  /**
+   * Move what was recorded since the previous call to the totals, the current step and the pending interval.
+   */
+  private synchronized void collect() {
+    Histogram collected = histogram.getIntervalHistogram();
     // add this to the total time histogram.
     if (totalHistogram == null) {
-      totalHistogram = intervalHistogram;
+      totalHistogram = collected;
     } else {
-      totalHistogram.add(intervalHistogram);
+      totalHistogram.add(collected);
+    }
+    // and to the histogram of the current step and the pending interval, which must not share the
+    // total's counts.
+    if (stepHistogram == null) {
+      stepHistogram = collected.copy();
+    } else {
+      stepHistogram.add(collected);
+    }
+    if (pendingHistogram == null) {
+      pendingHistogram = collected.copy();
+    } else {
+      pendingHistogram.add(collected);
+      pendingHistogram.setEndTimeStamp(collected.getEndTimeStamp());
     }
-    return intervalHistogram;
   }
 
   /**
@@ -181,7 +317,7 @@ public class OneMeasurementHdrHistogram extends OneMeasurement {
    * @param percentileString - comma delimited string of Integer values
    * @return An Integer List of percentile values
    */
-  private List<Double> getPercentileValues(String percentileString) {
+  static List<Double> getPercentileValues(String percentileString) {
     List<Double> percentileValues = new ArrayList<>();
 
     try {
@@ -205,7 +341,7 @@ public class OneMeasurementHdrHistogram extends OneMeasurement {
    * @param i number
    * @return ordinal string
    */
-  private String ordinal(Double i) {
+  private static String ordinal(Double i) {
     String[] suffixes = new String[]{"th", "st", "nd", "rd", "th", "th", "th", "th", "th", "th"};
     Integer j = i.intValue();
     if (i % 1 == 0) {
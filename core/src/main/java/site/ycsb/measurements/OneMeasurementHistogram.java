@@ -26,6 +26,7 @@ import java.util.Properties;
 /**
  * Take measurements and maintain a histogram of a given metric, such as READ LATENCY.
  *
+ * Threads record into stripes that are merged when the histogram is summarized or exported.
  */
 public class OneMeasurementHistogram extends OneMeasurement {
   public static final String BUCKETS = "histogram.buckets";
@@ -38,94 +39,125 @@ public class OneMeasurementHistogram extends OneMeasurement {
   private final int buckets;
 
   /**
-   * Groups operations in discrete blocks of 1ms width.
-   */
-  private long[] histogram;
-
-  /**
-   * Counts all operations outside the histogram's range.
-   */
-  private long histogramoverflow;
-
-  /**
-   * The total number of reported operations.
-   */
-  private long operations;
-
-  /**
-   * The sum of each latency measurement over all operations.
-   * Calculated in ms.
+   * Whether or not to emit the histogram buckets.
    */
-  private long totallatency;
+  private final boolean verbose;
 
   /**
-   * The sum of each latency measurement squared over all operations. 
-   * Used to calculate variance of latency.
-   * Calculated in ms. 
+   * The statistics recorded by one stripe of threads, merged when they are reported.
    */
-  private double totalsquaredlatency;
+  private static final class Stripe {
+    /**
+     * Groups operations in discrete blocks of 1ms width.
+     */
+    private final long[] histogram;
+
+    /**
+     * Counts all operations outside the histogram's range.
+     */
+    private long histogramoverflow;
+
+    /**
+     * The total number of reported operations.
+     */
+    private long operations;
+
+    /**
+     * The sum of each latency measurement over all operations.
+     * Calculated in ms.
+     */
+    private long totallatency;
+
+    /**
+     * The sum of each latency measurement squared over all operations.
+     * Used to calculate variance of latency.
+     * Calculated in ms.
+     */
+    private double totalsquaredlatency;
+
+    //keep a windowed version of these stats for printing status
+    private long windowoperations;
+    private long windowtotallatency;
+
+    private int min = -1;
+    private int max = -1;
+
+    Stripe(int buckets) {
+      histogram = new long[buckets];
+    }
 
-  /**
-   * Whether or not to emit the histogram buckets.
-   */
-  private final boolean verbose;
-  
-  //keep a windowed version of these stats for printing status
-  private long windowoperations;
-  private long windowtotallatency;
+    void add(Stripe other) {
+      for (int i = 0; i < histogram.length; i++) {
+        histogram[i] += other.histogram[i];
+      }
+      histogramoverflow += other.histogramoverflow;
+      operations += other.operations;
+      totallatency += other.totallatency;
+      totalsquaredlatency += other.totalsquaredlatency;
+      if (other.min >= 0 && (min < 0 || other.min < min)) {
+        min = other.min;
+      }
+      if (other.max >= 0 && (max < 0 || other.max > max)) {
+        max = other.max;
+      }
+    }
+  }
 
-  private int min;
-  private int max;
+  private final Striped<Stripe> stripes;
 
   public OneMeasurementHistogram(String name, Properties props) {
     super(name);
     buckets = Integer.parseInt(props.getProperty(BUCKETS, BUCKETS_DEFAULT));
     verbose = Boolean.valueOf(props.getProperty(VERBOSE_PROPERTY, String.valueOf(false)));
-    histogram = new long[buckets];
-    histogramoverflow = 0;
-    operations = 0;
-    totallatency = 0;
-    totalsquaredlatency = 0;
-    windowoperations = 0;
-    windowtotallatency = 0;
-    min = -1;
-    max = -1;
+    stripes = new Striped<>(() -> new Stripe(buckets));
   }
 
   /* (non-Javadoc)
    * @see site.ycsb.OneMeasurement#measure(int)
    */
-  public synchronized void measure(int latency) {
-    //latency reported in us and collected in bucket by ms.
-    if (latency / 1000 >= buckets) {
-      histogramoverflow++;
-    } else {
-      histogram[latency / 1000]++;
-    }
-    operations++;
-    totallatency += latency;
-    totalsquaredlatency += ((double) latency) * ((double) latency);
-    windowoperations++;
-    windowtotallatency += latency;
-
-    if ((min < 0) || (latency < min)) {
-      min = latency;
-    }
+  public void measure(int latency) {
+    Stripe stripe = stripes.get();
+    synchronized (stripe) {
+      //latency reported in us and collected in bucket by ms.
+      if (latency / 1000 >= buckets) {
+        stripe.histogramoverflow++;
+      } else {
+        stripe.histogram[latency / 1000]++;
+      }
+      stripe.operations++;
+      stripe.totallatency += latency;
+      stripe.totalsquaredlatency += ((double) latency) * ((double) latency);
+      stripe.windowoperations++;
+      stripe.windowtotallatency += latency;
+
+      if ((stripe.min < 0) || (latency < stripe.min)) {
+        stripe.min = latency;
+      }
 
-    if ((max < 0) || (latency > max)) {
-      max = latency;
+      if ((stripe.max < 0) || (latency > stripe.max)) {
+        stripe.max = latency;
+      }
     }
   }
 
   @Override
   public void exportMeasurements(MeasurementsExporter exporter) throws IOException {
-    double mean = totallatency / ((double) operations);
-    double variance = totalsquaredlatency / ((double) operations) - (mean * mean);
+    Stripe total = new Stripe(buckets);
+    for (Stripe stripe : stripes.all()) {
+      synchronized (stripe) {
+        total.add(stripe);
+      }
+    }
+    long operations = total.operations;
+    long[] histogram = total.histogram;
+
+    double mean = total.totallatency / ((double) operations);
+    double variance = total.totalsquaredlatency / ((double) operations) - (mean * mean);
     exporter.write(getName(), "Operations", operations);
     exporter.write(getName(), "AverageLatency(us)", mean);
     exporter.write(getName(), "LatencyVariance(us)", variance);
-    exporter.write(getName(), "MinLatency(us)", min);
-    exporter.write(getName(), "MaxLatency(us)", max);
+    exporter.write(getName(), "MinLatency(us)", total.min);
+    exporter.write(getName(), "MaxLatency(us)", total.max);
 
     long opcounter=0;
     boolean done95th = false;
@@ -148,19 +180,27 @@ public class OneMeasurementHistogram extends OneMeasurement {
         exporter.write(getName(), Integer.toString(i), histogram[i]);
       }
       
-      exporter.write(getName(), ">" + buckets, histogramoverflow);
+      exporter.write(getName(), ">" + buckets, total.histogramoverflow);
     }
   }
 
   @Override
   public String getSummary() {
+    long windowoperations = 0;
+    long windowtotallatency = 0;
+    for (Stripe stripe : stripes.all()) {
+      synchronized (stripe) {
+        windowoperations += stripe.windowoperations;
+        windowtotallatency += stripe.windowtotallatency;
+        stripe.windowoperations = 0;
+        stripe.windowtotallatency = 0;
+      }
+    }
     if (windowoperations == 0) {
       return "";
     }
     DecimalFormat d = new DecimalFormat("#.##");
     double report = ((double) windowtotallatency) / ((double) windowoperations);
-    windowtotallatency = 0;
-    windowoperations = 0;
     return "[" + getName() + " AverageLatency(us)=" + d.format(report) + "]";
   }
 }
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.measurements;
+
+import site.ycsb.Status;
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Record every measurement as a fixed-width binary record in a file shared by all operations,
+ * rather than keeping raw data points on the heap as {@link OneMeasurementRaw} does.
+ *
+ * Only the number of operations and the average latency are exported; use {@link RawLogReader} to
+ * compute percentiles or convert the file to CSV after the run, or combine this type with the
+ * HdrHistogram type (hdrhistogram+rawbinary) to also get percentiles right away.
+ */
+public class OneMeasurementRawBinary extends OneMeasurement {
+  /**
+   * The file the records are written to.
+   */
+  public static final String OUTPUT_FILE_PATH = "measurement.rawbinary.output_file";
+  public static final String OUTPUT_FILE_PATH_DEFAULT = "ycsb-raw.bin";
+
+  private final RawLog log;
+  private final short code;
+
+  private final LongAdder operations = new LongAdder();
+  private final LongAdder totalLatency = new LongAdder();
+
+  // A window of stats to print summary for at the next getSummary() call.
+  private final LongAdder windowOperations = new LongAdder();
+  private final LongAdder windowTotalLatency = new LongAdder();
+
+  public OneMeasurementRawBinary(String name, Properties props) {
+    super(name);
+    log = RawLog.open(props.getProperty(OUTPUT_FILE_PATH, OUTPUT_FILE_PATH_DEFAULT));
+    code = log.code(name);
+  }
+
+  @Override
+  public void measure(int latency) {
+    measure(latency, null);
+  }
+
+  @Override
+  public void measure(int latency, Status status) {
+    log.append(code, status == null ? -1 : status.getOrdinal(), latency);
+    operations.increment();
+    totalLatency.add(latency);
+    windowOperations.increment();
+    windowTotalLatency.add(latency);
+  }
+
+  @Override
+  public void exportMeasurements(MeasurementsExporter exporter) throws IOException {
+    log.flush();
+    long ops = operations.sum();
+    exporter.write(getName(), "Operations", ops);
+    exporter.write(getName(), "AverageLatency(us)", (double) totalLatency.sum() / (double) ops);
+    exportStatusCounts(exporter);
+  }
+
+  @Override
+  public String getSummary() {
+    long ops = windowOperations.sumThenReset();
+    long latency = windowTotalLatency.sumThenReset();
+    if (ops == 0) {
+      return "";
+    }
+    DecimalFormat d = new DecimalFormat("#.##");
+    return "[" + getName() + " AverageLatency(us)=" + d.format((double) latency / (double) ops) + "]";
+  }
+}
@@ -21,25 +21,16 @@ import site.ycsb.measurements.exporter.MeasurementsExporter;
 
 import java.io.IOException;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
-import java.util.Vector;
-
-class SeriesUnit {
-  /**
-   * @param time
-   * @param average
-   */
-  public SeriesUnit(long time, double average) {
-    this.time = time;
-    this.average = average;
-  }
-
-  protected final long time;
-  protected final double average;
-}
+import java.util.TreeMap;
 
 /**
  * A time series measurement of a metric, such as READ LATENCY.
+ *
+ * Threads record into stripes that are merged unit by unit when the series is exported.
  */
 public class OneMeasurementTimeSeries extends OneMeasurement {
 
@@ -50,73 +41,110 @@ public class OneMeasurementTimeSeries extends OneMeasurement {
   public static final String GRANULARITY_DEFAULT = "1000";
 
   private final int granularity;
-  private final Vector<SeriesUnit> measurements;
 
-  private long start = -1;
-  private long currentunit = -1;
-  private long count = 0;
-  private long sum = 0;
-  private long operations = 0;
-  private long totallatency = 0;
+  /**
+   * The statistics recorded by one stripe of threads, merged when they are reported.
+   */
+  private static final class Stripe {
+    /**
+     * The start, sum and count of every unit this stripe has completed.
+     */
+    private final List<long[]> units = new ArrayList<>();
+
+    private long currentunit = -1;
+    private long count = 0;
+    private long sum = 0;
+    private long operations = 0;
+    private long totallatency = 0;
+
+    //keep a windowed version of these stats for printing status
+    private int windowoperations = 0;
+    private long windowtotallatency = 0;
+
+    private int min = -1;
+    private int max = -1;
+  }
 
-  //keep a windowed version of these stats for printing status
-  private int windowoperations = 0;
-  private long windowtotallatency = 0;
+  private final Striped<Stripe> stripes = new Striped<>(Stripe::new);
 
-  private int min = -1;
-  private int max = -1;
+  /**
+   * The time of the first measurement, which the units of all stripes are counted from.
+   */
+  private volatile long start = -1;
 
   public OneMeasurementTimeSeries(String name, Properties props) {
     super(name);
     granularity = Integer.parseInt(props.getProperty(GRANULARITY, GRANULARITY_DEFAULT));
-    measurements = new Vector<>();
   }
 
-  private synchronized void checkEndOfUnit(boolean forceend) {
+  private long currentUnit() {
     long now = System.currentTimeMillis();
-
     if (start < 0) {
-      currentunit = 0;
-      start = now;
-    }
-
-    long unit = ((now - start) / granularity) * granularity;
-
-    if ((unit > currentunit) || (forceend)) {
-      double avg = ((double) sum) / ((double) count);
-      measurements.add(new SeriesUnit(currentunit, avg));
-
-      currentunit = unit;
-
-      count = 0;
-      sum = 0;
+      synchronized (this) {
+        if (start < 0) {
+          start = now;
+        }
+      }
     }
+    return ((now - start) / granularity) * granularity;
   }
 
   @Override
   public void measure(int latency) {
-    checkEndOfUnit(false);
-
-    count++;
-    sum += latency;
-    totallatency += latency;
-    operations++;
-    windowoperations++;
-    windowtotallatency += latency;
-
-    if (latency > max) {
-      max = latency;
-    }
-
-    if ((latency < min) || (min < 0)) {
-      min = latency;
+    long unit = currentUnit();
+    Stripe stripe = stripes.get();
+    synchronized (stripe) {
+      if (unit > stripe.currentunit) {
+        if (stripe.count > 0) {
+          stripe.units.add(new long[]{stripe.currentunit, stripe.sum, stripe.count});
+        }
+        stripe.currentunit = unit;
+        stripe.count = 0;
+        stripe.sum = 0;
+      }
+
+      stripe.count++;
+      stripe.sum += latency;
+      stripe.totallatency += latency;
+      stripe.operations++;
+      stripe.windowoperations++;
+      stripe.windowtotallatency += latency;
+
+      if (latency > stripe.max) {
+        stripe.max = latency;
+      }
+
+      if ((latency < stripe.min) || (stripe.min < 0)) {
+        stripe.min = latency;
+      }
     }
   }
 
 
   @Override
   public void exportMeasurements(MeasurementsExporter exporter) throws IOException {
-    checkEndOfUnit(true);
+    long operations = 0;
+    long totallatency = 0;
+    int min = -1;
+    int max = -1;
+    // the sum and count of each unit over all stripes
+    TreeMap<Long, long[]> units = new TreeMap<>();
+    for (Stripe stripe : stripes.all()) {
+      synchronized (stripe) {
+        operations += stripe.operations;
+        totallatency += stripe.totallatency;
+        if (stripe.min >= 0 && (min < 0 || stripe.min < min)) {
+          min = stripe.min;
+        }
+        max = Math.max(max, stripe.max);
+        for (long[] unit : stripe.units) {
+          addUnit(units, unit[0], unit[1], unit[2]);
+        }
+        if (stripe.count > 0) {
+          addUnit(units, stripe.currentunit, stripe.sum, stripe.count);
+        }
+      }
+    }
 
     exporter.write(getName(), "Operations", operations);
     exporter.write(getName(), "AverageLatency(us)", (((double) totallatency) / ((double) operations)));
@@ -126,20 +154,34 @@ public class OneMeasurementTimeSeries extends OneMeasurement {
     // TODO: 95th and 99th percentile latency
 
     exportStatusCounts(exporter);
-    for (SeriesUnit unit : measurements) {
-      exporter.write(getName(), Long.toString(unit.time), unit.average);
+    for (Map.Entry<Long, long[]> unit : units.entrySet()) {
+      exporter.write(getName(), Long.toString(unit.getKey()), ((double) unit.getValue()[0]) / unit.getValue()[1]);
     }
   }
 
+  private static void addUnit(TreeMap<Long, long[]> units, long time, long sum, long count) {
+    long[] total = units.computeIfAbsent(time, t -> new long[2]);
+    total[0] += sum;
+    total[1] += count;
+  }
+
   @Override
   public String getSummary() {
+    long windowoperations = 0;
+    long windowtotallatency = 0;
+    for (Stripe stripe : stripes.all()) {
+      synchronized (stripe) {
+        windowoperations += stripe.windowoperations;
+        windowtotallatency += stripe.windowtotallatency;
+        stripe.windowoperations = 0;
+        stripe.windowtotallatency = 0;
+      }
+    }
     if (windowoperations == 0) {
       return "";
     }
     DecimalFormat d = new DecimalFormat("#.##");
     double report = ((double) windowtotallatency) / ((double) windowoperations);
-    windowtotallatency = 0;
-    windowoperations = 0;
     return "[" + getName() + " AverageLatency(us)=" + d.format(report) + "]";
   }
 
@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.measurements;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A binary file of one fixed-width record per operation, written through a fixed set of heap
+ * buffers that threads are spread over, so that recording an operation does not allocate and
+ * rarely contends, and the memory used does not grow with the number of (possibly virtual) threads.
+ *
+ * The file starts with the 8 byte {@link #MAGIC}, followed by records of {@link #RECORD_SIZE}
+ * bytes, all big-endian:
+ * <UL>
+ * <LI>the start of the operation in nanoseconds since the epoch (long), worked out from the time it
+ * completed and its latency;
+ * <LI>the latency in microseconds (int);
+ * <LI>the operation, as an index into the name table (short);
+ * <LI>the status, as its {@link site.ycsb.Status#getOrdinal()}, or -1 if unknown (short).
+ * </UL>
+ * Each flush writes the name table after the records, followed by the offset the table starts at
+ * (long) and {@link #TRAILER_MAGIC} (int). Records written afterwards overwrite the table, which is
+ * written again on the next flush. Records of different threads are not in time order.
+ * {@link RawLogReader} reads the file.
+ */
+final class RawLog {
+  static final byte[] MAGIC = {'Y', 'C', 'S', 'B', 'R', 'A', 'W', 1};
+  static final int TRAILER_MAGIC = 0x59524157;
+  static final int RECORD_SIZE = 16;
+
+  /**
+   * The number of records each buffer holds before writing them out.
+   */
+  private static final int BUFFER_RECORDS = 4096;
+
+  /**
+   * The number of buffers the threads are spread over.
+   */
+  private static final int BUFFER_COUNT = 2 * Runtime.getRuntime().availableProcessors();
+
+  private static final Map<String, RawLog> LOGS = new HashMap<>();
+
+  private final String path;
+  private final FileChannel channel;
+
+  /**
+   * Guards {@link #end} and writes to {@link #channel}. Taken after the lock of a buffer, never before.
+   */
+  private final Object writeLock = new Object();
+
+  /**
+   * Where the next records go, which is also where the name table starts.
+   */
+  private long end;
+
+  private final Map<String, Integer> codes = new HashMap<>();
+  private final List<String> names = new ArrayList<>();
+
+  private final ByteBuffer[] buffers = new ByteBuffer[BUFFER_COUNT];
+
+  /**
+   * The difference between the epoch time in nanoseconds and {@link System#nanoTime()}.
+   */
+  private final long epochOffsetNanos;
+
+  private RawLog(String path) throws IOException {
+    this.path = path;
+    channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    for (int i = 0; i < buffers.length; i++) {
+      buffers[i] = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_SIZE);
+    }
+    channel.write(ByteBuffer.wrap(MAGIC));
+    end = MAGIC.length;
+    epochOffsetNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+  }
+
+  /**
+   * Get the log writing to the given file, creating it the first time.
+   *
+   * @param path The file.
+   * @return The log.
+   */
+  static RawLog open(String path) {
+    synchronized (LOGS) {
+      RawLog log = LOGS.get(path);
+      if (log == null) {
+        try {
+          log = new RawLog(path);
+          System.out.println("Raw data measurement: will output to binary file: " + path);
+        } catch (IOException e) {
+          throw new RuntimeException("Failed to open raw data output file " + path, e);
+        }
+        LOGS.put(path, log);
+      }
+      return log;
+    }
+  }
+
+  /**
+   * Discard the records of every open log, e.g. at the end of a warmup phase.
+   */
+  static void resetAll() {
+    synchronized (LOGS) {
+      for (RawLog log : LOGS.values()) {
+        log.reset();
+      }
+    }
+  }
+
+  /**
+   * @return The code of the operation with the given name, assigning one the first time.
+   */
+  synchronized short code(String name) {
+    Integer code = codes.get(name);
+    if (code == null) {
+      if (names.size() > Short.MAX_VALUE) {
+        throw new IllegalStateException("Too many operations in raw data output file " + path);
+      }
+      code = names.size();
+      codes.put(name, code);
+      names.add(name);
+    }
+    return code.shortValue();
+  }
+
+  /**
+   * Record an operation that has just completed.
+   *
+   * @param code The code of the operation.
+   * @param status The ordinal of its status, or -1.
+   * @param latency Its latency in microseconds.
+   */
+  void append(short code, int status, int latency) {
+    long startNanos = System.nanoTime() + epochOffsetNanos - TimeUnit.MICROSECONDS.toNanos(latency);
+    ByteBuffer buffer = buffers[(int) (Thread.currentThread().getId() % buffers.length)];
+    synchronized (buffer) {
+      buffer.putLong(startNanos).putInt(latency).putShort(code).putShort((short) status);
+      if (!buffer.hasRemaining()) {
+        write(buffer);
+      }
+    }
+  }
+
+  /**
+   * Write out a buffer, which the caller holds the lock of.
+   */
+  private void write(ByteBuffer buffer) {
+    buffer.flip();
+    try {
+      synchronized (writeLock) {
+        while (buffer.hasRemaining()) {
+          end += channel.write(buffer, end);
+        }
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Failed to write raw data output file " + path, e);
+    } finally {
+      buffer.clear();
+    }
+  }
+
+  /**
+   * Write out all buffers and the name table.
+   *
+   * @throws IOException if writing failed.
+   */
+  void flush() throws IOException {
+    for (ByteBuffer buffer : buffers) {
+      synchronized (buffer) {
+        write(buffer);
+      }
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream trailer = new DataOutputStream(bytes);
+    synchronized (this) {
+      trailer.writeInt(names.size());
+      for (String name : names) {
+        trailer.writeUTF(name);
+      }
+    }
+    synchronized (writeLock) {
+      trailer.writeLong(end);
+      trailer.writeInt(TRAILER_MAGIC);
+      ByteBuffer table = ByteBuffer.wrap(bytes.toByteArray());
+      long position = end;
+      while (table.hasRemaining()) {
+        position += channel.write(table, position);
+      }
+      channel.truncate(position);
+      channel.force(false);
+    }
+  }
+
+  private void reset() {
+    for (ByteBuffer buffer : buffers) {
+      synchronized (buffer) {
+        buffer.clear();
+      }
+    }
+    synchronized (writeLock) {
+      end = MAGIC.length;
+      try {
+        channel.truncate(end);
+      } catch (IOException e) {
+        throw new RuntimeException("Failed to truncate raw data output file " + path, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.measurements;
+
+import site.ycsb.Status;
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+import site.ycsb.measurements.exporter.TextMeasurementsExporter;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads the file written by the rawbinary measurement type, streaming through the records so that
+ * files of any size can be read with a small heap.
+ *
+ * Run as <code>java site.ycsb.measurements.RawLogReader file [csv]</code> to print the exact
+ * latency percentiles of every operation in the usual text format, or every record as CSV.
+ */
+public final class RawLogReader {
+  private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9, 99.99};
+
+  /**
+   * Receives the records of the file one by one.
+   */
+  public interface RecordVisitor {
+    void visit(long startNanos, int latency, int operation, int status) throws IOException;
+  }
+
+  private final String path;
+  private final List<String> names;
+  private final long records;
+
+  /**
+   * Open a file and read its name table. A file without one, e.g. of a client that was killed,
+   * can still be read; its operations are then named by their code.
+   *
+   * @param path The file.
+   * @throws IOException if the file can't be read or isn't a raw data file.
+   */
+  public RawLogReader(String path) throws IOException {
+    this.path = path;
+    try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+      byte[] magic = new byte[RawLog.MAGIC.length];
+      file.readFully(magic);
+      if (!Arrays.equals(magic, RawLog.MAGIC)) {
+        throw new IOException(path + " is not a raw data file");
+      }
+
+      long end = file.length();
+      List<String> table = new ArrayList<>();
+      if (file.length() >= RawLog.MAGIC.length + 12) {
+        file.seek(file.length() - 12);
+        long tableOffset = file.readLong();
+        if (file.readInt() == RawLog.TRAILER_MAGIC) {
+          end = tableOffset;
+          file.seek(tableOffset);
+          int count = file.readInt();
+          for (int i = 0; i < count; i++) {
+            table.add(file.readUTF());
+          }
+        }
+      }
+      names = Collections.unmodifiableList(table);
+      records = (end - RawLog.MAGIC.length) / RawLog.RECORD_SIZE;
+    }
+  }
+
+  /**
+   * @return The names of the operations, indexed by their code.
+   */
+  public List<String> getNames() {
+    return names;
+  }
+
+  /**
+   * @return The number of records in the file.
+   */
+  public long getRecords() {
+    return records;
+  }
+
+  /**
+   * @return The name of the operation with the given code.
+   */
+  public String getName(int operation) {
+    return operation < names.size() ? names.get(operation) : "OP" + operation;
+  }
+
+  /**
+   * @return The name of the status with the given ordinal.
+   */
+  public static String getStatusName(int status) {
+    return status >= 0 && status < Status.getPredefinedCount() ?
+        Status.getPredefined().get(status).getName() : "UNKNOWN";
+  }
+
+  /**
+   * Pass every record of the file to the visitor, in the order they were written.
+   *
+   * @param visitor The visitor.
+   * @throws IOException if the file can't be read.
+   */
+  public void read(RecordVisitor visitor) throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path), 1 << 16))) {
+      in.skipBytes(RawLog.MAGIC.length);
+      for (long i = 0; i < records; i++) {
+        long startNanos = in.readLong();
+        int latency = in.readInt();
+        int operation = in.readShort();
+        int status = in.readShort();
+        visitor.visit(startNanos, latency, operation, status);
+      }
+    }
+  }
+
+  /**
+   * Write every record as a line of CSV.
+   *
+   * @param out The stream to write to.
+   * @throws IOException if the file can't be read.
+   */
+  public void writeCsv(PrintStream out) throws IOException {
+    out.println("operation,status,start(ns),latency(us)");
+    read((startNanos, latency, operation, status) ->
+        out.println(getName(operation) + "," + getStatusName(status) + "," + startNanos + "," + latency));
+  }
+
+  /**
+   * Export the number of operations, the average, minimum and maximum latency, exact latency
+   * percentiles and return codes of every operation. Only the distinct latencies are kept in memory.
+   *
+   * @param exporter The exporter to write to.
+   * @throws IOException if the file can't be read or the export failed.
+   */
+  public void exportSummary(MeasurementsExporter exporter) throws IOException {
+    final Map<Integer, TreeMap<Integer, long[]>> latencies = new TreeMap<>();
+    final Map<Integer, TreeMap<String, long[]>> statuses = new TreeMap<>();
+    read((startNanos, latency, operation, status) -> {
+        latencies.computeIfAbsent(operation, o -> new TreeMap<>()).computeIfAbsent(latency, l -> new long[1])[0]++;
+        statuses.computeIfAbsent(operation, o -> new TreeMap<>()).computeIfAbsent(
+            getStatusName(status), s -> new long[1])[0]++;
+      });
+
+    for (Map.Entry<Integer, TreeMap<Integer, long[]>> entry : latencies.entrySet()) {
+      String name = getName(entry.getKey());
+      TreeMap<Integer, long[]> counts = entry.getValue();
+      long operations = 0;
+      double total = 0;
+      for (Map.Entry<Integer, long[]> count : counts.entrySet()) {
+        operations += count.getValue()[0];
+        total += (double) count.getKey() * count.getValue()[0];
+      }
+      exporter.write(name, "Operations", operations);
+      exporter.write(name, "AverageLatency(us)", total / operations);
+      exporter.write(name, "MinLatency(us)", counts.firstKey());
+      exporter.write(name, "MaxLatency(us)", counts.lastKey());
+
+      DecimalFormat d = new DecimalFormat("#.##");
+      // the same rank as OneMeasurementRaw: the value at index (int) (operations * p) in sorted order
+      int next = 0;
+      long seen = 0;
+      for (Map.Entry<Integer, long[]> count : counts.entrySet()) {
+        seen += count.getValue()[0];
+        while (next < PERCENTILES.length && (long) (operations * PERCENTILES[next] / 100) < seen) {
+          exporter.write(name, "p" + d.format(PERCENTILES[next]), count.getKey());
+          next++;
+        }
+      }
+
+      for (Map.Entry<String, long[]> status : statuses.get(entry.getKey()).entrySet()) {
+        exporter.write(name, "Return=" + status.getKey(), status.getValue()[0]);
+      }
+    }
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1 || args.length > 2 || (args.length == 2 && !args[1].equals("csv"))) {
+      System.err.println("Usage: java " + RawLogReader.class.getName() + " file [csv]");
+      System.exit(1);
+    }
+    RawLogReader reader = new RawLogReader(args[0]);
+    if (args.length == 2) {
+      PrintStream out = new PrintStream(System.out, false);
+      reader.writeCsv(out);
+      out.flush();
+    } else {
+      try (MeasurementsExporter exporter = new TextMeasurementsExporter(System.out)) {
+        reader.exportSummary(exporter);
+      }
+    }
+  }
+}
@@ -0,0 +1,420 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.measurements;
+
+import site.ycsb.Status;
+import site.ycsb.Workload;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the slowest database operations of the run, and a sample of the operations slower than a
+ * threshold in every status interval, with their key, table, thread and start times, so the worst
+ * percentiles can be traced back to keys and moments.
+ *
+ * Every client thread records into its own preallocated slots, so recording allocates nothing and
+ * only takes an uncontended lock, and only for operations that are kept. Operations that complete on
+ * another thread are recorded through the {@link Recorder} of the thread that issued them. The
+ * outliers of an interval are appended to the output file when the status thread starts the next
+ * interval, which is why a threshold implies the status thread, and the slowest operations at the end.
+ */
+public final class SlowOperations {
+  /**
+   * The number of slowest operations to keep. 0 (the default) keeps none.
+   */
+  public static final String COUNT_PROPERTY = "measurement.slowops";
+  public static final String COUNT_PROPERTY_DEFAULT = "0";
+
+  /**
+   * The latency in us above which operations are outliers. 0 (the default) keeps none.
+   */
+  public static final String THRESHOLD_PROPERTY = "measurement.slowops.threshold";
+  public static final String THRESHOLD_PROPERTY_DEFAULT = "0";
+
+  /**
+   * The number of outliers each thread keeps per status interval. When there are more, a uniform
+   * sample of them is kept.
+   */
+  public static final String OUTLIERS_PROPERTY = "measurement.slowops.outliers";
+  public static final String OUTLIERS_PROPERTY_DEFAULT = "100";
+
+  /**
+   * The CSV file the operations are written to.
+   */
+  public static final String OUTPUT_FILE_PROPERTY = "measurement.slowops.output_file";
+  public static final String OUTPUT_FILE_PROPERTY_DEFAULT = "ycsb-slowops.csv";
+
+  private final int count;
+  private final long thresholdNanos;
+  private final int outliers;
+  private final String path;
+
+  private final List<Recorder> recorders = new ArrayList<>();
+  private final ThreadLocal<Recorder> recorder = ThreadLocal.withInitial(this::newRecorder);
+  private PrintStream out;
+  private long outlierTotal;
+  private volatile boolean paused;
+
+  /**
+   * The difference between the epoch time in nanoseconds and {@link System#nanoTime()}.
+   */
+  private final long epochOffsetNanos =
+      TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()) - System.nanoTime();
+
+  private SlowOperations(int count, long thresholdNanos, int outliers, String path) {
+    this.count = count;
+    this.thresholdNanos = thresholdNanos;
+    this.outliers = outliers;
+    this.path = path;
+  }
+
+  /**
+   * @return The slow operations asked for by the properties, or null if none are.
+   */
+  static SlowOperations create(Properties props) {
+    int count = Integer.parseInt(props.getProperty(COUNT_PROPERTY, COUNT_PROPERTY_DEFAULT));
+    long threshold = Long.parseLong(props.getProperty(THRESHOLD_PROPERTY, THRESHOLD_PROPERTY_DEFAULT));
+    if (count <= 0 && threshold <= 0) {
+      return null;
+    }
+    return new SlowOperations(Math.max(count, 0), threshold > 0 ? TimeUnit.MICROSECONDS.toNanos(threshold) : 0,
+        threshold > 0 ? Integer.parseInt(props.getProperty(OUTLIERS_PROPERTY, OUTLIERS_PROPERTY_DEFAULT)) : 0,
+        props.getProperty(OUTPUT_FILE_PROPERTY, OUTPUT_FILE_PROPERTY_DEFAULT));
+  }
+
+  private synchronized Recorder newRecorder() {
+    Recorder r = new Recorder(Thread.currentThread().getId());
+    recorders.add(r);
+    return r;
+  }
+
+  /**
+   * @return The recorder of the calling thread, for operations it issues that complete on other threads.
+   */
+  Recorder recorder() {
+    return recorder.get();
+  }
+
+  /**
+   * Stop or resume recording, see {@link Measurements#setPaused(boolean)}.
+   */
+  void setPaused(boolean pause) {
+    paused = pause;
+  }
+
+  private synchronized List<Recorder> getRecorders() {
+    return new ArrayList<>(recorders);
+  }
+
+  /**
+   * Record an operation of the calling thread if it is among the slowest so far of its thread or an outlier.
+   *
+   * @see Recorder#record(Workload.Operation, Status, String, String, long, long, long)
+   */
+  public void record(Workload.Operation operation, Status status, String table, String key,
+                     long intendedStartNanos, long startNanos, long endNanos) {
+    recorder.get().record(operation, status, table, key, intendedStartNanos, startNanos, endNanos);
+  }
+
+  /**
+   * Write out the outliers of the interval that just ended and start a new one.
+   */
+  synchronized void nextInterval() {
+    if (outliers == 0) {
+      return;
+    }
+    PrintStream o = output();
+    for (Recorder r : getRecorders()) {
+      synchronized (r) {
+        outlierTotal += r.seen;
+        r.interval.write(o, "OUTLIER", epochOffsetNanos);
+        r.interval.size = 0;
+        r.seen = 0;
+      }
+    }
+    o.flush();
+  }
+
+  /**
+   * Write out the outliers of the last interval and the slowest operations of the run.
+   *
+   * @return The number of outliers seen over the run.
+   */
+  synchronized long dump() {
+    nextInterval();
+    if (count > 0) {
+      Slots all = new Slots(count * getRecorders().size());
+      for (Recorder r : getRecorders()) {
+        synchronized (r) {
+          for (int i = 0; i < r.top.size; i++) {
+            all.copy(all.size++, r.top, i);
+          }
+        }
+      }
+      Slots slowest = new Slots(count);
+      for (int i = 0; i < all.size; i++) {
+        slowest.offer(all, i);
+      }
+      slowest.sortByLatency();
+      slowest.write(output(), "SLOWEST", epochOffsetNanos);
+    }
+    output().flush();
+    return outlierTotal;
+  }
+
+  /**
+   * Forget everything recorded so far, e.g. at the end of a warmup phase.
+   */
+  synchronized void reset() {
+    for (Recorder r : getRecorders()) {
+      synchronized (r) {
+        r.interval.size = 0;
+        r.top.size = 0;
+        r.seen = 0;
+      }
+    }
+    outlierTotal = 0;
+    paused = false;
+  }
+
+  private PrintStream output() {
+    if (out == null) {
+      try {
+        out = new PrintStream(new FileOutputStream(path), false);
+      } catch (FileNotFoundException e) {
+        throw new RuntimeException("Failed to open slow operations output file " + path, e);
+      }
+      System.out.println("Slow operations: will output to file: " + path);
+      out.println("kind,operation,status,table,key,thread,intended_start(ns),start(ns),latency(ns)");
+    }
+    return out;
+  }
+
+  /**
+   * The slots of one client thread, which its operations are recorded into whichever thread they
+   * complete on.
+   */
+  public final class Recorder {
+    private final long thread;
+    private final Slots top;
+    private final Slots interval;
+
+    /**
+     * The number of outliers in the current interval.
+     */
+    private long seen;
+
+    private Recorder(long thread) {
+      this.thread = thread;
+      top = new Slots(count);
+      interval = new Slots(outliers);
+    }
+
+    /**
+     * Record an operation if it is among the slowest so far of this thread or an outlier.
+     *
+     * @param operation The operation.
+     * @param status The status it ended with.
+     * @param table The table.
+     * @param key The key, or the start key of a scan.
+     * @param intendedStartNanos When it was meant to start, by {@link System#nanoTime()}.
+     * @param startNanos When it started.
+     * @param endNanos When it ended.
+     */
+    public void record(Workload.Operation operation, Status status, String table, String key,
+                       long intendedStartNanos, long startNanos, long endNanos) {
+      long latency = endNanos - startNanos;
+      boolean outlier = thresholdNanos > 0 && latency > thresholdNanos;
+      if (paused || !outlier && !top.wouldKeep(latency)) {
+        return;
+      }
+      synchronized (this) {
+        if (outlier) {
+          seen++;
+          int slot = interval.size < outliers ? interval.size++ :
+              (int) ThreadLocalRandom.current().nextLong(seen);
+          if (slot < outliers) {
+            interval.set(slot, operation, status, table, key, thread, latency);
+            interval.setStart(slot, intendedStartNanos, startNanos);
+          }
+        }
+        int slot = top.reserve(latency);
+        if (slot >= 0) {
+          top.set(slot, operation, status, table, key, thread, latency);
+          top.setStart(slot, intendedStartNanos, startNanos);
+          top.settle(slot);
+        }
+      }
+    }
+  }
+
+  /**
+   * A fixed number of operations in parallel arrays. As the slowest operations, the slots form a
+   * min-heap on latency, so the fastest of them is the one replaced.
+   */
+  private static final class Slots {
+    private final Workload.Operation[] operation;
+    private final Status[] status;
+    private final String[] table;
+    private final String[] key;
+    private final long[] thread;
+    private final long[] intendedStart;
+    private final long[] start;
+    private final long[] latency;
+    private int size;
+
+    private Slots(int capacity) {
+      operation = new Workload.Operation[capacity];
+      status = new Status[capacity];
+      table = new String[capacity];
+      key = new String[capacity];
+      thread = new long[capacity];
+      intendedStart = new long[capacity];
+      start = new long[capacity];
+      latency = new long[capacity];
+    }
+
+    private void set(int i, Workload.Operation op, Status s, String t, String k, long th, long l) {
+      operation[i] = op;
+      status[i] = s;
+      table[i] = t;
+      key[i] = k;
+      thread[i] = th;
+      latency[i] = l;
+    }
+
+    private void setStart(int i, long intended, long st) {
+      intendedStart[i] = intended;
+      start[i] = st;
+    }
+
+    private void copy(int i, Slots from, int j) {
+      operation[i] = from.operation[j];
+      status[i] = from.status[j];
+      table[i] = from.table[j];
+      key[i] = from.key[j];
+      thread[i] = from.thread[j];
+      intendedStart[i] = from.intendedStart[j];
+      start[i] = from.start[j];
+      latency[i] = from.latency[j];
+    }
+
+    private boolean wouldKeep(long l) {
+      return operation.length > 0 && (size < operation.length || l > latency[0]);
+    }
+
+    /**
+     * @return The slot for an operation of the given latency among the slowest, which must be filled
+     *     in and then {@link #settle(int)}d, or -1 if it isn't slow enough.
+     */
+    private int reserve(long l) {
+      if (!wouldKeep(l)) {
+        return -1;
+      }
+      return size < operation.length ? size++ : 0;
+    }
+
+    /**
+     * Restore the heap after filling in a slot.
+     */
+    private void settle(int i) {
+      siftUp(i);
+      siftDown(i, size);
+    }
+
+    private void offer(Slots from, int j) {
+      int i = reserve(from.latency[j]);
+      if (i >= 0) {
+        copy(i, from, j);
+        settle(i);
+      }
+    }
+
+    private void siftUp(int i) {
+      while (i > 0 && latency[(i - 1) / 2] > latency[i]) {
+        swap(i, (i - 1) / 2);
+        i = (i - 1) / 2;
+      }
+    }
+
+    private void siftDown(int i, int n) {
+      while (2 * i + 1 < n) {
+        int child = 2 * i + 1;
+        if (child + 1 < n && latency[child + 1] < latency[child]) {
+          child++;
+        }
+        if (latency[i] <= latency[child]) {
+          return;
+        }
+        swap(i, child);
+        i = child;
+      }
+    }
+
+    /**
+     * Sort the heap from the slowest operation to the fastest, which leaves it no longer a heap.
+     */
+    private void sortByLatency() {
+      for (int n = size - 1; n > 0; n--) {
+        swap(0, n);
+        siftDown(0, n);
+      }
+    }
+
+    private void swap(int i, int j) {
+      Workload.Operation o = operation[i];
+      operation[i] = operation[j];
+      operation[j] = o;
+      Status s = status[i];
+      status[i] = status[j];
+      status[j] = s;
+      String t = table[i];
+      table[i] = table[j];
+      table[j] = t;
+      String k = key[i];
+      key[i] = key[j];
+      key[j] = k;
+      long l = thread[i];
+      thread[i] = thread[j];
+      thread[j] = l;
+      l = intendedStart[i];
+      intendedStart[i] = intendedStart[j];
+      intendedStart[j] = l;
+      l = start[i];
+      start[i] = start[j];
+      start[j] = l;
+      l = latency[i];
+      latency[i] = latency[j];
+      latency[j] = l;
+    }
+
+    private void write(PrintStream out, String kind, long epochOffsetNanos) {
+      for (int i = 0; i < size; i++) {
+        out.println(kind + "," + operation[i] + "," + status[i].getName() + "," + table[i] + "," + key[i] + ","
+            + thread[i] + "," + (intendedStart[i] + epochOffsetNanos) + "," + (start[i] + epochOffsetNanos) + ","
+            + latency[i]);
+      }
+    }
+  }
+}
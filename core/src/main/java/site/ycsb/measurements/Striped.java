@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.measurements;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * A set of recorders that threads are spread over by their id, so that threads recording the same
+ * measurement rarely share, and so rarely wait for, a recorder. Recorders are created on first use.
+ *
+ * Callers synchronize on the recorder they are given while updating it; readers synchronize on each
+ * recorder in turn while merging them.
+ *
+ * @param <T> The type of the recorders.
+ */
+final class Striped<T> {
+  /**
+   * The most stripes a measurement has, which bounds the memory used by measurement types with
+   * large recorders.
+   */
+  private static final int MAX_STRIPES = 64;
+
+  private final AtomicReferenceArray<T> stripes;
+  private final Supplier<T> factory;
+  private final int mask;
+
+  Striped(Supplier<T> factory) {
+    int wanted = Math.min(MAX_STRIPES, 2 * Runtime.getRuntime().availableProcessors());
+    int size = Integer.highestOneBit(Math.max(1, wanted - 1)) << 1;
+    this.stripes = new AtomicReferenceArray<>(size);
+    this.factory = factory;
+    this.mask = size - 1;
+  }
+
+  /**
+   * @return The recorder of the calling thread.
+   */
+  T get() {
+    int index = (int) Thread.currentThread().getId() & mask;
+    T stripe = stripes.get(index);
+    if (stripe == null) {
+      stripe = factory.get();
+      if (!stripes.compareAndSet(index, null, stripe)) {
+        stripe = stripes.get(index);
+      }
+    }
+    return stripe;
+  }
+
+  /**
+   * @return All recorders created so far.
+   */
+  List<T> all() {
+    List<T> all = new ArrayList<>(stripes.length());
+    for (int i = 0; i < stripes.length(); i++) {
+      T stripe = stripes.get(i);
+      if (stripe != null) {
+        all.add(stripe);
+      }
+    }
+    return all;
+  }
+}
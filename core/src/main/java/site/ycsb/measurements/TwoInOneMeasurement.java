@@ -19,8 +19,11 @@ package site.ycsb.measurements;
 
 import site.ycsb.Status;
 import site.ycsb.measurements.exporter.MeasurementsExporter;
+import org.HdrHistogram.Histogram;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * delegates to 2 measurement instances.
@@ -53,6 +56,18 @@ public class TwoInOneMeasurement extends OneMeasurement {
     thing2.measure(latencyInMicros);
   }
 
+  @Override
+  public void measure(int latencyInMicros, Status status) {
+    thing1.measure(latencyInMicros, status);
+    thing2.measure(latencyInMicros, status);
+  }
+
+  @Override
+  public void measureNanos(long latencyNanos, Status status) {
+    thing1.measureNanos(latencyNanos, status);
+    thing2.measureNanos(latencyNanos, status);
+  }
+
   /**
    * This is called from a main thread, on orderly termination.
    */
@@ -73,4 +88,34 @@ public class TwoInOneMeasurement extends OneMeasurement {
     return thing1.getSummary() + "\n" + thing2.getSummary();
   }
 
+  @Override
+  public String getStepSummary() {
+    return thing1.getStepSummary();
+  }
+
+  @Override
+  public void exportIntervalMeasurements(MeasurementsExporter exporter) throws IOException {
+    thing1.exportIntervalMeasurements(exporter);
+  }
+
+  @Override
+  public long getPercentileLatency(double percentile) {
+    return thing1.getPercentileLatency(percentile);
+  }
+
+  @Override
+  boolean hasReturnCodes() {
+    return thing1.hasReturnCodes();
+  }
+
+  @Override
+  Map<Status, LongAdder> getReturnCodes() {
+    return thing1.getReturnCodes();
+  }
+
+  @Override
+  Histogram getTotalHistogram() {
+    return thing1.getTotalHistogram();
+  }
+
 }
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.measurements.exporter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+
+/**
+ * Write one line of comma separated values per measurement, after a header line, for loading into
+ * spreadsheets and dashboards. Measurements of intervals get the time of their interval in a
+ * timestamp column of their own, so that every line stands on its own.
+ */
+public class CSVMeasurementsExporter implements MeasurementsExporter {
+  private final BufferedWriter bw;
+
+  /**
+   * Whether the header is written, which happens with the first line, as it depends on whether that
+   * line is of an interval.
+   */
+  private boolean headerWritten;
+
+  /**
+   * The time of the current interval, or null if the lines have no timestamp column.
+   */
+  private String timestamp;
+
+  public CSVMeasurementsExporter(OutputStream os) throws IOException {
+    this.bw = new BufferedWriter(new OutputStreamWriter(os));
+  }
+
+  @Override
+  public void beginInterval(long timestampMs) throws IOException {
+    if (!headerWritten) {
+      writeHeader("timestamp,metric,measurement,value");
+    } else if (timestamp == null) {
+      // the lines so far have no timestamp column
+      MeasurementsExporter.super.beginInterval(timestampMs);
+      return;
+    }
+    timestamp = Long.toString(timestampMs);
+  }
+
+  public void write(String metric, String measurement, int i) throws IOException {
+    writeLine(metric, measurement, Integer.toString(i));
+  }
+
+  public void write(String metric, String measurement, long i) throws IOException {
+    writeLine(metric, measurement, Long.toString(i));
+  }
+
+  public void write(String metric, String measurement, double d) throws IOException {
+    writeLine(metric, measurement, Double.toString(d));
+  }
+
+  private void writeHeader(String header) throws IOException {
+    bw.write(header);
+    bw.newLine();
+    headerWritten = true;
+  }
+
+  private void writeLine(String metric, String measurement, String value) throws IOException {
+    if (!headerWritten) {
+      writeHeader("metric,measurement,value");
+    }
+    if (timestamp != null) {
+      bw.write(timestamp + ",");
+    }
+    bw.write(quote(metric) + "," + quote(measurement) + "," + value);
+    bw.newLine();
+  }
+
+  /**
+   * Quote a field if it contains a separator, a quote or a line break.
+   */
+  private static String quote(String field) {
+    if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0) {
+      return field;
+    }
+    return "\"" + field.replace("\"", "\"\"") + "\"";
+  }
+
+  @Override
+  public void flush() throws IOException {
+    bw.flush();
+  }
+
+  public void close() throws IOException {
+    if (!headerWritten) {
+      writeHeader("metric,measurement,value");
+    }
+    bw.close();
+  }
+}
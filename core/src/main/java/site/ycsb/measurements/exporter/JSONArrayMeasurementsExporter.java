@@ -63,6 +63,11 @@ public class JSONArrayMeasurementsExporter implements MeasurementsExporter {
     g.writeEndObject();
   }
 
+  @Override
+  public void flush() throws IOException {
+    g.flush();
+  }
+
   public void close() throws IOException {
     if (g != null) {
       g.writeEndArray();
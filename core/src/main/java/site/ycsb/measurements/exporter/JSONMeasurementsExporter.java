@@ -64,6 +64,11 @@ public class JSONMeasurementsExporter implements MeasurementsExporter {
     g.writeEndObject();
   }
 
+  @Override
+  public void flush() throws IOException {
+    g.flush();
+  }
+
   public void close() throws IOException {
     if (g != null) {
       g.close();
@@ -53,4 +53,24 @@ public interface MeasurementsExporter extends Closeable {
    * @throws IOException if writing failed
    */
   void write(String metric, String measurement, double d) throws IOException;
+
+  /**
+   * Start the measurements of one interval of a run, all taken at the given time. Exporters that can
+   * label every measurement with the time do so; the others write it as the INTERVAL Timestamp(ms)
+   * measurement.
+   *
+   * @param timestampMs The time of the interval in ms since the epoch.
+   * @throws IOException if writing failed
+   */
+  default void beginInterval(long timestampMs) throws IOException {
+    write("INTERVAL", "Timestamp(ms)", timestampMs);
+  }
+
+  /**
+   * Write out everything written so far, for exporters that are written to while the run goes on.
+   *
+   * @throws IOException if writing failed
+   */
+  default void flush() throws IOException {
+  }
 }
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+package site.ycsb.measurements.exporter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Write measurements in the Prometheus text exposition format.
+ *
+ * Every measurement becomes a sample of a metric named after it and labelled with the YCSB metric,
+ * e.g. <code>ycsb_average_latency_us{metric="READ"}</code>. Percentiles become the quantiles of one
+ * metric per unit, e.g. <code>ycsb_latency_us{metric="READ",quantile="0.99"}</code>, and return codes
+ * a counter, <code>ycsb_return_total{metric="READ",status="OK"}</code>. Samples are grouped by metric
+ * name when flushed, as the format requires.
+ */
+public class PrometheusMeasurementsExporter implements MeasurementsExporter {
+  /**
+   * The content type of the format, for serving it over HTTP.
+   */
+  public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final Pattern PERCENTILE =
+      Pattern.compile("(\\d+(?:\\.\\d+)?)(?:st|nd|rd|th)?PercentileLatency\\((\\w+)\\)");
+  private static final String RETURN_PREFIX = "Return=";
+
+  private final BufferedWriter bw;
+
+  /**
+   * The samples written since the last flush, by metric name.
+   */
+  private final Map<String, StringBuilder> samples = new LinkedHashMap<>();
+
+  public PrometheusMeasurementsExporter(OutputStream os) {
+    this.bw = new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+  }
+
+  public void write(String metric, String measurement, int i) throws IOException {
+    add(metric, measurement, Integer.toString(i));
+  }
+
+  public void write(String metric, String measurement, long i) throws IOException {
+    add(metric, measurement, Long.toString(i));
+  }
+
+  public void write(String metric, String measurement, double d) throws IOException {
+    String value;
+    if (Double.isNaN(d)) {
+      value = "NaN";
+    } else if (Double.isInfinite(d)) {
+      value = d > 0 ? "+Inf" : "-Inf";
+    } else {
+      value = Double.toString(d);
+    }
+    add(metric, measurement, value);
+  }
+
+  private void add(String metric, String measurement, String value) {
+    String name;
+    String labels = "metric=\"" + escape(metric) + "\"";
+    Matcher percentile = PERCENTILE.matcher(measurement);
+    if (percentile.matches()) {
+      name = "ycsb_latency_" + percentile.group(2).toLowerCase();
+      BigDecimal quantile = new BigDecimal(percentile.group(1)).movePointLeft(2).stripTrailingZeros();
+      labels += ",quantile=\"" + quantile.toPlainString() + "\"";
+    } else if (measurement.startsWith(RETURN_PREFIX)) {
+      name = "ycsb_return_total";
+      labels += ",status=\"" + escape(measurement.substring(RETURN_PREFIX.length())) + "\"";
+    } else {
+      name = metricName(measurement);
+    }
+    samples.computeIfAbsent(name, n -> new StringBuilder())
+        .append(name).append('{').append(labels).append("} ").append(value).append('\n');
+  }
+
+  /**
+   * Turn a measurement name into a metric name, e.g. AverageLatency(us) into ycsb_average_latency_us
+   * and Throughput(ops/sec) into ycsb_throughput_ops_per_sec.
+   */
+  static String metricName(String measurement) {
+    StringBuilder name = new StringBuilder("ycsb");
+    boolean separated = false;
+    char previous = ' ';
+    for (char c : measurement.replace("/", "_per_").toCharArray()) {
+      if (Character.isLetterOrDigit(c)) {
+        if (!separated && (name.length() == 4 || (Character.isUpperCase(c) && Character.isLowerCase(previous)))) {
+          name.append('_');
+        }
+        name.append(Character.toLowerCase(c));
+        separated = false;
+      } else if (!separated) {
+        name.append('_');
+        separated = true;
+      }
+      previous = c;
+    }
+    if (separated) {
+      name.setLength(name.length() - 1);
+    }
+    return name.toString();
+  }
+
+  private static String escape(String label) {
+    return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  @Override
+  public void flush() throws IOException {
+    for (Map.Entry<String, StringBuilder> entry : samples.entrySet()) {
+      String type = entry.getKey().endsWith("_total") ? "counter" : "gauge";
+      bw.write("# TYPE " + entry.getKey() + " " + type);
+      bw.newLine();
+      bw.write(entry.getValue().toString());
+    }
+    samples.clear();
+    bw.flush();
+  }
+
+  public void close() throws IOException {
+    flush();
+    bw.close();
+  }
+}
@@ -46,6 +46,11 @@ public class TextMeasurementsExporter implements MeasurementsExporter {
     bw.newLine();
   }
 
+  @Override
+  public void flush() throws IOException {
+    bw.flush();
+  }
+
   public void close() throws IOException {
     this.bw.close();
   }
@@ -45,7 +45,7 @@ import java.util.*;
  * <LI><b>readmodifywriteproportion</b>: what proportion of operations should be read a record,
  * modify it, write it back (default: 0)
  * <LI><b>requestdistribution</b>: what distribution should be used to select the records to operate
- * on - uniform, zipfian, hotspot, sequential, exponential or latest (default: uniform)
+ * on - uniform, zipfian, hotspot, sequential, exponential, latest or drifting (default: uniform)
  * <LI><b>minscanlength</b>: for scans, what is the minimum number of records to scan (default: 1)
  * <LI><b>maxscanlength</b>: for scans, what is the maximum number of records to scan (default: 1000)
  * <LI><b>scanlengthdistribution</b>: for scans, what distribution should be used to choose the
@@ -54,6 +54,10 @@ import java.util.*;
  * YCSB instance (default: 0)
  * <LI><b>insertcount</b>: for parallel loads and runs, defines the number of records for this
  * YCSB instance (default: recordcount)
+ * <LI><b>transactioninsertstride</b>: for parallel runs, the number of YCSB instances inserting
+ * records beyond recordcount side by side, each taking one key of every stride (default: 1)
+ * <LI><b>transactioninsertstrideoffset</b>: for parallel runs, which key of every stride this
+ * YCSB instance inserts, from 0 to transactioninsertstride - 1 (default: 0)
  * <LI><b>zeropadding</b>: for generating a record sequence compatible with string sort order by
  * 0 padding the record number. Controls the number of 0s to use for padding. (default: 1)
  * For example for row 5, with zeropadding=1 you get 'user5' key and with zeropading=8 you get
@@ -63,6 +67,9 @@ import java.util.*;
  * order ("hashed") (default: hashed)
  * <LI><b>fieldnameprefix</b>: what should be a prefix for field names, the shorter may decrease the
  * required storage size (default: "field")
+ * <LI><b>valuepool</b>: serve field values as slices of a shared block of random bytes filled once,
+ * rather than generating every value byte by byte (default: false)
+ * <LI><b>valuepool.size</b>: the size of that block in bytes (default: 16777216)
  * </ul>
  */
 public class CoreWorkload extends Workload {
@@ -200,6 +207,31 @@ public class CoreWorkload extends Workload {
    */
   private boolean dataintegrity;
 
+  /**
+   * The name of the property for serving field values from a shared pool of random bytes.
+   */
+  public static final String VALUE_POOL_PROPERTY = "valuepool";
+
+  /**
+   * The default value for the valuepool property.
+   */
+  public static final String VALUE_POOL_PROPERTY_DEFAULT = "false";
+
+  /**
+   * The name of the property for the size of the value pool in bytes.
+   */
+  public static final String VALUE_POOL_SIZE_PROPERTY = "valuepool.size";
+
+  /**
+   * The default size of the value pool, 16 MB.
+   */
+  public static final String VALUE_POOL_SIZE_PROPERTY_DEFAULT = "16777216";
+
+  /**
+   * The pool random field values are taken from, or null to generate every value.
+   */
+  private RandomValuePool valuepool;
+
   /**
    * The name of the property for the proportion of transactions that are reads.
    */
@@ -261,6 +293,43 @@ public class CoreWorkload extends Workload {
    */
   public static final String REQUEST_DISTRIBUTION_PROPERTY_DEFAULT = "uniform";
 
+  /**
+   * The name of the property for the sampler of the zipfian and latest request distributions. Options are
+   * "gray", the approximation of Gray et al., which only holds for a zipfian constant below 1 and recomputes
+   * its constants under a lock when the number of items grows, and "rejectioninversion", which samples the
+   * exact distribution in constant time for any zipfian constant and number of items.
+   */
+  public static final String ZIPFIAN_SAMPLER_PROPERTY = "zipfiansampler";
+
+  /**
+   * The default sampler of the zipfian and latest request distributions.
+   */
+  public static final String ZIPFIAN_SAMPLER_PROPERTY_DEFAULT = "gray";
+
+  /**
+   * The name of the property for the zipfian constant of the zipfian and latest request distributions.
+   * With the gray sampler, a constant other than 0.99 takes a long time to set up.
+   */
+  public static final String ZIPFIAN_CONSTANT_PROPERTY = "zipfianconstant";
+
+  /**
+   * The default zipfian constant of the zipfian and latest request distributions.
+   */
+  public static final String ZIPFIAN_CONSTANT_PROPERTY_DEFAULT = String.valueOf(ZipfianGenerator.ZIPFIAN_CONSTANT);
+
+  /**
+   * The name of the property for how the zipfian request distribution scatters the popular keys. Options are
+   * "hash", which folds a zipfian distribution over 10 billion items onto the keys with a hash, changing the
+   * skew and merging some ranks, and "permutation", which maps the ranks of a zipfian distribution over
+   * exactly the keys to them one to one, keeping the distribution exact.
+   */
+  public static final String ZIPFIAN_SCRAMBLE_PROPERTY = "zipfianscramble";
+
+  /**
+   * The default way the zipfian request distribution scatters the popular keys.
+   */
+  public static final String ZIPFIAN_SCRAMBLE_PROPERTY_DEFAULT = "hash";
+
   /**
    * The name of the property for adding zero padding to record numbers in order to match
    * string sort order. Controls the number of 0s to left pad with.
@@ -346,6 +415,19 @@ public class CoreWorkload extends Workload {
   public static final String INSERTION_RETRY_INTERVAL = "core_workload_insertion_retry_interval";
   public static final String INSERTION_RETRY_INTERVAL_DEFAULT = "3";
 
+  /**
+   * The number of clients inserting records in the transaction phase side by side. Beyond recordcount
+   * each of them inserts one key of every stride and only chooses keys it inserted itself.
+   */
+  public static final String TRANSACTION_INSERT_STRIDE_PROPERTY = "transactioninsertstride";
+  public static final String TRANSACTION_INSERT_STRIDE_PROPERTY_DEFAULT = "1";
+
+  /**
+   * Which key of every stride this client inserts in the transaction phase.
+   */
+  public static final String TRANSACTION_INSERT_STRIDE_OFFSET_PROPERTY = "transactioninsertstrideoffset";
+  public static final String TRANSACTION_INSERT_STRIDE_OFFSET_PROPERTY_DEFAULT = "0";
+
   /**
    * Field name prefix.
    */
@@ -357,7 +439,7 @@ public class CoreWorkload extends Workload {
   public static final String FIELD_NAME_PREFIX_DEFAULT = "field";
 
   protected NumberGenerator keysequence;
-  protected DiscreteGenerator operationchooser;
+  protected AliasDiscreteGenerator<OperationType> operationchooser;
   protected NumberGenerator keychooser;
   protected NumberGenerator fieldchooser;
   protected AcknowledgedCounterGenerator transactioninsertkeysequence;
@@ -368,20 +450,16 @@ public class CoreWorkload extends Workload {
   protected int zeropadding;
   protected int insertionRetryLimit;
   protected int insertionRetryInterval;
+  protected long transactioninsertstride;
+  protected long transactioninsertstrideoffset;
 
   private Measurements measurements = Measurements.getMeasurements();
 
+  /**
+   * Build the key of a record, using the {@link KeyEncoder} of the calling thread.
+   */
   public static String buildKeyName(long keynum, int zeropadding, boolean orderedinserts) {
-    if (!orderedinserts) {
-      keynum = Utils.hash(keynum);
-    }
-    String value = Long.toString(keynum);
-    int fill = zeropadding - value.length();
-    String prekey = "user";
-    for (int i = 0; i < fill; i++) {
-      prekey += '0';
-    }
-    return prekey + value;
+    return KeyEncoder.get().encode(keynum, zeropadding, orderedinserts);
   }
 
   protected static NumberGenerator getFieldLengthGenerator(Properties p) throws WorkloadException {
@@ -448,7 +526,7 @@ public class CoreWorkload extends Workload {
     long insertstart =
         Long.parseLong(p.getProperty(INSERT_START_PROPERTY, INSERT_START_PROPERTY_DEFAULT));
     long insertcount=
-        Integer.parseInt(p.getProperty(INSERT_COUNT_PROPERTY, String.valueOf(recordcount - insertstart)));
+        Long.parseLong(p.getProperty(INSERT_COUNT_PROPERTY, String.valueOf(recordcount - insertstart)));
     // Confirm valid values for insertstart and insertcount in relation to recordcount
     if (recordcount < (insertstart + insertcount)) {
       System.err.println("Invalid combination of insertstart, insertcount and recordcount.");
@@ -478,6 +556,13 @@ public class CoreWorkload extends Workload {
     if (dataintegrity) {
       System.out.println("Data integrity is enabled.");
     }
+    if (Boolean.parseBoolean(p.getProperty(VALUE_POOL_PROPERTY, VALUE_POOL_PROPERTY_DEFAULT))) {
+      if (dataintegrity) {
+        throw new WorkloadException("The value pool cannot be used to check data integrity.");
+      }
+      valuepool = new RandomValuePool(
+          Integer.parseInt(p.getProperty(VALUE_POOL_SIZE_PROPERTY, VALUE_POOL_SIZE_PROPERTY_DEFAULT)));
+    }
 
     if (p.getProperty(INSERT_ORDER_PROPERTY, INSERT_ORDER_PROPERTY_DEFAULT).compareTo("hashed") == 0) {
       orderedinserts = false;
@@ -513,12 +598,12 @@ public class CoreWorkload extends Workload {
       // the keyspace doesn't change from the perspective of the scrambled zipfian generator
       final double insertproportion = Double.parseDouble(
           p.getProperty(INSERT_PROPORTION_PROPERTY, INSERT_PROPORTION_PROPERTY_DEFAULT));
-      int opcount = Integer.parseInt(p.getProperty(Client.OPERATION_COUNT_PROPERTY));
-      int expectednewkeys = (int) ((opcount) * insertproportion * 2.0); // 2 is fudge factor
+      long opcount = Long.parseLong(p.getProperty(Client.OPERATION_COUNT_PROPERTY));
+      long expectednewkeys = (long) ((opcount) * insertproportion * 2.0); // 2 is fudge factor
 
-      keychooser = new ScrambledZipfianGenerator(insertstart, insertstart + insertcount + expectednewkeys);
+      keychooser = createZipfianKeyChooser(p, insertstart, insertstart + insertcount + expectednewkeys);
     } else if (requestdistrib.compareTo("latest") == 0) {
-      keychooser = new SkewedLatestGenerator(transactioninsertkeysequence);
+      keychooser = createLatestKeyChooser(p, transactioninsertkeysequence);
     } else if (requestdistrib.equals("hotspot")) {
       double hotsetfraction =
           Double.parseDouble(p.getProperty(HOTSPOT_DATA_FRACTION, HOTSPOT_DATA_FRACTION_DEFAULT));
@@ -526,6 +611,8 @@ public class CoreWorkload extends Workload {
           Double.parseDouble(p.getProperty(HOTSPOT_OPN_FRACTION, HOTSPOT_OPN_FRACTION_DEFAULT));
       keychooser = new HotspotIntegerGenerator(insertstart, insertstart + insertcount - 1,
           hotsetfraction, hotopnfraction);
+    } else if (requestdistrib.equals("drifting")) {
+      keychooser = createDriftingKeyChooser(p, insertstart, insertstart + insertcount - 1);
     } else {
       throw new WorkloadException("Unknown request distribution \"" + requestdistrib + "\"");
     }
@@ -545,6 +632,142 @@ public class CoreWorkload extends Workload {
         INSERTION_RETRY_LIMIT, INSERTION_RETRY_LIMIT_DEFAULT));
     insertionRetryInterval = Integer.parseInt(p.getProperty(
         INSERTION_RETRY_INTERVAL, INSERTION_RETRY_INTERVAL_DEFAULT));
+    transactioninsertstride = Long.parseLong(p.getProperty(
+        TRANSACTION_INSERT_STRIDE_PROPERTY, TRANSACTION_INSERT_STRIDE_PROPERTY_DEFAULT));
+    transactioninsertstrideoffset = Long.parseLong(p.getProperty(
+        TRANSACTION_INSERT_STRIDE_OFFSET_PROPERTY, TRANSACTION_INSERT_STRIDE_OFFSET_PROPERTY_DEFAULT));
+    if (transactioninsertstride < 1 || transactioninsertstrideoffset < 0 ||
+        transactioninsertstrideoffset >= transactioninsertstride) {
+      throw new WorkloadException("Invalid " + TRANSACTION_INSERT_STRIDE_OFFSET_PROPERTY + " " +
+          transactioninsertstrideoffset + " for " + TRANSACTION_INSERT_STRIDE_PROPERTY + " " + transactioninsertstride);
+    }
+  }
+
+  /**
+   * @return Whether to use the rejection-inversion sampler for the zipfian and latest request distributions.
+   */
+  private static boolean useRejectionInversion(Properties p) throws WorkloadException {
+    String sampler = p.getProperty(ZIPFIAN_SAMPLER_PROPERTY, ZIPFIAN_SAMPLER_PROPERTY_DEFAULT);
+    switch (sampler) {
+    case "gray":
+      return false;
+    case "rejectioninversion":
+      return true;
+    default:
+      throw new WorkloadException("Unknown " + ZIPFIAN_SAMPLER_PROPERTY + " \"" + sampler + "\"");
+    }
+  }
+
+  private static double getZipfianConstant(Properties p) throws WorkloadException {
+    double constant = Double.parseDouble(p.getProperty(ZIPFIAN_CONSTANT_PROPERTY, ZIPFIAN_CONSTANT_PROPERTY_DEFAULT));
+    if (!(constant > 0)) {
+      throw new WorkloadException(ZIPFIAN_CONSTANT_PROPERTY + " must be greater than 0");
+    }
+    return constant;
+  }
+
+  /**
+   * Creates the key chooser of the zipfian request distribution, with the popular keys scattered between
+   * min and max.
+   */
+  private static NumberGenerator createZipfianKeyChooser(Properties p, long min, long max)
+      throws WorkloadException {
+    double constant = getZipfianConstant(p);
+    String scramble = p.getProperty(ZIPFIAN_SCRAMBLE_PROPERTY, ZIPFIAN_SCRAMBLE_PROPERTY_DEFAULT);
+    if (scramble.equals("permutation")) {
+      long items = max - min + 1;
+      NumberGenerator ranks = useRejectionInversion(p) ?
+          new RejectionInversionZipfianGenerator(items, constant) : new ZipfianGenerator(items, constant);
+      return new PermutedZipfianGenerator(min, max, ranks, PermutedZipfianGenerator.DEFAULT_SEED);
+    } else if (!scramble.equals("hash")) {
+      throw new WorkloadException("Unknown " + ZIPFIAN_SCRAMBLE_PROPERTY + " \"" + scramble + "\"");
+    }
+    if (useRejectionInversion(p)) {
+      return new ScrambledZipfianGenerator(min, max,
+          new RejectionInversionZipfianGenerator(ScrambledZipfianGenerator.ITEM_COUNT, constant));
+    }
+    return new ScrambledZipfianGenerator(min, max, constant);
+  }
+
+  /**
+   * Creates the key chooser of the latest request distribution, favoring the keys inserted last.
+   */
+  private static NumberGenerator createLatestKeyChooser(Properties p, CounterGenerator inserted)
+      throws WorkloadException {
+    double constant = getZipfianConstant(p);
+    if (useRejectionInversion(p)) {
+      return new SkewedLatestGenerator(inserted,
+          new RejectionInversionZipfianGenerator(inserted.lastValue(), constant));
+    }
+    return new SkewedLatestGenerator(inserted, new ZipfianGenerator(inserted.lastValue(), constant));
+  }
+
+  /**
+   * Creates the key chooser of the drifting request distribution, whose hot set between min and max moves
+   * during the run, and starts recording its schedule.
+   */
+  private static NumberGenerator createDriftingKeyChooser(Properties p, long min, long max)
+      throws WorkloadException {
+    long items = max - min + 1;
+    NumberGenerator ranks;
+    String popularity = p.getProperty(DriftingHotspotGenerator.DRIFT_POPULARITY_PROPERTY,
+        DriftingHotspotGenerator.DRIFT_POPULARITY_DEFAULT);
+    if (popularity.equals("hotspot")) {
+      double hotsetfraction =
+          Double.parseDouble(p.getProperty(HOTSPOT_DATA_FRACTION, HOTSPOT_DATA_FRACTION_DEFAULT));
+      double hotopnfraction =
+          Double.parseDouble(p.getProperty(HOTSPOT_OPN_FRACTION, HOTSPOT_OPN_FRACTION_DEFAULT));
+      ranks = new HotspotIntegerGenerator(0, items - 1, hotsetfraction, hotopnfraction);
+    } else if (popularity.equals("zipfian")) {
+      ranks = new RejectionInversionZipfianGenerator(items, getZipfianConstant(p));
+    } else {
+      throw new WorkloadException("Unknown " + DriftingHotspotGenerator.DRIFT_POPULARITY_PROPERTY +
+          " \"" + popularity + "\"");
+    }
+
+    String modeName = p.getProperty(DriftingHotspotGenerator.DRIFT_MODE_PROPERTY,
+        DriftingHotspotGenerator.DRIFT_MODE_DEFAULT);
+    DriftingHotspotGenerator.Mode mode;
+    try {
+      mode = DriftingHotspotGenerator.Mode.valueOf(modeName.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new WorkloadException("Unknown " + DriftingHotspotGenerator.DRIFT_MODE_PROPERTY + " \"" + modeName +
+          "\"", e);
+    }
+    double step = Double.parseDouble(p.getProperty(DriftingHotspotGenerator.DRIFT_STEP_PROPERTY,
+        DriftingHotspotGenerator.DRIFT_STEP_DEFAULT));
+    long periodOperations = Long.parseLong(p.getProperty(DriftingHotspotGenerator.DRIFT_PERIOD_OPERATIONS_PROPERTY,
+        DriftingHotspotGenerator.DRIFT_PERIOD_OPERATIONS_DEFAULT));
+    long periodMs = Long.parseLong(p.getProperty(DriftingHotspotGenerator.DRIFT_PERIOD_MS_PROPERTY,
+        DriftingHotspotGenerator.DRIFT_PERIOD_MS_DEFAULT));
+
+    DriftingHotspotGenerator generator;
+    try {
+      generator = new DriftingHotspotGenerator(min, max, ranks, mode, Math.max(1, (long) (items * step)),
+          periodOperations, periodMs);
+    } catch (IllegalArgumentException e) {
+      throw new WorkloadException(e.getMessage(), e);
+    }
+    String schedule = p.getProperty(DriftingHotspotGenerator.DRIFT_OUTPUT_FILE_PROPERTY,
+        DriftingHotspotGenerator.DRIFT_OUTPUT_FILE_DEFAULT);
+    try {
+      generator.recordSchedule(schedule);
+    } catch (IOException e) {
+      throw new WorkloadException("Could not write the drift schedule to " + schedule, e);
+    }
+    return generator;
+  }
+
+  /**
+   * Returns a random field value, drawn from the value pool when one is configured.
+   */
+  private ByteIterator randomValue() {
+    long len = fieldlengthgenerator.nextValue().longValue();
+    if (valuepool != null) {
+      return valuepool.next(len);
+    }
+    // fill with random data
+    return new RandomByteIterator(len);
   }
 
   /**
@@ -558,8 +781,7 @@ public class CoreWorkload extends Workload {
     if (dataintegrity) {
       data = new StringByteIterator(buildDeterministicValue(key, fieldkey));
     } else {
-      // fill with random data
-      data = new RandomByteIterator(fieldlengthgenerator.nextValue().longValue());
+      data = randomValue();
     }
     value.put(fieldkey, data);
 
@@ -577,8 +799,7 @@ public class CoreWorkload extends Workload {
       if (dataintegrity) {
         data = new StringByteIterator(buildDeterministicValue(key, fieldkey));
       } else {
-        // fill with random data
-        data = new RandomByteIterator(fieldlengthgenerator.nextValue().longValue());
+        data = randomValue();
       }
       values.put(fieldkey, data);
     }
@@ -603,6 +824,13 @@ public class CoreWorkload extends Workload {
     return sb.toString();
   }
 
+  @Override
+  public void cleanup() throws WorkloadException {
+    if (keychooser instanceof DriftingHotspotGenerator) {
+      ((DriftingHotspotGenerator) keychooser).close();
+    }
+  }
+
   /**
    * Do one insert operation. Because it will be called concurrently from multiple client threads,
    * this function must be thread safe. However, avoid synchronized, or the threads will block waiting
@@ -611,7 +839,7 @@ public class CoreWorkload extends Workload {
    */
   @Override
   public boolean doInsert(DB db, Object threadstate) {
-    int keynum = keysequence.nextValue().intValue();
+    long keynum = keysequence.nextValue().longValue();
     String dbkey = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts);
     HashMap<String, ByteIterator> values = buildValues(dbkey);
 
@@ -654,22 +882,22 @@ public class CoreWorkload extends Workload {
    */
   @Override
   public boolean doTransaction(DB db, Object threadstate) {
-    String operation = operationchooser.nextString();
+    OperationType operation = operationchooser.nextValue();
     if(operation == null) {
       return false;
     }
 
     switch (operation) {
-    case "READ":
+    case READ:
       doTransactionRead(db);
       break;
-    case "UPDATE":
+    case UPDATE:
       doTransactionUpdate(db);
       break;
-    case "INSERT":
+    case INSERT:
       doTransactionInsert(db);
       break;
-    case "SCAN":
+    case SCAN:
       doTransactionScan(db);
       break;
     default:
@@ -701,22 +929,33 @@ public class CoreWorkload extends Workload {
       verifyStatus = Status.ERROR;
     }
     long endTime = System.nanoTime();
-    measurements.measure("VERIFY", (int) (endTime - startTime) / 1000);
+    measurements.measureNanos("VERIFY", endTime - startTime);
     measurements.reportStatus("VERIFY", verifyStatus);
   }
 
+  /**
+   * Map a value of the transaction insert sequence, or a key number chosen below its limit, to the number
+   * of the record. Beyond recordcount only this client's key of every stride is used.
+   */
+  long toRecordKeynum(long keynum) {
+    if (keynum < recordcount) {
+      return keynum;
+    }
+    return recordcount + (keynum - recordcount) * transactioninsertstride + transactioninsertstrideoffset;
+  }
+
   long nextKeynum() {
     long keynum;
     if (keychooser instanceof ExponentialGenerator) {
       do {
-        keynum = transactioninsertkeysequence.lastValue() - keychooser.nextValue().intValue();
+        keynum = transactioninsertkeysequence.lastValue() - keychooser.nextValue().longValue();
       } while (keynum < 0);
     } else {
       do {
-        keynum = keychooser.nextValue().intValue();
+        keynum = keychooser.nextValue().longValue();
       } while (keynum > transactioninsertkeysequence.lastValue());
     }
-    return keynum;
+    return toRecordKeynum(keynum);
   }
 
   public void doTransactionRead(DB db) {
@@ -789,8 +1028,8 @@ public class CoreWorkload extends Workload {
       verifyRow(keyname, cells);
     }
 
-    measurements.measure("READ-MODIFY-WRITE", (int) ((en - st) / 1000));
-    measurements.measureIntended("READ-MODIFY-WRITE", (int) ((en - ist) / 1000));
+    measurements.measureNanos("READ-MODIFY-WRITE", en - st);
+    measurements.measureIntendedNanos("READ-MODIFY-WRITE", en - ist);
   }
 
   public void doTransactionScan(DB db) {
@@ -839,12 +1078,13 @@ public class CoreWorkload extends Workload {
     long keynum = transactioninsertkeysequence.nextValue();
 
     try {
-      String dbkey = CoreWorkload.buildKeyName(keynum, zeropadding, orderedinserts);
+      String dbkey = CoreWorkload.buildKeyName(toRecordKeynum(keynum), zeropadding, orderedinserts);
 
       HashMap<String, ByteIterator> values = buildValues(dbkey);
       db.insert(table, dbkey, values);
     } finally {
-      transactioninsertkeysequence.acknowledge(keynum);
+      // only let other threads choose the key once the record is stored
+      db.whenComplete(() -> transactioninsertkeysequence.acknowledge(keynum));
     }
   }
 
@@ -852,13 +1092,13 @@ public class CoreWorkload extends Workload {
    * Creates a weighted discrete values with database operations for a workload to perform.
    * Weights/proportions are read from the properties list and defaults are used
    * when values are not configured.
-   * Current operations are "READ", "UPDATE", "INSERT", "SCAN" and "READMODIFYWRITE".
+   * Current operations are READ, UPDATE, INSERT, SCAN and READMODIFYWRITE.
    *
    * @param p The properties list to pull weights from.
    * @return A generator that can be used to determine the next operation to perform.
    * @throws IllegalArgumentException if the properties object was null.
    */
-  protected static DiscreteGenerator createOperationGenerator(final Properties p) {
+  protected static AliasDiscreteGenerator<OperationType> createOperationGenerator(final Properties p) {
     if (p == null) {
       throw new IllegalArgumentException("Properties object cannot be null");
     }
@@ -873,25 +1113,25 @@ public class CoreWorkload extends Workload {
     final double readmodifywriteproportion = Double.parseDouble(p.getProperty(
         READMODIFYWRITE_PROPORTION_PROPERTY, READMODIFYWRITE_PROPORTION_PROPERTY_DEFAULT));
 
-    final DiscreteGenerator operationchooser = new DiscreteGenerator();
+    final AliasDiscreteGenerator<OperationType> operationchooser = new AliasDiscreteGenerator<>();
     if (readproportion > 0) {
-      operationchooser.addValue(readproportion, "READ");
+      operationchooser.addValue(readproportion, OperationType.READ);
     }
 
     if (updateproportion > 0) {
-      operationchooser.addValue(updateproportion, "UPDATE");
+      operationchooser.addValue(updateproportion, OperationType.UPDATE);
     }
 
     if (insertproportion > 0) {
-      operationchooser.addValue(insertproportion, "INSERT");
+      operationchooser.addValue(insertproportion, OperationType.INSERT);
     }
 
     if (scanproportion > 0) {
-      operationchooser.addValue(scanproportion, "SCAN");
+      operationchooser.addValue(scanproportion, OperationType.SCAN);
     }
 
     if (readmodifywriteproportion > 0) {
-      operationchooser.addValue(readmodifywriteproportion, "READMODIFYWRITE");
+      operationchooser.addValue(readmodifywriteproportion, OperationType.READMODIFYWRITE);
     }
     return operationchooser;
   }
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import site.ycsb.Utils;
+
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Builds the keys of {@link CoreWorkload} into a buffer reused by the calling thread, so that a key
+ * costs a single String rather than the prefix, padding and number strings concatenated one by one.
+ *
+ * Bindings that store keys as bytes can get the bytes of a key with {@link #toBytes(String)}. For
+ * the key most recently built on the calling thread these come from a reused array of the exact
+ * length of the key, so no copy of the String is made. The array is only valid until the next key
+ * is built on the same thread, so it must not be kept beyond the DB call it was passed to.
+ */
+public final class KeyEncoder {
+  private static final String PREFIX = "user";
+
+  private static final ThreadLocal<KeyEncoder> ENCODERS = ThreadLocal.withInitial(KeyEncoder::new);
+
+  private char[] chars = new char[32];
+
+  /**
+   * Reused byte arrays, indexed by the length of the key they hold.
+   */
+  private byte[][] bytes = new byte[chars.length + 1][];
+
+  private String key;
+  private int length;
+  private boolean bytesFilled;
+
+  private KeyEncoder() {
+    PREFIX.getChars(0, PREFIX.length(), chars, 0);
+  }
+
+  /**
+   * @return The key encoder of the calling thread.
+   */
+  public static KeyEncoder get() {
+    return ENCODERS.get();
+  }
+
+  /**
+   * Build a key, the same as {@link CoreWorkload#buildKeyName(long, int, boolean)}.
+   *
+   * @param keynum The number of the key.
+   * @param zeropadding The length the number is padded to with leading zeros.
+   * @param orderedinserts If false, the key number is hashed first.
+   * @return The key.
+   */
+  public String encode(long keynum, int zeropadding, boolean orderedinserts) {
+    if (!orderedinserts) {
+      keynum = Utils.hash(keynum);
+    }
+    int size = stringSize(keynum);
+    int fill = Math.max(0, zeropadding - size);
+    length = PREFIX.length() + fill + size;
+    if (length > chars.length) {
+      chars = Arrays.copyOf(chars, Math.max(length, 2 * chars.length));
+      bytes = Arrays.copyOf(bytes, chars.length + 1);
+    }
+
+    Arrays.fill(chars, PREFIX.length(), PREFIX.length() + fill, '0');
+    int pos = length;
+    long value = keynum;
+    do {
+      chars[--pos] = (char) ('0' + Math.abs(value % 10));
+      value /= 10;
+    } while (value != 0);
+    if (keynum < 0) {
+      chars[--pos] = '-';
+    }
+
+    key = new String(chars, 0, length);
+    bytesFilled = false;
+    return key;
+  }
+
+  /**
+   * Get the bytes of a key as UTF-8.
+   *
+   * @param key The key.
+   * @return The bytes of the key, from a reused array if it is the key most recently built on the
+   *         calling thread.
+   */
+  public static byte[] toBytes(String key) {
+    KeyEncoder encoder = ENCODERS.get();
+    if (key != encoder.key) {
+      return key.getBytes(UTF_8);
+    }
+    byte[] encoded = encoder.bytes[encoder.length];
+    if (encoded == null) {
+      encoded = new byte[encoder.length];
+      encoder.bytes[encoder.length] = encoded;
+    }
+    if (!encoder.bytesFilled) {
+      // keys are ASCII, so every char is one byte
+      for (int i = 0; i < encoder.length; i++) {
+        encoded[i] = (byte) encoder.chars[i];
+      }
+      encoder.bytesFilled = true;
+    }
+    return encoded;
+  }
+
+  private static int stringSize(long value) {
+    int size = value < 0 ? 2 : 1;
+    for (long v = value / 10; v != 0; v /= 10) {
+      size++;
+    }
+    return size;
+  }
+}
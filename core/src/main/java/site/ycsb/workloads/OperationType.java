@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+/**
+ * The kinds of transactions a workload chooses between. Workloads switch on these rather than on the names of
+ * the operations, so choosing one costs no string comparisons.
+ *
+ * This is not {@link site.ycsb.Workload.Operation}, which lists the operations of a database that are measured
+ * one by one: a transaction such as READMODIFYWRITE is made of several of those, and adding it there would
+ * give every database a measurement it never records.
+ */
+public enum OperationType {
+  READ,
+  UPDATE,
+  INSERT,
+  SCAN,
+  READMODIFYWRITE,
+  DELETE
+}
@@ -109,7 +109,7 @@ public class RestWorkload extends CoreWorkload {
   private NumberGenerator deleteKeyChooser;
   private NumberGenerator updateKeyChooser;
   private NumberGenerator fieldlengthgenerator;
-  private DiscreteGenerator operationchooser;
+  private AliasDiscreteGenerator<OperationType> operationchooser;
 
   @Override
   public void init(Properties p) throws WorkloadException {
@@ -147,14 +147,14 @@ public class RestWorkload extends CoreWorkload {
     fieldlengthgenerator = getFieldLengthGenerator(p);
   }
 
-  public static DiscreteGenerator createOperationGenerator(final Properties p) {
+  public static AliasDiscreteGenerator<OperationType> createOperationGenerator(final Properties p) {
     // Re-using CoreWorkload method.
-    final DiscreteGenerator operationChooser = CoreWorkload.createOperationGenerator(p);
+    final AliasDiscreteGenerator<OperationType> operationChooser = CoreWorkload.createOperationGenerator(p);
     // Needs special handling for delete operations not supported in CoreWorkload.
     double deleteproportion = Double
         .parseDouble(p.getProperty(DELETE_PROPORTION_PROPERTY, DELETE_PROPORTION_PROPERTY_DEFAULT));
     if (deleteproportion > 0) {
-      operationChooser.addValue(deleteproportion, "DELETE");
+      operationChooser.addValue(deleteproportion, OperationType.DELETE);
     }
     return operationChooser;
   }
@@ -241,19 +241,19 @@ public class RestWorkload extends CoreWorkload {
 
   @Override
   public boolean doTransaction(DB db, Object threadstate) {
-    String operation = operationchooser.nextString();
+    OperationType operation = operationchooser.nextValue();
     if (operation == null) {
       return false;
     }
 
     switch (operation) {
-    case "UPDATE":
+    case UPDATE:
       doTransactionUpdate(db);
       break;
-    case "INSERT":
+    case INSERT:
       doTransactionInsert(db);
       break;
-    case "DELETE":
+    case DELETE:
       doTransactionDelete(db);
       break;
     default:
@@ -37,7 +37,7 @@ import site.ycsb.StringByteIterator;
 import site.ycsb.Utils;
 import site.ycsb.Workload;
 import site.ycsb.WorkloadException;
-import site.ycsb.generator.DiscreteGenerator;
+import site.ycsb.generator.AliasDiscreteGenerator;
 import site.ycsb.generator.Generator;
 import site.ycsb.generator.HotspotIntegerGenerator;
 import site.ycsb.generator.IncrementingPrintableStringGenerator;
@@ -450,7 +450,7 @@ public class TimeSeriesWorkload extends Workload {
   protected NumberGenerator keychooser;
   
   /** A generator to select what operation to perform during the run phase. */
-  protected DiscreteGenerator operationchooser;
+  protected AliasDiscreteGenerator<OperationType> operationchooser;
   
   /** The maximum number of interval offsets from the starting timestamp. Calculated
    * based on the number of records configured for the run. */
@@ -711,20 +711,24 @@ public class TimeSeriesWorkload extends Workload {
     if (threadstate == null) {
       throw new IllegalStateException("Missing thread state.");
     }
-    switch (operationchooser.nextString()) {
-    case "READ":
+    OperationType operation = operationchooser.nextValue();
+    if (operation == null) {
+      return false;
+    }
+    switch (operation) {
+    case READ:
       doTransactionRead(db, threadstate);
       break;
-    case "UPDATE":
+    case UPDATE:
       doTransactionUpdate(db, threadstate);
       break;
-    case "INSERT": 
+    case INSERT:
       doTransactionInsert(db, threadstate);
       break;
-    case "SCAN":
+    case SCAN:
       doTransactionScan(db, threadstate);
       break;
-    case "DELETE":
+    case DELETE:
       doTransactionDelete(db, threadstate);
       break;
     default:
@@ -918,7 +922,7 @@ public class TimeSeriesWorkload extends Workload {
       verifyStatus = Status.OK;
     }
     long endTime = System.nanoTime();
-    measurements.measure("VERIFY", (int) (endTime - startTime) / 1000);
+    measurements.measureNanos("VERIFY", endTime - startTime);
     measurements.reportStatus("VERIFY", verifyStatus);
     return verifyStatus;
   }
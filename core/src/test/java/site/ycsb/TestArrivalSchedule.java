@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+
+public class TestArrivalSchedule {
+
+  @Test
+  public void noArrivalProcessByDefault() throws Exception {
+    assertNull(ArrivalSchedule.create(new Properties(), 1000));
+  }
+
+  @Test
+  public void uniformArrivalsAreEvenlySpaced() throws Exception {
+    ArrivalSchedule schedule = ArrivalSchedule.create(props("uniform"), 1000);
+    long first = schedule.nextArrivalNanos();
+    for (int i = 1; i < 10; i++) {
+      assertEquals(schedule.nextArrivalNanos() - first, i * 1000000L);
+    }
+  }
+
+  @Test
+  public void poissonArrivalsMatchTheTargetRate() throws Exception {
+    ArrivalSchedule schedule = ArrivalSchedule.create(props("poisson"), 1000);
+    int arrivals = 100000;
+    long first = schedule.nextArrivalNanos();
+    long previous = first;
+    for (int i = 1; i < arrivals; i++) {
+      long next = schedule.nextArrivalNanos();
+      assertTrue(next >= previous);
+      previous = next;
+    }
+    double meanGapMs = (previous - first) / 1e6 / (arrivals - 1);
+    assertEquals(meanGapMs, 1.0, 0.05);
+  }
+
+  @Test
+  public void traceArrivalsAreReplayedThenExhausted() throws Exception {
+    File trace = File.createTempFile("arrivals", ".txt");
+    trace.deleteOnExit();
+    try (FileWriter writer = new FileWriter(trace)) {
+      writer.write("100\n# comment\n100.5\n102\n");
+    }
+    Properties p = props("trace");
+    p.setProperty(ArrivalSchedule.ARRIVAL_TRACE_FILE_PROPERTY, trace.getAbsolutePath());
+    ArrivalSchedule schedule = ArrivalSchedule.create(p, 0);
+    long first = schedule.nextArrivalNanos();
+    assertEquals(schedule.nextArrivalNanos() - first, 500000L);
+    assertEquals(schedule.nextArrivalNanos() - first, 2000000L);
+    assertEquals(schedule.nextArrivalNanos(), ArrivalSchedule.EXHAUSTED);
+  }
+
+  @Test(expectedExceptions = WorkloadException.class)
+  public void poissonArrivalsRequireATarget() throws Exception {
+    ArrivalSchedule.create(props("poisson"), 0);
+  }
+
+  private static Properties props(String arrival) {
+    Properties p = new Properties();
+    p.setProperty(ArrivalSchedule.ARRIVAL_PROPERTY, arrival);
+    return p;
+  }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.htrace.core.HTraceConfiguration;
+import org.apache.htrace.core.Tracer;
+import org.testng.annotations.Test;
+
+import site.ycsb.measurements.Measurements;
+import site.ycsb.workloads.CoreWorkload;
+
+public class TestAsyncDBWrapper {
+
+  private static Properties asyncProperties() {
+    Properties props = new Properties();
+    props.setProperty(Client.INFLIGHT_MAX_PROPERTY, "4");
+    Measurements.setProperties(props);
+    return props;
+  }
+
+  private static Tracer tracer() {
+    return new Tracer.Builder("test").conf(HTraceConfiguration.EMPTY).build();
+  }
+
+  @Test
+  public void runsActionOnceOperationCompletes() throws Exception {
+    DB db = DBFactory.newDB(PendingDB.class.getName(), asyncProperties(), tracer());
+    assertTrue(db instanceof AsyncDBWrapper);
+    PendingDB pending = PendingDB.last;
+
+    assertEquals(db.insert("usertable", "user1", new HashMap<String, ByteIterator>()), Status.BATCHED_OK);
+    AtomicBoolean done = new AtomicBoolean();
+    db.whenComplete(() -> done.set(true));
+    assertFalse(done.get());
+
+    pending.complete(0);
+    assertTrue(done.get());
+    db.cleanup();
+  }
+
+  @Test
+  public void refusesReadDependentWorkloads() throws Exception {
+    Properties props = asyncProperties();
+    props.setProperty(CoreWorkload.DATA_INTEGRITY_PROPERTY, "true");
+    try {
+      DBFactory.newDB(PendingDB.class.getName(), props, tracer());
+      fail("dataintegrity was not refused");
+    } catch (UnknownDBException e) {
+      assertTrue(e.getMessage().contains(CoreWorkload.DATA_INTEGRITY_PROPERTY));
+    }
+
+    props = asyncProperties();
+    props.setProperty(CoreWorkload.READMODIFYWRITE_PROPORTION_PROPERTY, "0.5");
+    try {
+      DBFactory.newDB(PendingDB.class.getName(), props, tracer());
+      fail("read-modify-write was not refused");
+    } catch (UnknownDBException e) {
+      assertTrue(e.getMessage().contains(CoreWorkload.READMODIFYWRITE_PROPORTION_PROPERTY));
+    }
+
+    props.setProperty(Client.INFLIGHT_MAX_PROPERTY, "1");
+    assertFalse(DBFactory.newDB(PendingDB.class.getName(), props, tracer()) instanceof AsyncDBWrapper);
+  }
+
+  /**
+   * Keeps every operation pending until the test completes it.
+   */
+  public static class PendingDB extends AsyncDB {
+    private static PendingDB last;
+
+    private final List<CompletableFuture<Status>> operations = new ArrayList<>();
+
+    public PendingDB() {
+      last = this;
+    }
+
+    void complete(int operation) {
+      operations.get(operation).complete(Status.OK);
+    }
+
+    private CompletableFuture<Status> pending() {
+      CompletableFuture<Status> future = new CompletableFuture<>();
+      operations.add(future);
+      return future;
+    }
+
+    @Override
+    public CompletableFuture<Status> readAsync(String table, String key, Set<String> fields,
+                                               Map<String, ByteIterator> result) {
+      return pending();
+    }
+
+    @Override
+    public CompletableFuture<Status> scanAsync(String table, String startkey, int recordcount, Set<String> fields,
+                                               Vector<HashMap<String, ByteIterator>> result) {
+      return pending();
+    }
+
+    @Override
+    public CompletableFuture<Status> updateAsync(String table, String key, Map<String, ByteIterator> values) {
+      return pending();
+    }
+
+    @Override
+    public CompletableFuture<Status> insertAsync(String table, String key, Map<String, ByteIterator> values) {
+      return pending();
+    }
+
+    @Override
+    public CompletableFuture<Status> deleteAsync(String table, String key) {
+      return pending();
+    }
+  }
+}
@@ -36,4 +36,20 @@ public class TestByteIterator {
     assertFalse(itor.hasNext());
     assertEquals(0, itor.bytesLeft());
   }
+
+  @Test
+  public void testRandomValuePool() {
+    RandomValuePool pool = new RandomValuePool(1000);
+    for (int size : new int[] {0, 1, 100, 1000}) {
+      ByteIterator itor = pool.next(size);
+      assertEquals(size, itor.bytesLeft());
+      for (byte b : itor.toArray()) {
+        assertTrue(b >= ' ' && b <= '~');
+      }
+      assertFalse(itor.hasNext());
+    }
+
+    // values longer than the pool are generated
+    assertEquals(2000, pool.next(2000).toArray().length);
+  }
 }
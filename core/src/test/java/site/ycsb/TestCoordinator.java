@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.measurements.Measurements;
+import site.ycsb.workloads.CoreWorkload;
+
+public class TestCoordinator {
+
+  @Test
+  public void loadIsSplitIntoContiguousSlices() {
+    Properties props = new Properties();
+    props.setProperty(Client.DO_TRANSACTIONS_PROPERTY, "false");
+    props.setProperty(Client.RECORD_COUNT_PROPERTY, "1000");
+    props.setProperty(Workload.INSERT_START_PROPERTY, "10");
+    props.setProperty(Client.INSERT_COUNT_PROPERTY, "990");
+    props.setProperty(Coordinator.WORKERS_PROPERTY, "3");
+
+    long next = 10;
+    for (int i = 0; i < 3; i++) {
+      Properties shard = Coordinator.shard(props, i, 3);
+      assertEquals(Long.parseLong(shard.getProperty(Workload.INSERT_START_PROPERTY)), next);
+      next += Long.parseLong(shard.getProperty(Client.INSERT_COUNT_PROPERTY));
+      assertNull(shard.getProperty(Coordinator.WORKERS_PROPERTY));
+    }
+    assertEquals(next, 1000);
+  }
+
+  @Test
+  public void runSplitsOperationsAndTarget() {
+    Properties props = new Properties();
+    props.setProperty(Client.OPERATION_COUNT_PROPERTY, "10");
+    props.setProperty(Client.TARGET_PROPERTY, "1000");
+
+    long operations = 0;
+    long target = 0;
+    for (int i = 0; i < 4; i++) {
+      Properties shard = Coordinator.shard(props, i, 4);
+      operations += Long.parseLong(shard.getProperty(Client.OPERATION_COUNT_PROPERTY));
+      target += Long.parseLong(shard.getProperty(Client.TARGET_PROPERTY));
+      assertEquals(shard.getProperty(Client.LABEL_PROPERTY), "[worker " + i + "] ");
+    }
+    assertEquals(operations, 10);
+    assertEquals(target, 1000);
+  }
+
+  @Test
+  public void runStripesInserts() {
+    Properties props = new Properties();
+    props.setProperty(Client.OPERATION_COUNT_PROPERTY, "10");
+
+    for (int i = 0; i < 3; i++) {
+      Properties shard = Coordinator.shard(props, i, 3);
+      assertEquals(shard.getProperty(CoreWorkload.TRANSACTION_INSERT_STRIDE_PROPERTY), "3");
+      assertEquals(shard.getProperty(CoreWorkload.TRANSACTION_INSERT_STRIDE_OFFSET_PROPERTY), String.valueOf(i));
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void refusesMeasurementsThatCannotBeMerged() {
+    Properties props = new Properties();
+    props.setProperty(Measurements.MEASUREMENT_TYPE_PROPERTY, "histogram");
+    Coordinator.checkMeasurementType(props);
+  }
+}
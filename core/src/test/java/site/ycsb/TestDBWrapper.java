@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.htrace.core.HTraceConfiguration;
+import org.apache.htrace.core.Tracer;
+import org.testng.annotations.Test;
+
+import site.ycsb.measurements.Measurements;
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+
+public class TestDBWrapper {
+
+  private static Tracer tracer() {
+    return new Tracer.Builder("test").conf(HTraceConfiguration.EMPTY).build();
+  }
+
+  @Test
+  public void breaksLatencyDownIntoStoreAndMarshal() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(Measurements.MEASUREMENT_BREAKDOWN_PROPERTY, "true");
+    props.setProperty(BasicDB.SIMULATE_DELAY, "20");
+    props.setProperty(BasicDB.RANDOMIZE_DELAY, "false");
+    props.setProperty(BasicDB.VERBOSE, "false");
+    Measurements.setProperties(props);
+    DBWrapper db = (DBWrapper) DBFactory.newDB(BasicDB.class.getName(), props, tracer());
+    assertTrue(db.canBreakDown());
+    db.init();
+
+    long st = System.nanoTime();
+    assertEquals(db.read("usertable", "user1", null, new HashMap<String, ByteIterator>()), Status.OK);
+    long latencyNanos = System.nanoTime() - st;
+    long callNanos = db.takeCallNanos();
+    assertTrue(callNanos >= 20000000 && callNanos <= latencyNanos, "call " + callNanos);
+    assertEquals(db.takeCallNanos(), 0);
+
+    Map<String, Double> averages = new HashMap<>();
+    Measurements.getMeasurements().exportMeasurements(new MeasurementsExporter() {
+      @Override
+      public void write(String metric, String measurement, int i) {
+        write(metric, measurement, (double) i);
+      }
+
+      @Override
+      public void write(String metric, String measurement, long i) {
+        write(metric, measurement, (double) i);
+      }
+
+      @Override
+      public void write(String metric, String measurement, double d) {
+        if (measurement.startsWith("AverageLatency")) {
+          averages.put(metric, d);
+        }
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+    // the marked delay is the store, the rest of the read is marshalling
+    assertTrue(averages.get("STORE-READ") >= 20000, averages.toString());
+    assertTrue(averages.get("MARSHAL-READ") < averages.get("STORE-READ"), averages.toString());
+    db.cleanup();
+  }
+
+  @Test
+  public void asyncOperationsAreNotBrokenDown() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(Client.INFLIGHT_MAX_PROPERTY, "4");
+    props.setProperty(Measurements.MEASUREMENT_BREAKDOWN_PROPERTY, "true");
+    Measurements.setProperties(props);
+    DBWrapper db = (DBWrapper) DBFactory.newDB(TestAsyncDBWrapper.PendingDB.class.getName(), props, tracer());
+    assertTrue(db instanceof AsyncDBWrapper);
+    assertFalse(db.canBreakDown());
+  }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+public class TestPhaseSchedule {
+
+  @Test
+  public void parsesPhasesAndDurations() {
+    List<PhaseSchedule.Phase> phases = new PhaseSchedule("warmup:90,measure:2m,cooldown:500ms").getPhases();
+    assertEquals(phases.size(), 3);
+    assertEquals(phases.get(0).getDurationMs(), 90000);
+    assertFalse(phases.get(0).isMeasured());
+    assertEquals(phases.get(1).getName(), "measure");
+    assertEquals(phases.get(1).getDurationMs(), 120000);
+    assertTrue(phases.get(1).isMeasured());
+    assertEquals(phases.get(2).getDurationMs(), 500);
+    assertFalse(phases.get(2).isMeasured());
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rejectsScheduleWithoutMeasuredPhase() {
+    new PhaseSchedule("warmup:10s,cooldown:10s");
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rejectsMalformedPhase() {
+    new PhaseSchedule("warmup");
+  }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+
+public class TestSloSearch {
+
+  @Test
+  public void noSearchWithoutSlo() {
+    assertNull(SloSearch.create(new Properties()));
+  }
+
+  @Test
+  public void latenciesTakeUnits() {
+    assertEquals(SloSearch.parseLatencyUs("800us"), 800);
+    assertEquals(SloSearch.parseLatencyUs("5ms"), 5000);
+    assertEquals(SloSearch.parseLatencyUs("5"), 5000);
+    assertEquals(SloSearch.parseLatencyUs("1s"), 1000000);
+  }
+
+  @Test
+  public void firstTrialIsAtTheMaximumTarget() {
+    Properties props = new Properties();
+    props.setProperty("slo.p99.9", "10ms");
+    props.setProperty(SloSearch.TARGET_MAX_PROPERTY, "20000");
+    SloSearch search = SloSearch.create(props);
+    assertNotNull(search);
+    assertEquals(search.getInitialTarget(), 20000.0);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rejectsTwoSlos() {
+    Properties props = new Properties();
+    props.setProperty("slo.p99", "5ms");
+    props.setProperty("slo.p50", "1ms");
+    SloSearch.create(props);
+  }
+}
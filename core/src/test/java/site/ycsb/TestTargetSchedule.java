@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+public class TestTargetSchedule {
+
+  @Test
+  public void rampIsLinearAndHoldsItsEnd() throws Exception {
+    TargetSchedule schedule = new TargetSchedule("ramp:1000:2000:10s:5");
+    assertEquals(schedule.getTargetAt(0), 1000.0, 0.001);
+    assertEquals(schedule.getTargetAt(5000), 1500.0, 0.001);
+    assertEquals(schedule.getStepAt(5000), 2);
+    assertEquals(schedule.describeStep(2), "1400-1600");
+    assertEquals(schedule.getTargetAt(10000), 2000.0, 0.001);
+    assertEquals(schedule.getStepAt(10000), 5);
+    assertEquals(schedule.getTargetAt(3600000), 2000.0, 0.001);
+  }
+
+  @Test
+  public void startsWithTheFirstClient() throws Exception {
+    TargetSchedule schedule = new TargetSchedule("steps:1000:500:30s:3");
+    schedule.attach(Collections.<ClientThread>emptyList());
+    Thread.sleep(20);
+    assertEquals(schedule.getElapsedMs(), 0);
+    assertEquals(schedule.getStepEndNanos(0), Long.MAX_VALUE);
+
+    long before = System.nanoTime();
+    schedule.begin();
+    long end = schedule.getStepEndNanos(0);
+    assertTrue(end >= before + TimeUnit.SECONDS.toNanos(30), "the first step is shortened");
+    schedule.begin();
+    assertEquals(schedule.getStepEndNanos(0), end);
+  }
+
+  @Test
+  public void staircaseHoldsItsLastStep() throws Exception {
+    TargetSchedule schedule = new TargetSchedule("steps:1000:500:30s:3");
+    assertEquals(schedule.getTargetAt(29999), 1000.0, 0.001);
+    assertEquals(schedule.getTargetAt(30000), 1500.0, 0.001);
+    assertEquals(schedule.getStepAt(90000), 2);
+    assertEquals(schedule.getTargetAt(90000), 2000.0, 0.001);
+  }
+
+  @Test
+  public void csvRowsStartSteps() throws Exception {
+    File csv = File.createTempFile("targets", ".csv");
+    csv.deleteOnExit();
+    try (FileWriter writer = new FileWriter(csv)) {
+      writer.write("# second,ops\n0,100\n10,0\n20,300\n");
+    }
+    TargetSchedule schedule = new TargetSchedule("csv:" + csv.getPath());
+    assertEquals(schedule.getTargetAt(9999), 100.0, 0.001);
+    assertEquals(schedule.getTargetAt(15000), 0.0, 0.001);
+    assertEquals(schedule.getStepAt(20000), 2);
+    assertEquals(schedule.getTargetAt(20000), 300.0, 0.001);
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rejectsUnknownSchedule() throws Exception {
+    new TargetSchedule("sine:1000:2000");
+  }
+}
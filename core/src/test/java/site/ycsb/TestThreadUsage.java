@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.measurements.Measurements;
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+
+public class TestThreadUsage {
+
+  /**
+   * Burns some CPU and allocates on every transaction.
+   */
+  private static final class BusyWorkload extends Workload {
+    private volatile Object sink;
+
+    @Override
+    public boolean doInsert(DB db, Object threadstate) {
+      return doTransaction(db, threadstate);
+    }
+
+    @Override
+    public boolean doTransaction(DB db, Object threadstate) {
+      long x = 0;
+      for (int i = 0; i < 10000; i++) {
+        x += i * 31L ^ x;
+      }
+      sink = new long[] {x, x, x, x};
+      return true;
+    }
+  }
+
+  private static ClientThread client(boolean track, long opcount) {
+    Properties props = new Properties();
+    props.setProperty(Measurements.MEASUREMENT_TRACK_THREADS_PROPERTY, String.valueOf(track));
+    props.setProperty(BasicDB.VERBOSE, "false");
+    Measurements.setProperties(props);
+    DB db = new BasicDB();
+    db.setProperties(props);
+    return new ClientThread(db, true, new BusyWorkload(), props, opcount, 0, new CountDownLatch(1));
+  }
+
+  @Test
+  public void reportsUsageOfTrackedThreadsPerOperation() throws Exception {
+    ClientThread tracked = client(true, 1000);
+    tracked.run();
+    assertEquals(tracked.getOpsDone(), 1000);
+    assertTrue(tracked.getCpuNanos() > 0, "cpu " + tracked.getCpuNanos());
+    if (ThreadUsage.isAllocationSupported()) {
+      assertTrue(tracked.getAllocatedBytes() > 0, "allocated " + tracked.getAllocatedBytes());
+    }
+
+    Map<String, Double> exported = new HashMap<>();
+    ThreadUsage.exportTotals(new MeasurementsExporter() {
+      @Override
+      public void write(String metric, String measurement, int i) {
+        write(metric, measurement, (double) i);
+      }
+
+      @Override
+      public void write(String metric, String measurement, long i) {
+        write(metric, measurement, (double) i);
+      }
+
+      @Override
+      public void write(String metric, String measurement, double d) {
+        exported.put(metric + "/" + measurement, d);
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+    assertTrue(exported.get("CLIENT/CpuTimePerOp(us)") > 0, exported.toString());
+    if (ThreadUsage.isAllocationSupported()) {
+      assertTrue(exported.get("CLIENT/AllocatedBytesPerOp") > 0, exported.toString());
+    }
+  }
+
+  @Test
+  public void untrackedThreadsReportNothing() throws Exception {
+    ClientThread untracked = client(false, 100);
+    untracked.run();
+    assertEquals(untracked.getOpsDone(), 100);
+    assertEquals(untracked.getCpuNanos(), 0);
+    assertEquals(untracked.getAllocatedBytes(), 0);
+  }
+
+  @Test
+  public void threadsTheJvmCannotMeasureAreUntracked() throws Exception {
+    assertTrue(ThreadUsage.enable());
+    // the JVM reports -1 for threads that are gone, as it does for virtual threads
+    Thread gone = new Thread(() -> { });
+    gone.start();
+    gone.join();
+    assertEquals(ThreadUsage.getCpuNanos(gone.getId()), -1);
+
+    ClientThread client = client(true, 0);
+    client.startUsage(gone.getId());
+    assertEquals(client.getCpuNanos(), 0);
+    assertEquals(client.getAllocatedBytes(), 0);
+  }
+
+  @Test
+  public void usageDoesNotGoBackWhenTheThreadEnds() throws Exception {
+    assertTrue(ThreadUsage.enable());
+    AtomicBoolean stop = new AtomicBoolean();
+    CountDownLatch started = new CountDownLatch(1);
+    Thread busy = new Thread(() -> {
+      started.countDown();
+      long x = 0;
+      while (!stop.get()) {
+        x += x * 31 + 1;
+      }
+    });
+    busy.start();
+    started.await();
+
+    ClientThread client = client(true, 0);
+    client.startUsage(busy.getId());
+    long cpuNanos = 0;
+    while (cpuNanos == 0) {
+      cpuNanos = client.getCpuNanos();
+      assertTrue(cpuNanos >= 0, "cpu " + cpuNanos);
+    }
+    long allocatedBytes = client.getAllocatedBytes();
+    assertTrue(allocatedBytes >= 0, "allocated " + allocatedBytes);
+
+    // ended without getting to its done values, e.g. killed by an error
+    stop.set(true);
+    busy.join();
+    assertTrue(client.getCpuNanos() >= cpuNanos, "cpu " + client.getCpuNanos() + " < " + cpuNanos);
+    assertTrue(client.getAllocatedBytes() >= allocatedBytes);
+  }
+}
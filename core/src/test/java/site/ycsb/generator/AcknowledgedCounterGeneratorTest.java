@@ -19,9 +19,13 @@ package site.ycsb.generator;
 import java.util.Random;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.testng.annotations.Test;
 
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
 /**
  * Tests for the AcknowledgedCounterGenerator class.
  */
@@ -32,7 +36,7 @@ public class AcknowledgedCounterGeneratorTest {
    */
   @Test
   public void testIncrementPastIntegerMaxValue() {
-    final long toTry = AcknowledgedCounterGenerator.WINDOW_SIZE * 3;
+    final long toTry = AcknowledgedCounterGenerator.SEGMENT_SIZE * 3;
 
     AcknowledgedCounterGenerator generator =
         new AcknowledgedCounterGenerator(Integer.MAX_VALUE - 1000);
@@ -58,4 +62,100 @@ public class AcknowledgedCounterGeneratorTest {
     }
 
   }
+
+  /**
+   * Test that acknowledgements out of order move the limit correctly past {@link Integer#MAX_VALUE}.
+   */
+  @Test
+  public void testOutOfOrderAcknowledgePastIntegerMaxValue() {
+    final long start = 3L * Integer.MAX_VALUE;
+    AcknowledgedCounterGenerator generator = new AcknowledgedCounterGenerator(start);
+
+    long first = generator.nextValue();
+    long second = generator.nextValue();
+    long third = generator.nextValue();
+    assertEquals(first, start);
+
+    generator.acknowledge(second);
+    assertEquals(generator.lastValue().longValue(), start - 1);
+    generator.acknowledge(first);
+    assertEquals(generator.lastValue().longValue(), second);
+    generator.acknowledge(third);
+    assertEquals(generator.lastValue().longValue(), third);
+  }
+
+  /**
+   * Test that more values than the old window of 2^20 can be unacknowledged at a time.
+   */
+  @Test
+  public void testManyUnacknowledged() {
+    final int count = 3 << 20;
+    AcknowledgedCounterGenerator generator = new AcknowledgedCounterGenerator(0);
+    for (int i = 0; i < count; i++) {
+      generator.nextValue();
+    }
+    for (long value = count - 1; value > 0; value--) {
+      generator.acknowledge(value);
+    }
+    assertEquals(generator.lastValue().longValue(), -1);
+    generator.acknowledge(0);
+    assertEquals(generator.lastValue().longValue(), count - 1);
+  }
+
+  /**
+   * Test that the limit never passes an unacknowledged value and ends at the last one when threads
+   * acknowledge concurrently.
+   */
+  @Test
+  public void testConcurrentAcknowledge() throws Exception {
+    final int perThread = 200000;
+    final AcknowledgedCounterGenerator generator = new AcknowledgedCounterGenerator(0);
+    final AtomicLong failures = new AtomicLong();
+    Thread[] threads = new Thread[8];
+    for (int t = 0; t < threads.length; t++) {
+      final Random rand = new Random(t);
+      threads[t] = new Thread(() -> {
+          long[] pending = new long[64];
+          for (int i = 0; i < perThread; i++) {
+            long value = generator.nextValue();
+            int slot = i;
+            if (i >= pending.length) {
+              slot = rand.nextInt(pending.length);
+              generator.acknowledge(pending[slot]);
+            }
+            pending[slot] = value;
+            if (generator.lastValue() >= value) {
+              failures.incrementAndGet();
+            }
+          }
+          for (long value : pending) {
+            generator.acknowledge(value);
+          }
+        });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(failures.get(), 0);
+    assertEquals(generator.lastValue().longValue(), (long) perThread * threads.length - 1);
+  }
+
+  /**
+   * Test that acknowledging a value twice is rejected.
+   */
+  @Test
+  public void testAcknowledgeTwice() {
+    AcknowledgedCounterGenerator generator = new AcknowledgedCounterGenerator(0);
+    generator.nextValue();
+    generator.nextValue();
+    generator.acknowledge(1);
+    boolean rejected = false;
+    try {
+      generator.acknowledge(1);
+    } catch (IllegalArgumentException e) {
+      rejected = true;
+    }
+    assertTrue(rejected);
+  }
 }
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import org.testng.annotations.Test;
+
+public class TestAliasDiscreteGenerator {
+
+  @Test
+  public void choosesValuesByWeight() {
+    double[] weights = {0.5, 0, 3, 0.05, 1.45, 5};
+    AliasDiscreteGenerator<String> generator = new AliasDiscreteGenerator<>();
+    assertNull(generator.nextValue());
+    double sum = 0;
+    for (int i = 0; i < weights.length; i++) {
+      generator.addValue(weights[i], "V" + i);
+      sum += weights[i];
+    }
+
+    int samples = 200000;
+    long[] counts = new long[weights.length];
+    for (int i = 0; i < samples; i++) {
+      counts[Integer.parseInt(generator.nextValue().substring(1))]++;
+    }
+    for (int i = 0; i < weights.length; i++) {
+      double expected = samples * weights[i] / sum;
+      // well within 5 standard deviations
+      assertEquals(counts[i], expected, 5 * Math.sqrt(expected) + 1, "V" + i);
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void rejectsNegativeWeights() {
+    new AliasDiscreteGenerator<String>().addValue(-1, "V");
+  }
+}
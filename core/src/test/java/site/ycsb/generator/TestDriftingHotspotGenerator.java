@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+public class TestDriftingHotspotGenerator {
+
+  @Test
+  public void slidesHotSetEveryPeriod() {
+    // 1000 items, the first 100 ranks get 90% of the operations
+    HotspotIntegerGenerator ranks = new HotspotIntegerGenerator(0, 999, 0.1, 0.9);
+    DriftingHotspotGenerator generator =
+        new DriftingHotspotGenerator(10, 1009, ranks, DriftingHotspotGenerator.Mode.SLIDE, 950, 10000, 0);
+
+    int hot = 0;
+    for (int i = 0; i < 10000; i++) {
+      long item = generator.nextValue();
+      assertTrue(item >= 10 && item < 1010, "item " + item);
+      hot += item < 110 ? 1 : 0;
+    }
+    assertTrue(hot > 8500, "hot " + hot);
+    assertEquals(generator.getPeriod(), 0);
+
+    // slid by 950, wrapping around: 960 to 1009 and 10 to 59
+    hot = 0;
+    for (int i = 0; i < 10000; i++) {
+      long item = generator.nextValue();
+      assertTrue(item >= 10 && item < 1010, "item " + item);
+      hot += item >= 960 || item < 60 ? 1 : 0;
+    }
+    assertTrue(hot > 8500, "hot " + hot);
+    assertEquals(generator.getPeriod(), 1);
+  }
+
+  @Test
+  public void replacesAndRotatesHotSet() throws Exception {
+    for (DriftingHotspotGenerator.Mode mode :
+        new DriftingHotspotGenerator.Mode[] {DriftingHotspotGenerator.Mode.REPLACE,
+            DriftingHotspotGenerator.Mode.ROTATE}) {
+      RejectionInversionZipfianGenerator ranks = new RejectionInversionZipfianGenerator(1000, 1.5);
+      DriftingHotspotGenerator generator = new DriftingHotspotGenerator(10, 1009, ranks, mode, 1, 100, 0);
+      File schedule = File.createTempFile("drift", ".csv");
+      schedule.deleteOnExit();
+      generator.recordSchedule(schedule.getPath());
+      for (int i = 0; i < 300; i++) {
+        generator.nextValue();
+      }
+      generator.close();
+      List<String> lines = Files.readAllLines(schedule.toPath());
+      assertEquals(lines.size(), 1 + 3, mode.name());
+      assertTrue(lines.get(2).matches("\\d+,100,1,\\d+"), lines.get(2));
+      assertNotEquals(lines.get(1).split(",")[3], lines.get(2).split(",")[3], mode.name());
+    }
+  }
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+public class TestHotspotIntegerGenerator {
+
+  @Test
+  public void hotSetSpansLargeKeyspaces() {
+    // a hot set of 5 billion keys, which all operations go to
+    HotspotIntegerGenerator generator = new HotspotIntegerGenerator(0, 9999999999L, 0.5, 1.0);
+    boolean beyondInt = false;
+    for (int i = 0; i < 1000; i++) {
+      long value = generator.nextValue();
+      assertTrue(value >= 0 && value < 5000000000L, "value " + value);
+      beyondInt |= value > Integer.MAX_VALUE;
+    }
+    assertTrue(beyondInt, "the hot set was cut off at Integer.MAX_VALUE");
+  }
+}
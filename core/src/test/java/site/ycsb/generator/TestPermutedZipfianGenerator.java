@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+public class TestPermutedZipfianGenerator {
+
+  @Test
+  public void permutesEveryValueOnce() {
+    for (long n : new long[] {1, 2, 3, 7, 1000, 1024, 1025, 65537}) {
+      FeistelPermutation permutation = new FeistelPermutation(n, PermutedZipfianGenerator.DEFAULT_SEED);
+      boolean[] seen = new boolean[(int) n];
+      for (long x = 0; x < n; x++) {
+        long y = permutation.permute(x);
+        assertTrue(y >= 0 && y < n, n + ": " + x + " -> " + y);
+        assertTrue(!seen[(int) y], n + ": " + y + " twice");
+        seen[(int) y] = true;
+      }
+    }
+    FeistelPermutation huge = new FeistelPermutation(Long.MAX_VALUE, 1);
+    for (long x = Long.MAX_VALUE - 1000; x < Long.MAX_VALUE; x++) {
+      assertTrue(huge.permute(x) >= 0);
+    }
+  }
+
+  @Test
+  public void keepsPopularityOfRanks() {
+    int items = 50;
+    double constant = 1.1;
+    PermutedZipfianGenerator zipfian = new PermutedZipfianGenerator(100, 100 + items - 1, constant);
+    FeistelPermutation permutation = new FeistelPermutation(items, PermutedZipfianGenerator.DEFAULT_SEED);
+    int samples = 200000;
+    long[] counts = new long[items];
+    for (int i = 0; i < samples; i++) {
+      long item = zipfian.nextValue();
+      assertTrue(item >= 100 && item < 100 + items, "item " + item);
+      counts[(int) (item - 100)]++;
+    }
+
+    double zeta = ZipfianGenerator.zetastatic(items, constant);
+    for (int rank = 0; rank < items; rank++) {
+      double expected = samples / Math.pow(rank + 1, constant) / zeta;
+      long count = counts[(int) permutation.permute(rank)];
+      assertEquals(count, expected, 5 * Math.sqrt(expected) + 1, "rank " + rank);
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.generator;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+public class TestRejectionInversionZipfianGenerator {
+
+  @Test
+  public void samplesExactDistribution() {
+    for (double constant : new double[] {0.5, 0.99, 1.0, 2.5}) {
+      int items = 20;
+      RejectionInversionZipfianGenerator zipfian = new RejectionInversionZipfianGenerator(5, 5 + items - 1, constant);
+      int samples = 200000;
+      long[] counts = new long[items];
+      for (int i = 0; i < samples; i++) {
+        long item = zipfian.nextValue();
+        assertTrue(item >= 5 && item < 5 + items, "item " + item);
+        counts[(int) (item - 5)]++;
+      }
+
+      double zeta = ZipfianGenerator.zetastatic(items, constant);
+      for (int k = 0; k < items; k++) {
+        double expected = samples / Math.pow(k + 1, constant) / zeta;
+        // well within 5 standard deviations
+        assertEquals(counts[k], expected, 5 * Math.sqrt(expected) + 1, "constant " + constant + " item " + k);
+      }
+    }
+  }
+
+  @Test
+  public void followsGrowingItemCount() {
+    RejectionInversionZipfianGenerator zipfian = new RejectionInversionZipfianGenerator(10);
+    boolean grown = false;
+    for (int i = 0; i < 100000; i++) {
+      long item = zipfian.nextLong(1000000);
+      assertTrue(item >= 0 && item < 1000000);
+      grown |= item >= 10;
+    }
+    assertTrue(grown);
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(zipfian.nextValue() < 10);
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.jfr;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.io.File;
+import java.util.List;
+import java.util.Properties;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.annotations.Test;
+
+import site.ycsb.Status;
+import site.ycsb.Workload;
+
+public class TestFlightRecorderEvents {
+
+  @Test
+  public void emitsOperationsAboveThreshold() throws Exception {
+    Properties props = new Properties();
+    assertNull(FlightRecorderEvents.forOperations(props));
+
+    props.setProperty(FlightRecorderEvents.EVENTS_PROPERTY, "true");
+    props.setProperty(FlightRecorderEvents.THRESHOLD_PROPERTY, "100");
+    FlightRecorderEvents events = FlightRecorderEvents.forOperations(props);
+    FlightRecorderEvents.configure(props);
+
+    File file = File.createTempFile("ycsb", ".jfr");
+    file.deleteOnExit();
+    try (Recording recording = new Recording()) {
+      recording.enable("site.ycsb.Operation");
+      recording.enable("site.ycsb.Phase");
+      recording.start();
+
+      FlightRecorderEvents.endPhase(FlightRecorderEvents.beginPhase("run"));
+      events.begin();
+      events.commit(Workload.Operation.READ, "usertable", "user1", Status.OK, 200000);
+      events.begin();
+      events.commit(Workload.Operation.READ, "usertable", "user2", Status.OK, 50000);
+      // completed on another thread, without a begun event
+      events.commit(Workload.Operation.UPDATE, "usertable", "user3", Status.ERROR, 300000);
+
+      recording.stop();
+      recording.dump(file.toPath());
+    }
+    FlightRecorderEvents.configure(new Properties());
+
+    List<RecordedEvent> recorded = RecordingFile.readAllEvents(file.toPath());
+    recorded.sort((a, b) -> a.getEventType().getName().compareTo(b.getEventType().getName()));
+    assertEquals(recorded.size(), 3);
+    assertEquals(recorded.get(0).getString("operation"), "READ");
+    assertEquals(recorded.get(0).getInt("keyHash"), "user1".hashCode());
+    assertEquals(recorded.get(0).getDuration("latency").toNanos(), 200000L);
+    assertEquals(recorded.get(1).getString("operation"), "UPDATE");
+    assertEquals(recorded.get(1).getString("status"), "ERROR");
+    assertEquals(recorded.get(2).getString("phase"), "run");
+  }
+
+  @Test
+  public void skipsOperationsBegunWithoutRecording() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(FlightRecorderEvents.EVENTS_PROPERTY, "true");
+    FlightRecorderEvents events = FlightRecorderEvents.forOperations(props);
+
+    File file = File.createTempFile("ycsb", ".jfr");
+    file.deleteOnExit();
+    // begun before any recording records operations, so no event is started for it
+    events.begin();
+    try (Recording recording = new Recording()) {
+      recording.enable("site.ycsb.Operation");
+      recording.start();
+
+      events.commit(Workload.Operation.READ, "usertable", "user1", Status.OK, 200000);
+      events.begin();
+      events.commit(Workload.Operation.READ, "usertable", "user2", Status.OK, 200000);
+
+      recording.stop();
+      recording.dump(file.toPath());
+    }
+
+    List<RecordedEvent> recorded = RecordingFile.readAllEvents(file.toPath());
+    assertEquals(recorded.size(), 1);
+    assertEquals(recorded.get(0).getInt("keyHash"), "user2".hashCode());
+  }
+}
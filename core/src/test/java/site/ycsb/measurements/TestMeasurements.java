@@ -0,0 +1,278 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.measurements;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.Status;
+import site.ycsb.Workload;
+import site.ycsb.measurements.exporter.MeasurementsExporter;
+
+public class TestMeasurements {
+
+  private static Map<String, OneMeasurement> byName(Measurements measurements) {
+    Map<String, OneMeasurement> all = new HashMap<>();
+    for (OneMeasurement m : measurements.getAllMeasurements()) {
+      all.put(m.getName(), m);
+    }
+    return all;
+  }
+
+  @Test
+  public void measuresOperationsByStatus() {
+    Properties props = new Properties();
+    props.setProperty(Measurements.MEASUREMENT_INTERVAL, "both");
+    Measurements measurements = new Measurements(props);
+    Status custom = new Status("TIMEOUT", "The operation timed out.");
+
+    for (int i = 0; i < 3; i++) {
+      measurements.measureNanos(Workload.Operation.READ, Status.OK, "READ", 10000, 20000);
+    }
+    for (int i = 0; i < 2; i++) {
+      measurements.measureNanos(Workload.Operation.READ, Status.ERROR, "READ-FAILED", 10000, 20000);
+    }
+    measurements.measureNanos(Workload.Operation.READ, custom, "READ-FAILED", 10000, 20000);
+
+    Map<String, OneMeasurement> all = byName(measurements);
+    assertEquals(all.keySet().size(), 4);
+    assertTrue(all.containsKey("Intended-READ-FAILED"));
+    Map<Status, ?> codes = all.get("READ").getReturnCodes();
+    assertEquals(codes.get(Status.OK).toString(), "3");
+    assertEquals(codes.get(Status.ERROR).toString(), "2");
+    assertEquals(codes.get(custom).toString(), "1");
+    assertTrue(all.get("READ-FAILED").getReturnCodes().isEmpty());
+
+    measurements.reset();
+    measurements.measureNanos(Workload.Operation.READ, Status.ERROR, "READ-FAILED", 10000, 20000);
+    all = byName(measurements);
+    assertEquals(all.get("READ").getReturnCodes().get(Status.ERROR).toString(), "1");
+  }
+
+  @Test
+  public void numbersPredefinedStatuses() {
+    assertEquals(Status.getPredefined().size(), Status.getPredefinedCount());
+    for (int i = 0; i < Status.getPredefinedCount(); i++) {
+      assertEquals(Status.getPredefined().get(i).getOrdinal(), i);
+    }
+    assertEquals(new Status("OK", "The operation completed successfully.").getOrdinal(), -1);
+  }
+
+  @Test
+  public void mergesConcurrentMeasurements() throws Exception {
+    for (String type : new String[] {"histogram", "timeseries"}) {
+      Properties props = new Properties();
+      props.setProperty(Measurements.MEASUREMENT_TYPE_PROPERTY, type);
+      final Measurements measurements = new Measurements(props);
+      Thread[] threads = new Thread[8];
+      for (int t = 0; t < threads.length; t++) {
+        final int latency = 100 * (t + 1);
+        threads[t] = new Thread(() -> {
+            for (int i = 0; i < 10000; i++) {
+              measurements.measure("READ", latency);
+            }
+          });
+        threads[t].start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+
+      CapturingExporter exported = new CapturingExporter();
+      measurements.exportMeasurements(exported);
+      assertEquals(exported.get("READ", "Operations").longValue(), 80000L, type);
+      assertEquals(exported.get("READ", "AverageLatency(us)").doubleValue(), 450.0, 0.001, type);
+      assertEquals(exported.get("READ", "MinLatency(us)").intValue(), 100, type);
+      assertEquals(exported.get("READ", "MaxLatency(us)").intValue(), 800, type);
+    }
+  }
+
+  @Test
+  public void writesRawBinaryLog() throws Exception {
+    File file = File.createTempFile("raw", ".bin");
+    file.deleteOnExit();
+    Properties props = new Properties();
+    props.setProperty(Measurements.MEASUREMENT_TYPE_PROPERTY, "rawbinary");
+    props.setProperty(OneMeasurementRawBinary.OUTPUT_FILE_PATH, file.getPath());
+    Measurements measurements = new Measurements(props);
+
+    // discarded by the reset, as after a warmup
+    measurements.measureNanos(Workload.Operation.READ, Status.OK, "READ", 1000000000, 0);
+    measurements.reset();
+    for (int i = 1; i <= 100; i++) {
+      measurements.measureNanos(Workload.Operation.READ, Status.OK, "READ", i * 1000L, 0);
+    }
+    measurements.measureNanos(Workload.Operation.UPDATE, Status.ERROR, "UPDATE-FAILED", 7000, 0);
+    measurements.exportMeasurements(new CapturingExporter());
+
+    RawLogReader reader = new RawLogReader(file.getPath());
+    assertEquals(reader.getRecords(), 101);
+    CapturingExporter summary = new CapturingExporter();
+    reader.exportSummary(summary);
+    assertEquals(summary.get("READ", "Operations").longValue(), 100);
+    assertEquals(summary.get("READ", "p50").intValue(), 51);
+    assertEquals(summary.get("READ", "p99").intValue(), 100);
+    assertEquals(summary.get("READ", "MaxLatency(us)").intValue(), 100);
+    assertEquals(summary.get("READ", "Return=OK").longValue(), 100);
+    assertEquals(summary.get("UPDATE-FAILED", "Return=ERROR").longValue(), 1);
+  }
+
+  @Test
+  public void recordsNanoseconds() throws Exception {
+    Properties props = new Properties();
+    props.setProperty(Measurements.MEASUREMENT_UNIT_PROPERTY, "ns");
+    Measurements measurements = new Measurements(props);
+    // nothing measured yet can't meet a latency objective
+    assertEquals(measurements.getWorstPercentileLatency(99), -1);
+    measurements.measureNanos(Workload.Operation.READ, Status.OK, "READ", 1500, 0);
+    measurements.measureNanos(Workload.Operation.READ, Status.OK, "READ", 2500, 0);
+
+    CapturingExporter exported = new CapturingExporter();
+    measurements.exportMeasurements(exported);
+    assertEquals(exported.get("READ", "AverageLatency(ns)").doubleValue(), 2000.0, 1.0);
+    assertEquals(exported.get("READ", "MinLatency(ns)").longValue(), 1500L);
+    // in us for latency objectives, rounded up
+    assertEquals(measurements.getWorstPercentileLatency(99), 3);
+
+    props.setProperty(Measurements.MEASUREMENT_UNIT_PROPERTY, "us");
+    measurements = new Measurements(props);
+    measurements.measureNanos(Workload.Operation.READ, Status.OK, "READ", 1500, 0);
+    exported = new CapturingExporter();
+    measurements.exportMeasurements(exported);
+    assertEquals(exported.get("READ", "MinLatency(us)").longValue(), 1L);
+  }
+
+  @Test
+  public void worstLatencyIncludesIntendedLatency() {
+    Properties props = new Properties();
+    props.setProperty(Measurements.MEASUREMENT_INTERVAL, "both");
+    Measurements measurements = new Measurements(props);
+    for (int i = 0; i < 100; i++) {
+      // the operations are fast, but started long after they were meant to
+      measurements.measureNanos(Workload.Operation.READ, Status.OK, "READ", 1000, 50000000);
+    }
+    assertTrue(measurements.getWorstPercentileLatency(99) >= 50000, "only the intended latency misses");
+  }
+
+  @Test
+  public void worstLatencyLeavesTheIntervalAlone() throws Exception {
+    Measurements measurements = new Measurements(new Properties());
+    measurements.measureNanos(Workload.Operation.READ, Status.OK, "READ", 1000000, 0);
+    assertEquals(measurements.getWorstPercentileLatency(99), 1000, 1);
+    measurements.measureNanos(Workload.Operation.READ, Status.OK, "READ", 2000000, 0);
+    assertEquals(measurements.getWorstPercentileLatency(99), 2000, 2);
+
+    String summary = measurements.getSummary();
+    assertTrue(summary.contains("[READ: Count=2,"), summary);
+    CapturingExporter interval = new CapturingExporter();
+    measurements.exportIntervalMeasurements(interval);
+    assertEquals(interval.get("READ", "Operations").longValue(), 2L);
+  }
+
+  @Test
+  public void keepsSlowestOperationsAndOutliers() throws Exception {
+    File file = File.createTempFile("slowops", ".csv");
+    file.deleteOnExit();
+    Properties props = new Properties();
+    props.setProperty(SlowOperations.COUNT_PROPERTY, "3");
+    props.setProperty(SlowOperations.THRESHOLD_PROPERTY, "500");
+    props.setProperty(SlowOperations.OUTLIERS_PROPERTY, "2");
+    props.setProperty(SlowOperations.OUTPUT_FILE_PROPERTY, file.getPath());
+    Measurements measurements = new Measurements(props);
+
+    // latencies of 0, 100, ..., 900 us, so 600, 700, 800 and 900 are outliers
+    for (int i = 0; i < 10; i++) {
+      long latency = 100000L * i;
+      measurements.measureSlowOperation(Workload.Operation.READ, Status.OK, "usertable", "user" + i,
+          0, 1000, 1000 + latency);
+    }
+    CapturingExporter exported = new CapturingExporter();
+    measurements.exportMeasurements(exported);
+    assertEquals(exported.get("SLOWOPS", "Outliers").longValue(), 4L);
+
+    List<String> lines = Files.readAllLines(file.toPath());
+    assertEquals(lines.size(), 1 + 2 + 3);
+    assertTrue(lines.get(1).startsWith("OUTLIER,READ,OK,usertable,user"));
+    assertTrue(lines.get(3).startsWith("SLOWEST,READ,OK,usertable,user9,"));
+    assertTrue(lines.get(3).endsWith(",900000"));
+    assertTrue(lines.get(4).startsWith("SLOWEST,READ,OK,usertable,user8,"));
+    assertTrue(lines.get(5).startsWith("SLOWEST,READ,OK,usertable,user7,"));
+  }
+
+  @Test
+  public void attributesSlowOperationsToTheIssuingThread() throws Exception {
+    File file = File.createTempFile("slowops", ".csv");
+    file.deleteOnExit();
+    Properties props = new Properties();
+    props.setProperty(SlowOperations.COUNT_PROPERTY, "1");
+    props.setProperty(SlowOperations.OUTPUT_FILE_PROPERTY, file.getPath());
+    Measurements measurements = new Measurements(props);
+
+    // issued here, completed on another thread as with an asynchronous binding
+    SlowOperations.Recorder recorder = measurements.getSlowOperationsRecorder();
+    Thread completion = new Thread(() ->
+        recorder.record(Workload.Operation.READ, Status.OK, "usertable", "user1", 0, 1000, 2000));
+    completion.start();
+    completion.join();
+    measurements.exportMeasurements(new CapturingExporter());
+
+    List<String> lines = Files.readAllLines(file.toPath());
+    assertEquals(lines.size(), 2);
+    assertTrue(lines.get(1).startsWith("SLOWEST,READ,OK,usertable,user1," + Thread.currentThread().getId() + ","),
+        lines.get(1));
+  }
+
+  /**
+   * Keeps everything exported by metric and measurement.
+   */
+  private static class CapturingExporter implements MeasurementsExporter {
+    private final Map<String, Number> exported = new HashMap<>();
+
+    Number get(String metric, String measurement) {
+      return exported.get(metric + "/" + measurement);
+    }
+
+    @Override
+    public void write(String metric, String measurement, int i) {
+      exported.put(metric + "/" + measurement, i);
+    }
+
+    @Override
+    public void write(String metric, String measurement, long i) {
+      exported.put(metric + "/" + measurement, i);
+    }
+
+    @Override
+    public void write(String metric, String measurement, double d) {
+      exported.put(metric + "/" + measurement, d);
+    }
+
+    @Override
+    public void close() {
+    }
+  }
+}
@@ -58,4 +58,69 @@ public class TestMeasurementsExporter {
         assertEquals(json.get(4).get("measurement").asText(), "MaxLatency(us)");
         assertEquals(json.get(11).get("measurement").asText(), "4");
     }
+
+    @Test
+    public void testIntervalMeasurementsAsCSV() throws IOException {
+        Measurements mm = new Measurements(new Properties());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CSVMeasurementsExporter export = new CSVMeasurementsExporter(out);
+
+        for (int i = 1; i <= 100; i++) {
+            mm.measure("READ", i);
+        }
+        mm.getSummary();
+        mm.exportIntervalMeasurements(export);
+        mm.measure("READ", 1000);
+        mm.getSummary();
+        mm.exportIntervalMeasurements(export);
+        export.flush();
+
+        String[] lines = out.toString("UTF-8").split("\n");
+        assertEquals("metric,measurement,value", lines[0]);
+        assertEquals("READ,Operations,100", lines[1]);
+        assertEquals("READ,50thPercentileLatency(us),50", lines[3]);
+        assertEquals("READ,MaxLatency(us),100", lines[7]);
+        assertEquals("READ,Operations,1", lines[8]);
+        assertEquals("READ,MaxLatency(us),1000", lines[14]);
+        export.close();
+    }
+
+    @Test
+    public void testTimestampedIntervalsAsCSV() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CSVMeasurementsExporter export = new CSVMeasurementsExporter(out);
+        export.beginInterval(1000L);
+        export.write("INTERVAL", "Operations", 10L);
+        export.write("READ", "Operations", 10L);
+        export.beginInterval(2000L);
+        export.write("READ", "Operations", 5L);
+        export.close();
+
+        assertEquals("timestamp,metric,measurement,value\n"
+            + "1000,INTERVAL,Operations,10\n"
+            + "1000,READ,Operations,10\n"
+            + "2000,READ,Operations,5\n", out.toString("UTF-8").replace(System.lineSeparator(), "\n"));
+    }
+
+    @Test
+    public void testPrometheusMeasurementsExporter() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrometheusMeasurementsExporter export = new PrometheusMeasurementsExporter(out);
+        export.write("READ", "Operations", 10L);
+        export.write("READ", "99.9PercentileLatency(us)", 120L);
+        export.write("UPDATE", "Operations", 5L);
+        export.write("UPDATE", "Return=OK", 5);
+        export.write("INTERVAL", "Throughput(ops/sec)", 15.0);
+        export.close();
+
+        assertEquals("# TYPE ycsb_operations gauge\n"
+            + "ycsb_operations{metric=\"READ\"} 10\n"
+            + "ycsb_operations{metric=\"UPDATE\"} 5\n"
+            + "# TYPE ycsb_latency_us gauge\n"
+            + "ycsb_latency_us{metric=\"READ\",quantile=\"0.999\"} 120\n"
+            + "# TYPE ycsb_return_total counter\n"
+            + "ycsb_return_total{metric=\"UPDATE\",status=\"OK\"} 5\n"
+            + "# TYPE ycsb_throughput_ops_per_sec gauge\n"
+            + "ycsb_throughput_ops_per_sec{metric=\"INTERVAL\"} 15.0\n", out.toString("UTF-8"));
+    }
 }
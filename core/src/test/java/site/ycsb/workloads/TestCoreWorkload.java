@@ -16,13 +16,18 @@
  */
 package site.ycsb.workloads;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
+import java.util.HashSet;
 import java.util.Properties;
+import java.util.Set;
 
 import org.testng.annotations.Test;
 
-import site.ycsb.generator.DiscreteGenerator;
+import site.ycsb.Client;
+import site.ycsb.generator.AliasDiscreteGenerator;
+import site.ycsb.measurements.Measurements;
 
 public class TestCoreWorkload {
 
@@ -34,21 +39,21 @@ public class TestCoreWorkload {
     p.setProperty(CoreWorkload.INSERT_PROPORTION_PROPERTY, "0.20");
     p.setProperty(CoreWorkload.SCAN_PROPORTION_PROPERTY, "0.20");
     p.setProperty(CoreWorkload.READMODIFYWRITE_PROPORTION_PROPERTY, "0.20");
-    final DiscreteGenerator generator = CoreWorkload.createOperationGenerator(p);
+    final AliasDiscreteGenerator<OperationType> generator = CoreWorkload.createOperationGenerator(p);
     final int[] counts = new int[5];
     
     for (int i = 0; i < 100; ++i) {
-      switch (generator.nextString()) {
-      case "READ":
+      switch (generator.nextValue()) {
+      case READ:
         ++counts[0];
         break;
-      case "UPDATE":
+      case UPDATE:
         ++counts[1];
         break;
-      case "INSERT": 
+      case INSERT:
         ++counts[2];
         break;
-      case "SCAN":
+      case SCAN:
         ++counts[3];
         break;
       default:
@@ -67,4 +72,25 @@ public class TestCoreWorkload {
   public void createOperationChooserNullProperties() {
     CoreWorkload.createOperationGenerator(null);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void stripesTransactionInserts() throws Exception {
+    Measurements.setProperties(new Properties());
+    Set<Long> keys = new HashSet<>();
+    for (int i = 0; i < 3; i++) {
+      Properties p = new Properties();
+      p.setProperty(Client.RECORD_COUNT_PROPERTY, "100");
+      p.setProperty(CoreWorkload.TRANSACTION_INSERT_STRIDE_PROPERTY, "3");
+      p.setProperty(CoreWorkload.TRANSACTION_INSERT_STRIDE_OFFSET_PROPERTY, String.valueOf(i));
+      CoreWorkload workload = new CoreWorkload();
+      workload.init(p);
+      assertEquals(workload.toRecordKeynum(99), 99);
+      for (int j = 0; j < 10; j++) {
+        long keynum = workload.toRecordKeynum(workload.transactioninsertkeysequence.nextValue());
+        assertEquals(keynum % 3, (100 + i) % 3);
+        assertTrue(keys.add(keynum));
+      }
+    }
+    assertEquals(keys.size(), 30);
+  }
+}
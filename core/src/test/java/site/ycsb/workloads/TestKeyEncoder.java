@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2020 YCSB contributors. All rights reserved.
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you
+ * may not use this file except in compliance with the License. You
+ * may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied. See the License for the specific language governing
+ * permissions and limitations under the License. See accompanying
+ * LICENSE file.
+ */
+
+package site.ycsb.workloads;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+import org.testng.annotations.Test;
+
+import site.ycsb.Utils;
+
+public class TestKeyEncoder {
+
+  private static String concatenated(long keynum, int zeropadding, boolean orderedinserts) {
+    if (!orderedinserts) {
+      keynum = Utils.hash(keynum);
+    }
+    String value = Long.toString(keynum);
+    StringBuilder key = new StringBuilder("user");
+    for (int i = value.length(); i < zeropadding; i++) {
+      key.append('0');
+    }
+    return key.append(value).toString();
+  }
+
+  @Test
+  public void matchesConcatenatedKeys() {
+    long[] keynums = {0, 1, 9, 10, 12345, Integer.MAX_VALUE, 3L * Integer.MAX_VALUE, Long.MAX_VALUE, -1,
+        Long.MIN_VALUE};
+    KeyEncoder encoder = KeyEncoder.get();
+    for (long keynum : keynums) {
+      for (int zeropadding : new int[] {1, 8, 20, 40}) {
+        assertEquals(encoder.encode(keynum, zeropadding, true), concatenated(keynum, zeropadding, true));
+        assertEquals(encoder.encode(keynum, zeropadding, false), concatenated(keynum, zeropadding, false));
+      }
+    }
+  }
+
+  @Test
+  public void reusesBytesOfLastKey() {
+    String key = CoreWorkload.buildKeyName(42, 10, true);
+    byte[] bytes = KeyEncoder.toBytes(key);
+    assertEquals(new String(bytes, UTF_8), "user0000000042");
+    assertSame(KeyEncoder.toBytes(key), bytes);
+
+    String other = CoreWorkload.buildKeyName(43, 10, true);
+    assertSame(KeyEncoder.toBytes(other), bytes);
+    assertEquals(new String(bytes, UTF_8), "user0000000043");
+
+    // a key not built last gets its own bytes
+    assertEquals(new String(KeyEncoder.toBytes(key), UTF_8), "user0000000042");
+    assertEquals(new String(KeyEncoder.toBytes("user1"), UTF_8), "user1");
+  }
+}
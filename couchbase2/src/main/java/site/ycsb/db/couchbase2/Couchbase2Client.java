@@ -25,6 +25,7 @@ import com.couchbase.client.core.metrics.DefaultLatencyMetricsCollectorConfig;
 import com.couchbase.client.core.metrics.DefaultMetricsCollectorConfig;
 import com.couchbase.client.core.metrics.LatencyMetricsCollectorConfig;
 import com.couchbase.client.core.metrics.MetricsCollectorConfig;
+import com.couchbase.client.core.time.Delay;
 import com.couchbase.client.deps.com.fasterxml.jackson.core.JsonFactory;
 import com.couchbase.client.deps.com.fasterxml.jackson.core.JsonGenerator;
 import com.couchbase.client.deps.com.fasterxml.jackson.databind.JsonNode;
@@ -52,8 +53,9 @@ import com.couchbase.client.java.error.TemporaryFailureException;
 import com.couchbase.client.java.query.*;
 import com.couchbase.client.java.transcoder.JacksonTransformers;
 import com.couchbase.client.java.util.Blocking;
+import com.couchbase.client.java.util.retry.RetryBuilder;
+import site.ycsb.AsyncDB;
 import site.ycsb.ByteIterator;
-import site.ycsb.DB;
 import site.ycsb.DBException;
 import site.ycsb.Status;
 import site.ycsb.StringByteIterator;
@@ -66,6 +68,7 @@ import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.channels.spi.SelectorProvider;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
@@ -96,8 +99,12 @@ import java.util.concurrent.locks.LockSupport;
  * <li><b>couchbase.documentExpiry=0</b> Document Expiry is the amount of time until a document expires in
  *      Couchbase.</li>
  * </ul>
+ *
+ * <p> Run with <b>inflight.max</b> greater than one to keep several Key/Value operations and full document scans
+ * outstanding per client thread. Operations through N1QL (<b>couchbase.kv=false</b>, or scans of some fields) are
+ * still performed one at a time.
  */
-public class Couchbase2Client extends DB {
+public class Couchbase2Client extends AsyncDB {
 
   static {
     // No need to send the full encoded_plan for this benchmark workload, less network overhead!
@@ -105,6 +112,7 @@ public class Couchbase2Client extends DB {
   }
 
   private static final String SEPARATOR = ":";
+  private static final int INSERT_TRIES = 60; // roughly 60 seconds with the 1 second delay, not 100% accurate.
   private static final CouchbaseLogger LOGGER = CouchbaseLoggerFactory.getInstance(Couchbase2Client.class);
   private static final Object INIT_COORDINATOR = new Object();
 
@@ -411,9 +419,7 @@ public class Couchbase2Client extends DB {
    * @return The result of the operation.
    */
   private Status insertKv(final String docId, final Map<String, ByteIterator> values) {
-    int tries = 60; // roughly 60 seconds with the 1 second sleep, not 100% accurate.
-
-    for(int i = 0; i < tries; i++) {
+    for(int i = 0; i < INSERT_TRIES; i++) {
       try {
         waitForMutationResponse(bucket.async().insert(
             RawJsonDocument.create(docId, documentExpiry, encode(values)),
@@ -430,7 +436,7 @@ public class Couchbase2Client extends DB {
       }
     }
 
-    throw new RuntimeException("Still receiving TMPFAIL from the server after trying " + tries + " times. " +
+    throw new RuntimeException("Still receiving TMPFAIL from the server after trying " + INSERT_TRIES + " times. " +
       "Check your server.");
   }
 
@@ -612,7 +618,30 @@ public class Couchbase2Client extends DB {
   private Status scanAllFields(final String table, final String startkey, final int recordcount,
       final Vector<HashMap<String, ByteIterator>> result) {
     final List<HashMap<String, ByteIterator>> data = new ArrayList<HashMap<String, ByteIterator>>(recordcount);
-    bucket.async()
+    scanAllFieldsRows(table, startkey, recordcount)
+        .toBlocking()
+        .forEach(new Action1<HashMap<String, ByteIterator>>() {
+          @Override
+          public void call(HashMap<String, ByteIterator> tuple) {
+            data.add(tuple);
+          }
+        });
+
+    result.addAll(data);
+    return Status.OK;
+  }
+
+  /**
+   * Loads the documents of a scan of all fields, see {@link #scanAllFields(String, String, int, Vector)}.
+   *
+   * @param table The name of the table
+   * @param startkey The record key of the first record to read.
+   * @param recordcount The number of records to read
+   * @return The records, each as a HashMap of field/value pairs.
+   */
+  private Observable<HashMap<String, ByteIterator>> scanAllFieldsRows(final String table, final String startkey,
+      final int recordcount) {
+    return bucket.async()
         .query(N1qlQuery.parameterized(
           scanAllQuery,
           JsonArray.from(formatId(table, startkey), recordcount),
@@ -647,17 +676,7 @@ public class Couchbase2Client extends DB {
             decode(document.content(), null, tuple);
             return tuple;
           }
-        })
-        .toBlocking()
-        .forEach(new Action1<HashMap<String, ByteIterator>>() {
-          @Override
-          public void call(HashMap<String, ByteIterator> tuple) {
-            data.add(tuple);
-          }
         });
-
-    result.addAll(data);
-    return Status.OK;
   }
 
   /**
@@ -703,6 +722,167 @@ public class Couchbase2Client extends DB {
     return Status.OK;
   }
 
+  @Override
+  public CompletableFuture<Status> readAsync(final String table, final String key, final Set<String> fields,
+                                             final Map<String, ByteIterator> result) {
+    if (!kv) {
+      return CompletableFuture.completedFuture(read(table, key, fields, result));
+    }
+    return toFuture(bucket.async().get(formatId(table, key), RawJsonDocument.class),
+        new Action1<RawJsonDocument>() {
+          @Override
+          public void call(RawJsonDocument loaded) {
+            decode(loaded.content(), fields, result);
+          }
+        });
+  }
+
+  @Override
+  public CompletableFuture<Status> updateAsync(final String table, final String key,
+                                               final Map<String, ByteIterator> values) {
+    if (upsert) {
+      return upsertAsync(table, key, values);
+    }
+    if (!kv) {
+      return CompletableFuture.completedFuture(update(table, key, values));
+    }
+    return mutationStatus(bucket.async().replace(
+        RawJsonDocument.create(formatId(table, key), documentExpiry, encode(values)),
+        persistTo,
+        replicateTo
+    ));
+  }
+
+  /**
+   * Performs the {@link #insert(String, String, Map)} operation asynchronously. Via Key/Value TMPFAILs are retried
+   * as by {@link #insertKv(String, Map)}, with a delay instead of a sleep.
+   */
+  @Override
+  public CompletableFuture<Status> insertAsync(final String table, final String key,
+                                               final Map<String, ByteIterator> values) {
+    if (upsert) {
+      return upsertAsync(table, key, values);
+    }
+    if (!kv) {
+      return CompletableFuture.completedFuture(insert(table, key, values));
+    }
+    return mutationStatus(bucket.async().insert(
+        RawJsonDocument.create(formatId(table, key), documentExpiry, encode(values)),
+        persistTo,
+        replicateTo
+    ).retryWhen(RetryBuilder
+        .anyOf(TemporaryFailureException.class)
+        .delay(Delay.fixed(1, TimeUnit.SECONDS))
+        .max(INSERT_TRIES)
+        .build()));
+  }
+
+  /**
+   * Performs an upsert instead of insert or update asynchronously, see {@link #upsert(String, String, Map)}.
+   *
+   * @param table The name of the table
+   * @param key The record key of the record to insert.
+   * @param values A HashMap of field/value pairs to insert in the record
+   * @return A future completed with the result of the operation.
+   */
+  private CompletableFuture<Status> upsertAsync(final String table, final String key,
+                                                final Map<String, ByteIterator> values) {
+    if (!kv) {
+      return CompletableFuture.completedFuture(upsert(table, key, values));
+    }
+    return mutationStatus(bucket.async().upsert(
+        RawJsonDocument.create(formatId(table, key), documentExpiry, encode(values)),
+        persistTo,
+        replicateTo
+    ));
+  }
+
+  @Override
+  public CompletableFuture<Status> deleteAsync(final String table, final String key) {
+    if (!kv) {
+      return CompletableFuture.completedFuture(delete(table, key));
+    }
+    return mutationStatus(bucket.async().remove(
+        formatId(table, key),
+        persistTo,
+        replicateTo
+    ));
+  }
+
+  @Override
+  public CompletableFuture<Status> scanAsync(final String table, final String startkey, final int recordcount,
+                                             final Set<String> fields,
+                                             final Vector<HashMap<String, ByteIterator>> result) {
+    if (fields != null && !fields.isEmpty()) {
+      return CompletableFuture.completedFuture(scan(table, startkey, recordcount, fields, result));
+    }
+    final List<HashMap<String, ByteIterator>> data = new ArrayList<HashMap<String, ByteIterator>>(recordcount);
+    return toFuture(scanAllFieldsRows(table, startkey, recordcount),
+        new Action1<HashMap<String, ByteIterator>>() {
+          @Override
+          public void call(HashMap<String, ByteIterator> tuple) {
+            data.add(tuple);
+          }
+        })
+        .thenApply(status -> {
+            if (status == Status.ERROR) {
+              return status;
+            }
+            result.addAll(data);
+            return Status.OK;
+          });
+  }
+
+  /**
+   * Helper method to complete a future with the status of a mutation, depending on the property set as with
+   * {@link #waitForMutationResponse(Observable)}.
+   *
+   * @param input the async input observable.
+   * @return A future completed with the result of the operation.
+   */
+  private CompletableFuture<Status> mutationStatus(final Observable<? extends Document<?>> input) {
+    if (!syncMutResponse) {
+      waitForMutationResponse(input);
+      return CompletableFuture.completedFuture(Status.OK);
+    }
+    return toFuture(input, null);
+  }
+
+  /**
+   * Helper method to subscribe to an async observable, completing a future once it is done.
+   *
+   * @param input the async input observable.
+   * @param onItem called with every item emitted, may be null.
+   * @return A future completed with OK if the observable emitted an item, NOT_FOUND if it emitted none and ERROR
+   *         if it failed.
+   */
+  private static <T> CompletableFuture<Status> toFuture(final Observable<T> input, final Action1<T> onItem) {
+    final CompletableFuture<Status> future = new CompletableFuture<Status>();
+    input.subscribe(new Subscriber<T>() {
+      private boolean found = false;
+
+      @Override
+      public void onCompleted() {
+        future.complete(found ? Status.OK : Status.NOT_FOUND);
+      }
+
+      @Override
+      public void onError(Throwable e) {
+        e.printStackTrace();
+        future.complete(Status.ERROR);
+      }
+
+      @Override
+      public void onNext(T item) {
+        found = true;
+        if (onItem != null) {
+          onItem.call(item);
+        }
+      }
+    });
+    return future;
+  }
+
   /**
    * Helper method to block on the response, depending on the property set.
    *
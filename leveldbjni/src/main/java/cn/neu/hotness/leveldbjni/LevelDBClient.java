@@ -2,6 +2,7 @@ package cn.neu.hotness.leveldbjni;
 
 import net.jcip.annotations.GuardedBy;
 import site.ycsb.*;
+import site.ycsb.workloads.KeyEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,8 +63,10 @@ public class LevelDBClient extends DB {
 
   @Override
   public Status read(final String table, final String key, final Set<String> fields, final Map<String, ByteIterator> result) {
-    final byte[] values;
-    values = levelDb.get( key.getBytes(UTF_8));
+    final byte[] keyBytes = KeyEncoder.toBytes(key);
+    beginStoreCall();
+    final byte[] values = levelDb.get(keyBytes);
+    endStoreCall();
     if(values == null) {
       return Status.NOT_FOUND;
     }
@@ -73,7 +76,10 @@ public class LevelDBClient extends DB {
 
   @Override
   public Status scan(String table, String startkey, int recordcount, Set<String> fields, Vector<HashMap<String, ByteIterator>> result) {
-    var record = levelDb.scan(startkey.getBytes(UTF_8), recordcount);
+    var startKeyBytes = KeyEncoder.toBytes(startkey);
+    beginStoreCall();
+    var record = levelDb.scan(startKeyBytes, recordcount);
+    endStoreCall();
     if (record == null) {
       return Status.NOT_FOUND;
     }
@@ -91,7 +97,11 @@ public class LevelDBClient extends DB {
 
     try {
       // store
-      levelDb.put(key.getBytes(UTF_8), serializeValues(result));
+      final byte[] keyBytes = KeyEncoder.toBytes(key);
+      final byte[] serialized = serializeValues(result);
+      beginStoreCall();
+      levelDb.put(keyBytes, serialized);
+      endStoreCall();
       return Status.OK;
     } catch (final IOException e) {
       LOGGER.error("serializeValues Exception thrown update to DB: ");
@@ -103,7 +113,11 @@ public class LevelDBClient extends DB {
   public Status insert(String table, String key, Map<String, ByteIterator> values) {
     boolean ok;
     try {
-      ok = levelDb.put(key.getBytes(UTF_8), serializeValues(values));
+      final byte[] keyBytes = KeyEncoder.toBytes(key);
+      final byte[] serialized = serializeValues(values);
+      beginStoreCall();
+      ok = levelDb.put(keyBytes, serialized);
+      endStoreCall();
       return ok ? Status.OK : Status.ERROR;
     } catch (IOException e) {
       LOGGER.error("serializeValues Exception thrown writing to DB: ");
@@ -113,7 +127,11 @@ public class LevelDBClient extends DB {
 
   @Override
   public Status delete(String table, String key) {
-    return levelDb.delete(key.getBytes(UTF_8)) ? Status.OK : Status.ERROR;
+    final byte[] keyBytes = KeyEncoder.toBytes(key);
+    beginStoreCall();
+    final boolean ok = levelDb.delete(keyBytes);
+    endStoreCall();
+    return ok ? Status.OK : Status.ERROR;
   }
 
   @Override
@@ -18,6 +18,7 @@ package site.ycsb.db;
 
 import static com.allanbank.mongodb.builder.QueryBuilder.where;
 
+import com.allanbank.mongodb.Callback;
 import com.allanbank.mongodb.Durability;
 import com.allanbank.mongodb.LockType;
 import com.allanbank.mongodb.MongoClient;
@@ -38,6 +39,7 @@ import com.allanbank.mongodb.builder.BatchedWrite;
 import com.allanbank.mongodb.builder.BatchedWriteMode;
 import com.allanbank.mongodb.builder.Find;
 import com.allanbank.mongodb.builder.Sort;
+import site.ycsb.AsyncDB;
 import site.ycsb.ByteIterator;
 import site.ycsb.DB;
 import site.ycsb.DBException;
@@ -49,6 +51,7 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -58,12 +61,16 @@ import java.util.concurrent.atomic.AtomicInteger;
  * <p>
  * See the <code>README.md</code> for configuration information.
  * </p>
+ * <p>
+ * Run with <code>inflight.max</code> greater than one to keep several requests
+ * outstanding per client thread through the driver's callbacks.
+ * </p>
  *
  * @author rjm
  * @see <a href="http://www.allanbank.com/mongodb-async-driver/">Asynchronous
  *      Java Driver</a>
  */
-public class AsyncMongoDbClient extends DB {
+public class AsyncMongoDbClient extends AsyncDB {
 
   /** Used to include a field in a response. */
   protected static final int INCLUDE = 1;
@@ -469,6 +476,211 @@ public class AsyncMongoDbClient extends DB {
     }
   }
 
+  @Override
+  public final CompletableFuture<Status> deleteAsync(final String table,
+      final String key) {
+    final CompletableFuture<Long> deleted = new CompletableFuture<Long>();
+    final Document q = BuilderFactory.start().add("_id", key).build();
+    database.getCollection(table).deleteAsync(completing(deleted), q,
+        writeConcern);
+    return deleted.handle((res, error) -> {
+        if (error != null) {
+          System.err.println(error.toString());
+          return Status.ERROR;
+        }
+        if (res == 0) {
+          System.err.println("Nothing deleted for key " + key);
+          return Status.NOT_FOUND;
+        }
+        return Status.OK;
+      });
+  }
+
+  @Override
+  public final CompletableFuture<Status> insertAsync(final String table,
+      final String key, final Map<String, ByteIterator> values) {
+    final MongoCollection collection = database.getCollection(table);
+    // the documents stay with the driver until the request is sent, so they
+    // can't come from the thread local builder
+    final DocumentBuilder toInsert = BuilderFactory.start().add("_id", key);
+    final Document query = toInsert.build();
+    for (final Map.Entry<String, ByteIterator> entry : values.entrySet()) {
+      toInsert.add(entry.getKey(), entry.getValue().toArray());
+    }
+
+    if (batchSize <= 1) {
+      if (useUpsert) {
+        final CompletableFuture<Long> upserted = new CompletableFuture<Long>();
+        collection.updateAsync(completing(upserted), query, toInsert.build(),
+            /* multi= */false, /* upsert= */true, writeConcern);
+        return upserted.handle((result, error) ->
+            toStatus(error, result != null && result == 1));
+      }
+      // Return is not stable pre-SERVER-4381. No exception is success.
+      final CompletableFuture<Integer> inserted =
+          new CompletableFuture<Integer>();
+      collection.insertAsync(completing(inserted), writeConcern,
+          toInsert.build());
+      return inserted.handle((result, error) -> toStatus(error, true));
+    }
+
+    // Use a bulk insert.
+    if (useUpsert) {
+      batchedWrite.update(query, toInsert, /* multi= */false,
+          /* upsert= */true);
+    } else {
+      batchedWrite.insert(toInsert);
+    }
+    batchedWriteCount += 1;
+
+    if (batchedWriteCount < batchSize) {
+      return CompletableFuture.completedFuture(Status.BATCHED_OK);
+    }
+
+    final BatchedWrite write = batchedWrite.build();
+    final int sent = batchedWriteCount;
+    batchedWrite.reset().mode(BatchedWriteMode.REORDERED);
+    batchedWriteCount = 0;
+
+    final CompletableFuture<Long> written = new CompletableFuture<Long>();
+    collection.writeAsync(completing(written), write);
+    return written.handle((count, error) -> {
+        if (error == null && count != sent) {
+          System.err.println("Number of inserted documents doesn't match the "
+              + "number sent, " + count + " inserted, sent " + sent);
+          return Status.ERROR;
+        }
+        return toStatus(error, true);
+      });
+  }
+
+  @Override
+  public final CompletableFuture<Status> readAsync(final String table,
+      final String key, final Set<String> fields,
+      final Map<String, ByteIterator> result) {
+    final Find.Builder fb =
+        new Find.Builder(BuilderFactory.start().add("_id", key));
+    if (fields != null) {
+      final DocumentBuilder fieldsToReturn = BuilderFactory.start();
+      for (final String field : fields) {
+        fieldsToReturn.add(field, INCLUDE);
+      }
+      fb.projection(fieldsToReturn);
+    }
+    fb.readPreference(readPreference);
+
+    final CompletableFuture<Document> found = new CompletableFuture<Document>();
+    database.getCollection(table).findOneAsync(completing(found), fb.build());
+    return found.handle((queryResult, error) -> {
+        if (queryResult != null) {
+          fillMap(result, queryResult);
+        }
+        return toStatus(error, queryResult != null);
+      });
+  }
+
+  @Override
+  public final CompletableFuture<Status> scanAsync(final String table,
+      final String startkey, final int recordcount, final Set<String> fields,
+      final Vector<HashMap<String, ByteIterator>> result) {
+    final Find.Builder find =
+        Find.builder().query(where("_id").greaterThanOrEqualTo(startkey))
+            .limit(recordcount).batchSize(recordcount).sort(Sort.asc("_id"))
+            .readPreference(readPreference);
+
+    if (fields != null) {
+      final DocumentBuilder fieldsDoc = BuilderFactory.start();
+      for (final String field : fields) {
+        fieldsDoc.add(field, INCLUDE);
+      }
+
+      find.projection(fieldsDoc);
+    }
+
+    final CompletableFuture<MongoIterator<Document>> found =
+        new CompletableFuture<MongoIterator<Document>>();
+    database.getCollection(table).findAsync(completing(found), find.build());
+    return found.handle((cursor, error) -> {
+        if (error != null) {
+          System.err.println(error.toString());
+          return Status.ERROR;
+        }
+        // the batch size is the limit, so the whole result came with the
+        // first reply and iterating it does not go back to the server
+        result.ensureCapacity(recordcount);
+        try {
+          while (cursor.hasNext()) {
+            final HashMap<String, ByteIterator> docAsMap =
+                new HashMap<String, ByteIterator>();
+            fillMap(docAsMap, cursor.next());
+            result.add(docAsMap);
+          }
+        } finally {
+          cursor.close();
+        }
+        if (result.isEmpty()) {
+          System.err.println("Nothing found in scan for key " + startkey);
+          return Status.NOT_FOUND;
+        }
+        return Status.OK;
+      });
+  }
+
+  @Override
+  public final CompletableFuture<Status> updateAsync(final String table,
+      final String key, final Map<String, ByteIterator> values) {
+    final DocumentBuilder query = BuilderFactory.start().add("_id", key);
+    final DocumentBuilder update = BuilderFactory.start();
+    final DocumentBuilder fieldsToSet = update.push("$set");
+
+    for (final Map.Entry<String, ByteIterator> entry : values.entrySet()) {
+      fieldsToSet.add(entry.getKey(), entry.getValue().toArray());
+    }
+    final CompletableFuture<Long> updated = new CompletableFuture<Long>();
+    database.getCollection(table).updateAsync(completing(updated), query,
+        update, false, false, writeConcern);
+    return updated.handle((res, error) -> toStatus(error,
+        writeConcern == Durability.NONE || (res != null && res == 1)));
+  }
+
+  /**
+   * Maps the outcome of an asynchronous request to a status.
+   * 
+   * @param error
+   *          The error the request failed with, or null.
+   * @param found
+   *          If the request found what it was looking for.
+   * @return ERROR if the request failed, otherwise OK or NOT_FOUND.
+   */
+  private static Status toStatus(final Throwable error, final boolean found) {
+    if (error != null) {
+      System.err.println(error.toString());
+      return Status.ERROR;
+    }
+    return found ? Status.OK : Status.NOT_FOUND;
+  }
+
+  /**
+   * Creates a driver callback that completes a future.
+   * 
+   * @param future
+   *          The future to complete with the result or error of the request.
+   * @return The callback.
+   */
+  private static <T> Callback<T> completing(final CompletableFuture<T> future) {
+    return new Callback<T>() {
+      @Override
+      public void callback(final T result) {
+        future.complete(result);
+      }
+
+      @Override
+      public void exception(final Throwable thrown) {
+        future.completeExceptionally(thrown);
+      }
+    };
+  }
+
   /**
    * Fills the map with the ByteIterators from the document.
    * 
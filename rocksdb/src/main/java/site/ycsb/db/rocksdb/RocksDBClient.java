@@ -19,6 +19,7 @@ package site.ycsb.db.rocksdb;
 
 import site.ycsb.*;
 import site.ycsb.Status;
+import site.ycsb.workloads.KeyEncoder;
 import net.jcip.annotations.GuardedBy;
 import org.rocksdb.*;
 import org.slf4j.Logger;
@@ -218,7 +219,10 @@ public class RocksDBClient extends DB {
       }
 
       final ColumnFamilyHandle cf = COLUMN_FAMILIES.get(table).getHandle();
-      final byte[] values = rocksDb.get(cf, key.getBytes(UTF_8));
+      final byte[] keyBytes = KeyEncoder.toBytes(key);
+      beginStoreCall();
+      final byte[] values = rocksDb.get(cf, keyBytes);
+      endStoreCall();
       if(values == null) {
         return Status.NOT_FOUND;
       }
@@ -239,16 +243,21 @@ public class RocksDBClient extends DB {
       }
 
       final ColumnFamilyHandle cf = COLUMN_FAMILIES.get(table).getHandle();
+      final byte[] startKeyBytes = KeyEncoder.toBytes(startkey);
+      beginStoreCall();
       try(final RocksIterator iterator = rocksDb.newIterator(cf)) {
         int iterations = 0;
-        for (iterator.seek(startkey.getBytes(UTF_8)); iterator.isValid() && iterations < recordcount;
-             iterator.next()) {
+        for (iterator.seek(startKeyBytes); iterator.isValid() && iterations < recordcount; iterator.next()) {
+          final byte[] value = iterator.value();
+          endStoreCall();
           final HashMap<String, ByteIterator> values = new HashMap<>();
-          deserializeValues(iterator.value(), fields, values);
+          deserializeValues(value, fields, values);
           result.add(values);
           iterations++;
+          beginStoreCall();
         }
       }
+      endStoreCall();
 
       return Status.OK;
     } catch(final RocksDBException e) {
@@ -268,7 +277,10 @@ public class RocksDBClient extends DB {
 
       final ColumnFamilyHandle cf = COLUMN_FAMILIES.get(table).getHandle();
       final Map<String, ByteIterator> result = new HashMap<>();
-      final byte[] currentValues = rocksDb.get(cf, key.getBytes(UTF_8));
+      final byte[] keyBytes = KeyEncoder.toBytes(key);
+      beginStoreCall();
+      final byte[] currentValues = rocksDb.get(cf, keyBytes);
+      endStoreCall();
       if(currentValues == null) {
         return Status.NOT_FOUND;
       }
@@ -278,7 +290,10 @@ public class RocksDBClient extends DB {
       result.putAll(values);
 
       //store
-      rocksDb.put(cf, key.getBytes(UTF_8), serializeValues(result));
+      final byte[] serialized = serializeValues(result);
+      beginStoreCall();
+      rocksDb.put(cf, keyBytes, serialized);
+      endStoreCall();
 
       return Status.OK;
 
@@ -296,7 +311,11 @@ public class RocksDBClient extends DB {
       }
 
       final ColumnFamilyHandle cf = COLUMN_FAMILIES.get(table).getHandle();
-      rocksDb.put(cf, key.getBytes(UTF_8), serializeValues(values));
+      final byte[] keyBytes = KeyEncoder.toBytes(key);
+      final byte[] serialized = serializeValues(values);
+      beginStoreCall();
+      rocksDb.put(cf, keyBytes, serialized);
+      endStoreCall();
 
       return Status.OK;
     } catch(final RocksDBException | IOException e) {
@@ -313,7 +332,10 @@ public class RocksDBClient extends DB {
       }
 
       final ColumnFamilyHandle cf = COLUMN_FAMILIES.get(table).getHandle();
-      rocksDb.delete(cf, key.getBytes(UTF_8));
+      final byte[] keyBytes = KeyEncoder.toBytes(key);
+      beginStoreCall();
+      rocksDb.delete(cf, keyBytes);
+      endStoreCall();
 
       return Status.OK;
     } catch(final RocksDBException e) {